@@ -0,0 +1,77 @@
+package benchmarks;
+
+import commons.Debt;
+import commons.DebtMinimizationGraph;
+import commons.Event;
+import commons.MaxFlowSettlementStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the max-flow settlement of events made of groups that share no expenses, with the
+ * groups settled on all cores and on a single worker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ComponentSettlementBenchmark {
+    private static final int PARTICIPANTS = 64;
+    private static final int EXPENSES = 2000;
+    private static final double DENSITY = 0.5;
+
+    /**
+     * The number of groups the participants of the event form
+     */
+    @Param({"1", "4", "8"})
+    public int groups;
+
+    private Event event;
+    private ForkJoinPool singleWorker;
+
+    /**
+     * Builds the event and the pool with a single worker
+     */
+    @Setup
+    public void setUp() {
+        event = SyntheticEvents.create(PARTICIPANTS, EXPENSES, DENSITY, groups);
+        singleWorker = new ForkJoinPool(1);
+    }
+
+    /**
+     * Stops the pool with a single worker
+     */
+    @TearDown
+    public void tearDown() {
+        singleWorker.shutdown();
+    }
+
+    /**
+     * Settles the groups on the common pool
+     * @return the debts
+     */
+    @Benchmark
+    public List<Debt> settleOnCommonPool() {
+        return new MaxFlowSettlementStrategy().settle(event);
+    }
+
+    /**
+     * Settles the groups on a single worker, next to the calling thread
+     * @return the debts
+     */
+    @Benchmark
+    public List<Debt> settleOnSingleWorker() {
+        return new MaxFlowSettlementStrategy(DebtMinimizationGraph::new, singleWorker)
+            .settle(event);
+    }
+}
@@ -0,0 +1,130 @@
+package benchmarks;
+
+import commons.ArrayDebtMinimizationGraph;
+import commons.Debt;
+import commons.DebtFlowGraph;
+import commons.DebtMinimizationGraph;
+import commons.Event;
+import commons.Participant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the graph algorithms of the max-flow settlement on the debts of an event. Both
+ * change the graph they run on, so every invocation gets a new graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DebtGraphBenchmark {
+    private static final int EXPENSES_PER_PARTICIPANT = 20;
+
+    /**
+     * The number of participants, and so vertices of the graph
+     */
+    @Param({"8", "32", "64"})
+    public int participants;
+
+    /**
+     * The share of the participants every expense is split between
+     */
+    @Param({"0.25", "1.0"})
+    public double density;
+
+    // Every debt as debtor, creditor and amount
+    private int[][] edges;
+    private int source;
+    private int sink;
+    private DebtMinimizationGraph listGraph;
+    private ArrayDebtMinimizationGraph arrayGraph;
+
+    /**
+     * Turns the debts of an event into edges between the indices of its participants
+     */
+    @Setup(Level.Trial)
+    public void setUpEdges() {
+        Event event = SyntheticEvents.create(participants,
+            participants * EXPENSES_PER_PARTICIPANT, density);
+        Map<Participant, Integer> indices = new HashMap<>();
+        for (Participant participant : event.getParticipants()) {
+            indices.put(participant, (int) participant.getId() - 1);
+        }
+        List<Debt> debts = event.paymentsToDebt(event);
+        edges = new int[debts.size()][];
+        for (int i = 0; i < edges.length; i++) {
+            Debt debt = debts.get(i);
+            edges[i] = new int[] {indices.get(debt.getDebtor()), indices.get(debt.getCreditor()),
+                (int) debt.getAmount().getInternalValue()};
+        }
+        pickSourceAndSink();
+    }
+
+    // Flow runs from the biggest debtor to the biggest creditor, as there is most to move
+    private void pickSourceAndSink() {
+        long[] balances = new long[participants];
+        for (int[] edge : edges) {
+            balances[edge[0]] -= edge[2];
+            balances[edge[1]] += edge[2];
+        }
+        for (int i = 0; i < participants; i++) {
+            source = balances[i] < balances[source] ? i : source;
+            sink = balances[i] > balances[sink] ? i : sink;
+        }
+    }
+
+    /**
+     * Builds new graphs from the edges
+     */
+    @Setup(Level.Invocation)
+    public void setUpGraphs() {
+        listGraph = fill(new DebtMinimizationGraph(participants));
+        arrayGraph = fill(new ArrayDebtMinimizationGraph(participants));
+    }
+
+    private <G extends DebtFlowGraph> G fill(G graph) {
+        for (int[] edge : edges) {
+            graph.addEdge(edge[0], edge[1], edge[2]);
+        }
+        return graph;
+    }
+
+    /**
+     * Runs max-flow from the biggest debtor to the biggest creditor on the list based graph
+     * @return the max flow
+     */
+    @Benchmark
+    public int maxFlow() {
+        return listGraph.maxFlow(source, sink);
+    }
+
+    /**
+     * Runs max-flow from the biggest debtor to the biggest creditor on the array based graph
+     * @return the max flow
+     */
+    @Benchmark
+    public int maxFlowArray() {
+        return arrayGraph.maxFlow(source, sink);
+    }
+
+    /**
+     * Collapses the debt chains of the graph
+     * @return the graph
+     */
+    @Benchmark
+    public DebtMinimizationGraph minimizeDebtChains() {
+        listGraph.minimizeDebtChains(participants);
+        return listGraph;
+    }
+}
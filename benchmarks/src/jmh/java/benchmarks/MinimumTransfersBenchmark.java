@@ -0,0 +1,95 @@
+package benchmarks;
+
+import commons.Debt;
+import commons.GreedySettlementStrategy;
+import commons.MinimumTransfersSettlementStrategy;
+import commons.Participant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the exact minimum transfers settlement against the greedy one it falls back to,
+ * on balances up to the size the exact search handles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MinimumTransfersBenchmark {
+    private static final long SEED = 42;
+
+    /**
+     * The number of non-zero balances
+     */
+    @Param({"8", "14", "20"})
+    public int balanceCount;
+
+    /**
+     * The largest balance in whole units. Small balances cancel out in many ways, which
+     * gives the search more groups to find
+     */
+    @Param({"10", "100000"})
+    public int maxBalance;
+
+    private Map<Participant, Long> balances;
+    private MinimumTransfersSettlementStrategy exact;
+
+    /**
+     * Builds balances adding up to zero, none of them zero
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        balances = new HashMap<>();
+        long sum;
+        do {
+            balances.clear();
+            sum = 0;
+            for (int i = 0; i < balanceCount - 1; i++) {
+                long amount = (1 + random.nextInt(maxBalance)) * (random.nextBoolean() ? 1 : -1);
+                balances.put(participant(i), amount);
+                sum += amount;
+            }
+        } while (sum == 0);
+        balances.put(participant(balanceCount - 1), -sum);
+        // No time limit, so the benchmark never measures the fallback
+        exact = new MinimumTransfersSettlementStrategy(balanceCount, Duration.ofDays(1));
+    }
+
+    private static Participant participant(int i) {
+        Participant participant = new Participant("P" + i, "p" + i + "@bench.com",
+            "NL00BENCH" + i, "BENCHNL2A");
+        participant.setId(i + 1);
+        return participant;
+    }
+
+    /**
+     * Settles the balances with the fewest transfers
+     * @return the debts
+     */
+    @Benchmark
+    public List<Debt> settleMinimumTransfers() {
+        return exact.settle(balances);
+    }
+
+    /**
+     * Settles the balances by matching the biggest debtors with the biggest creditors
+     * @return the debts
+     */
+    @Benchmark
+    public List<Debt> settleGreedy() {
+        return new GreedySettlementStrategy().settle(balances);
+    }
+}
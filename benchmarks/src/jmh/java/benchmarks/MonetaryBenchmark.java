@@ -0,0 +1,89 @@
+package benchmarks;
+
+import commons.Event;
+import commons.Expense;
+import commons.Monetary;
+import commons.MonetaryAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding up the expenses of an event, once by creating a Monetary per expense and
+ * once in an accumulator, and looking up monetary values in a hash set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MonetaryBenchmark {
+    /**
+     * The number of expenses
+     */
+    @Param({"100", "10000"})
+    public int expenses;
+
+    private Monetary[] amounts;
+    private Set<Monetary> distinct;
+
+    /**
+     * Takes the amounts of the expenses of a synthetic event
+     */
+    @Setup
+    public void setUp() {
+        Event event = SyntheticEvents.create(32, expenses, 0.25);
+        amounts = event.getExpenses().stream().map(Expense::getAmount)
+            .toArray(Monetary[]::new);
+        distinct = new HashSet<>();
+        for (Monetary amount : amounts) {
+            distinct.add(new Monetary(amount.getInternalValue()));
+        }
+    }
+
+    /**
+     * Adds up the amounts with a new Monetary for every step
+     * @return the total
+     */
+    @Benchmark
+    public Monetary addMonetaries() {
+        Monetary total = new Monetary(0);
+        for (Monetary amount : amounts) {
+            total = Monetary.add(total, amount);
+        }
+        return total;
+    }
+
+    /**
+     * Adds up the amounts in an accumulator
+     * @return the total
+     */
+    @Benchmark
+    public Monetary accumulate() {
+        MonetaryAccumulator total = new MonetaryAccumulator();
+        for (Monetary amount : amounts) {
+            total.add(amount);
+        }
+        return total.toMonetary();
+    }
+
+    /**
+     * Looks up every amount in a hash set, which calls equals and hashCode
+     * @return the number of amounts found
+     */
+    @Benchmark
+    public int lookUp() {
+        int found = 0;
+        for (Monetary amount : amounts) {
+            found += distinct.contains(amount) ? 1 : 0;
+        }
+        return found;
+    }
+}
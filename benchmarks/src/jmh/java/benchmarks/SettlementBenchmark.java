@@ -0,0 +1,103 @@
+package benchmarks;
+
+import commons.ArrayDebtMinimizationGraph;
+import commons.Debt;
+import commons.Event;
+import commons.Event.DebtPair;
+import commons.GreedySettlementStrategy;
+import commons.MaxFlowSettlementStrategy;
+import commons.Monetary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the steps settling an event, from the payments of its expenses to the debts shown
+ * in the open debts view. The whole pipeline is what ServerUtils.calculateDebts runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SettlementBenchmark {
+    /**
+     * The number of participants of the event
+     */
+    @Param({"8", "32", "64"})
+    public int participants;
+
+    /**
+     * The number of expenses of the event
+     */
+    @Param({"100", "1000"})
+    public int expenses;
+
+    /**
+     * The share of the participants every expense is split between
+     */
+    @Param({"0.25", "1.0"})
+    public double density;
+
+    private Event event;
+
+    /**
+     * Builds the event settled by every benchmark
+     */
+    @Setup
+    public void setUp() {
+        event = SyntheticEvents.create(participants, expenses, density);
+    }
+
+    /**
+     * Sums what every participant owes every other participant
+     * @return the payments
+     */
+    @Benchmark
+    public Map<DebtPair, Monetary> calculatePayments() {
+        return Event.calculatePayments(event);
+    }
+
+    /**
+     * Nets the payments between every pair of participants
+     * @return the debts
+     */
+    @Benchmark
+    public List<Debt> paymentsToDebt() {
+        return event.paymentsToDebt(event);
+    }
+
+    /**
+     * Settles the event with max-flow on the list based graph, as the client does by default
+     * @return the debts
+     */
+    @Benchmark
+    public List<Debt> settleMaxFlow() {
+        return new MaxFlowSettlementStrategy().settle(event);
+    }
+
+    /**
+     * Settles the event with max-flow on the array based graph
+     * @return the debts
+     */
+    @Benchmark
+    public List<Debt> settleMaxFlowArray() {
+        return new MaxFlowSettlementStrategy(ArrayDebtMinimizationGraph::new).settle(event);
+    }
+
+    /**
+     * Settles the event by matching the biggest debtors with the biggest creditors
+     * @return the debts
+     */
+    @Benchmark
+    public List<Debt> settleGreedy() {
+        return new GreedySettlementStrategy().settle(event);
+    }
+}
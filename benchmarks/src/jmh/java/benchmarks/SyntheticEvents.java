@@ -0,0 +1,85 @@
+package benchmarks;
+
+import commons.Event;
+import commons.Expense;
+import commons.Monetary;
+import commons.Participant;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Builds events with random expenses for the benchmarks. The same arguments always build the
+ * same event, so results of different runs can be compared.
+ */
+public final class SyntheticEvents {
+    private static final long SEED = 42;
+    private static final int MAX_AMOUNT = 100_000;
+
+    private SyntheticEvents() {
+        // only static methods
+    }
+
+    /**
+     * Builds an event
+     * @param participants the number of participants
+     * @param expenses the number of expenses
+     * @param density the share of the participants every expense is split between, from 0 to 1.
+     *                An expense is split between at least two participants
+     * @return the event
+     */
+    public static Event create(int participants, int expenses, double density) {
+        return create(participants, expenses, density, 1);
+    }
+
+    /**
+     * Builds an event whose participants form groups that share no expenses
+     * @param participants the number of participants, divided evenly over the groups
+     * @param expenses the number of expenses
+     * @param density the share of a group every expense is split between, from 0 to 1.
+     *                An expense is split between at least two participants
+     * @param groups the number of groups
+     * @return the event
+     */
+    public static Event create(int participants, int expenses, double density, int groups) {
+        Random random = new Random(SEED);
+        List<List<Participant>> people = new ArrayList<>(groups);
+        for (int g = 0; g < groups; g++) {
+            people.add(new ArrayList<>());
+        }
+        for (int i = 0; i < participants; i++) {
+            Participant participant = new Participant("P" + i, "p" + i + "@bench.com",
+                "NL00BENCH" + i, "BENCHNL2A");
+            participant.setId(i + 1);
+            people.get(i % groups).add(participant);
+        }
+        Event event = new Event("BENCH", "benchmark", LocalDateTime.now(), new HashSet<>(),
+            new HashSet<>());
+        people.forEach(event.getParticipants()::addAll);
+        event.setExpenses(new HashSet<>());
+        for (int i = 0; i < expenses; i++) {
+            // A single group draws nothing, so it builds the same events as before groups
+            List<Participant> group = people.get(groups == 1 ? 0 : random.nextInt(groups));
+            int splitSize = Math.max(2,
+                Math.min(group.size(), (int) Math.round(density * group.size())));
+            Participant creator = group.get(random.nextInt(group.size()));
+            event.getExpenses().add(new Expense(event, "expense " + i, creator,
+                new Monetary(1 + random.nextInt(MAX_AMOUNT)), LocalDate.now(),
+                splitBetween(group, splitSize, random)));
+        }
+        return event;
+    }
+
+    private static Set<Participant> splitBetween(List<Participant> people, int size,
+                                                 Random random) {
+        List<Participant> shuffled = new ArrayList<>(people);
+        Collections.shuffle(shuffled, random);
+        return new HashSet<>(shuffled.subList(0, size));
+    }
+}
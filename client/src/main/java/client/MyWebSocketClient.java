@@ -7,7 +7,9 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import client.scenes.MainCtrl;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.google.inject.Inject;
+import commons.EventDelta;
 import commons.WebSocketMessage;
 import javafx.application.Platform;
 import org.java_websocket.client.WebSocketClient;
@@ -30,6 +32,7 @@ public class MyWebSocketClient extends WebSocketClient {
         super(new URI(((String) config.getProperty("address"))
             .replaceFirst("^http://", "ws://") + "/ws"));
         this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
         this.mainCtrl = mainCtrl;
         try {
             this.connectSync();
@@ -87,6 +90,11 @@ public class MyWebSocketClient extends WebSocketClient {
                 Platform.runLater(mainCtrl::refreshData);
                 return;
             }
+            if (response.getEndpoint() != null && response.getEndpoint().equals("events/delta")) {
+                EventDelta delta = objectMapper.convertValue(response.getData(), EventDelta.class);
+                Platform.runLater(() -> mainCtrl.applyDelta(delta));
+                return;
+            }
             CompletableFuture<WebSocketMessage> future = pendingRequests.remove(response.getId());
             if (future != null) {
                 future.complete(response);
@@ -83,6 +83,19 @@ public class ExpenseTypeCtrl {
         }
     }
 
+    /**
+     * Redraws the tags with a patched copy of the shown event
+     *
+     * @param ev the patched event
+     */
+    public void update(Event ev) {
+        if (this.event != null && this.event.getInviteCode().equals(ev.getInviteCode())) {
+            this.event = ev;
+            refreshTags();
+            tags.setItems(tagsObs);
+        }
+    }
+
     private void refreshTags() {
         tagsObs.clear();
         for (ExpenseType t : this.event.getTags()) {
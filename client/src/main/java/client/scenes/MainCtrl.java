@@ -18,6 +18,7 @@ import client.utils.ResourceManager;
 import client.utils.SceneEnum;
 import client.utils.SceneManager;
 import commons.Event;
+import commons.EventDelta;
 import commons.Expense;
 import commons.ExpenseType;
 import commons.Participant;
@@ -59,6 +60,8 @@ public class MainCtrl {
     private Scene statistics;
     private Optional<Locale> currentLocale = Optional.empty();
     private boolean isInOpenDebt = false;
+    // Version of the last change of the current event, -1 if it is not known
+    private long eventVersion = -1;
     private ResourceManager resourceManager = new ResourceManager(this);
 
     /**
@@ -266,6 +269,37 @@ public class MainCtrl {
         }
     }
 
+    /**
+     * Sets the version of the current event the client is up to date with
+     *
+     * @param eventVersion the version returned when subscribing to the event
+     */
+    public void setEventVersion(long eventVersion) {
+        this.eventVersion = eventVersion;
+    }
+
+    /**
+     * Patches the shown event with a change pushed by the server. Falls back to refreshing
+     * all data if a change was missed or the current view can not be patched.
+     *
+     * @param delta the change
+     */
+    public void applyDelta(EventDelta delta) {
+        if (delta.getVersion() <= eventVersion) {
+            // Already contained in the event fetched when subscribing
+            return;
+        }
+        boolean missed = eventVersion >= 0 && delta.getVersion() != eventVersion + 1;
+        eventVersion = delta.getVersion();
+        if (missed || isInOpenDebt || isInManagement || !overviewEventCtrl.applyDelta(delta)) {
+            refreshData();
+            return;
+        }
+        Event event = overviewEventCtrl.getEvent();
+        statisticsCtrl.update(event);
+        expenseTypeCtrl.update(event);
+    }
+
     /**
      * sets the current locale of the application
      * 
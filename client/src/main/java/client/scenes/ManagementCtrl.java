@@ -1,10 +1,16 @@
 package client.scenes;
 
 import client.utils.AlertBuilder;
+import client.utils.ImportReport;
 import client.utils.ResourceManager;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import commons.Event;
+import commons.EventSummary;
+import commons.ImportResult;
+import commons.Monetary;
+import jakarta.ws.rs.ProcessingException;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -21,6 +27,7 @@ import javafx.stage.FileChooser;
 import com.google.inject.Inject;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatterBuilder;
 import java.util.*;
@@ -29,24 +36,42 @@ import java.util.stream.Collectors;
 
 
 public class ManagementCtrl {
+    /**
+     * The number of events shown on a page of the table
+     */
+    public static final int PAGE_SIZE = 50;
+    // The number of events that were not imported listed after an import
+    private static final int REJECTED_SHOWN = 20;
+
     private final MainCtrl mainCtrl;
     private final ServerUtils server;
-    private List<Event> events;
+    private List<EventSummary> events;
+    private int page;
 
     @FXML
     private Button jsonDumpButton;
     @FXML
     private Button importJsonDumpButton;
     @FXML
-    private TableView<Event> eventsTable;
+    private Button previousPageButton;
+    @FXML
+    private Button nextPageButton;
+    @FXML
+    private TableView<EventSummary> eventsTable;
+    @FXML
+    private TableColumn<EventSummary, String> titleColumn;
+    @FXML
+    private TableColumn<EventSummary, String> creationDateColumn;
+    @FXML
+    private TableColumn<EventSummary, String> lastActivityColumn;
     @FXML
-    private TableColumn<Event, String> titleColumn;
+    private TableColumn<EventSummary, String> inviteCodeColumn;
     @FXML
-    private TableColumn<Event, String> creationDateColumn;
+    private TableColumn<EventSummary, Number> participantsColumn;
     @FXML
-    private TableColumn<Event, String> lastActivityColumn;
+    private TableColumn<EventSummary, Number> expensesColumn;
     @FXML
-    private TableColumn<Event, String> inviteCodeColumn;
+    private TableColumn<EventSummary, String> totalColumn;
     private ResourceManager resourceManager;
 
 
@@ -63,16 +88,20 @@ public class ManagementCtrl {
     }
 
     /**
-     * fetches and displays all events from the server.
-     * if all events are successfully retrieved,
+     * fetches and displays the current page of events from the server.
+     * only a summary of every event on the page is retrieved, so the table
+     * takes the same memory however many events the server has.
+     * if the page is successfully retrieved,
      * updates the local events list and initializes the display table.
      * if retrieval fails, shows an error alert.
      */
     public void showEvents() {
-        var optional = server.getAllEvents();
+        var optional = server.getEventSummaries(page, PAGE_SIZE);
         if (optional.isPresent()) {
             this.events = optional.get();
             initializeTable();
+            this.previousPageButton.setDisable(page == 0);
+            this.nextPageButton.setDisable(events.size() < PAGE_SIZE);
         } else {
             String fetch = this.resourceManager.getStringForKey("content_fetch_events");
             String fetchFailed = this.resourceManager.getStringForKey("content_fetch_failed");
@@ -91,8 +120,28 @@ public class ManagementCtrl {
         return formatted;
     };
 
+    /**
+     * shows the previous page of events
+     */
+    @FXML
+    public void previousPage() {
+        if (page > 0) {
+            page--;
+            showEvents();
+        }
+    }
+
+    /**
+     * shows the next page of events
+     */
+    @FXML
+    public void nextPage() {
+        page++;
+        showEvents();
+    }
+
     private void initializeTable() {
-        ObservableList<Event> events = this.events.stream().collect(Collectors
+        ObservableList<EventSummary> events = this.events.stream().collect(Collectors
                 .collectingAndThen(Collectors.toList(), FXCollections::observableArrayList));
         this.eventsTable.getItems().setAll(events);
         this.titleColumn.setCellValueFactory(w -> new SimpleStringProperty(w.getValue().getName()));
@@ -102,6 +151,12 @@ public class ManagementCtrl {
                 new SimpleStringProperty(formatDate.apply(w.getValue().getCreationTime())));
         this.lastActivityColumn.setCellValueFactory(w ->
                 new SimpleStringProperty(formatDate.apply(w.getValue().getLastUpdateTime())));
+        this.participantsColumn.setCellValueFactory(w ->
+                new SimpleLongProperty(w.getValue().getParticipantCount()));
+        this.expensesColumn.setCellValueFactory(w ->
+                new SimpleLongProperty(w.getValue().getExpenseCount()));
+        this.totalColumn.setCellValueFactory(w ->
+                new SimpleStringProperty(new Monetary(w.getValue().getTotalAmount()).toString()));
         this.eventsTable.setContextMenu(createContextMenu());
 
         // Sort by the creation date by default, in ascending order.
@@ -109,11 +164,13 @@ public class ManagementCtrl {
         this.eventsTable.getSortOrder().add(creationDateColumn);
     }
 
-    private void downloadJsonDumpForEvent(Event event) {
+    private void downloadJsonDumpForEvent(EventSummary event) {
         ObjectMapper objectMapper = this.server.getObjectMapper();
         String jsonDump;
         try {
-            jsonDump = objectMapper.writeValueAsString(event);
+            // The table only holds the event summaries, the dump needs the whole event
+            jsonDump = objectMapper.writeValueAsString(
+                    server.getEventById(event.getInviteCode()));
         } catch (JsonProcessingException e) {
             String json = this.resourceManager.getStringForKey("content_json");
             String jsonFailed = this.resourceManager.getStringForKey("content_json_failed");
@@ -122,7 +179,11 @@ public class ManagementCtrl {
             return;
         }
         var defaultTitle = "event_" + event.getInviteCode() + "_dump.json";
-        showFileChooser(jsonDump, defaultTitle);
+        File file = showFileChooser(defaultTitle);
+        if (file != null) {
+            saveJsonToFile(new ByteArrayInputStream(jsonDump.getBytes(StandardCharsets.UTF_8)),
+                    file);
+        }
     }
 
 
@@ -132,7 +193,7 @@ public class ManagementCtrl {
         String copy = this.resourceManager.getStringForKey("content_copy_invite_code");
         MenuItem copyInviteCodeMenuItem = new MenuItem(copy);
         copyInviteCodeMenuItem.setOnAction(ignored -> {
-            Event event = (Event) eventsTable.getSelectionModel().getSelectedItem();
+            EventSummary event = eventsTable.getSelectionModel().getSelectedItem();
             if (event == null) return;
 
             Clipboard clipboard = Clipboard.getSystemClipboard();
@@ -143,7 +204,7 @@ public class ManagementCtrl {
         String download = this.resourceManager.getStringForKey("content_download_json");
         MenuItem downloadJsonMenuItem = new MenuItem(download);
         downloadJsonMenuItem.setOnAction(ignored -> {
-            Event event = (Event) eventsTable.getSelectionModel().getSelectedItem();
+            EventSummary event = eventsTable.getSelectionModel().getSelectedItem();
             if (event == null) return;
 
             downloadJsonDumpForEvent(event);
@@ -152,7 +213,7 @@ public class ManagementCtrl {
         String delete = this.resourceManager.getStringForKey("content_delete");
         MenuItem deleteMenuItem = new MenuItem(delete);
         deleteMenuItem.setOnAction(ignored -> {
-            Event event = (Event) eventsTable.getSelectionModel().getSelectedItem();
+            EventSummary event = eventsTable.getSelectionModel().getSelectedItem();
             if (event == null) return;
 
             // Ask for confirmation.
@@ -168,7 +229,7 @@ public class ManagementCtrl {
                 // Tell server we are viewing this event, so that we are sent a message on its
                 // deletion.
                 server.sendUpdateStatus(event.getInviteCode());
-                server.deleteEvent(event);
+                server.deleteEvent(event.getInviteCode());
             }
         });
 
@@ -180,21 +241,47 @@ public class ManagementCtrl {
     /**
      * handles the action when the JSON dump button
      * is clicked in the management overview.
-     * invokes the server's 'handleJsonDump' method
-     * and displays a file picker (on success) or alert (on error).
+     * displays a file picker, then invokes the server's 'handleJsonDump' method
+     * and saves the dump (on success) or displays an alert (on error).
      */
     @FXML
     public void handleJsonDumpButton() {
+        File file = showFileChooser("splitty_jsonDump_"+ UUID.randomUUID() +".json");
+        if (file == null) {
+            return;
+        }
         String jsonDump = this.resourceManager.getStringForKey("content_json_dump");
         String jsonDumpFailed = this.resourceManager.getStringForKey("content_json_dump_failed");
-        var optional = server.handleJsonDump();
-        optional.ifPresentOrElse(dump ->
-                this.showFileChooser(dump, "splitty_jsonDump_"+ UUID.randomUUID() +".json"), () ->
-                showAlert(AlertType.ERROR, jsonDump, jsonDumpFailed));
+        runInBackground(jsonDumpButton, () -> {
+            try {
+                server.handleJsonDump().ifPresentOrElse(dump -> saveJsonToFile(dump, file), () ->
+                        showAlertLater(AlertType.ERROR, jsonDump, jsonDumpFailed));
+            } catch (IOException | ProcessingException e) {
+                showAlertLater(AlertType.ERROR, jsonDump, jsonDumpFailed + " " + e.getMessage());
+            }
+        });
     }
 
-    private void showFileChooser(String fileContent, String defaultTitle) {
-        var fileContentOptional = Optional.ofNullable(fileContent);
+    /**
+     * runs a transfer of events on its own thread, so the window keeps responding while the
+     * events are sent or received. The button that started it is disabled until it is done.
+     * @param button the button that started the transfer
+     * @param transfer the transfer, it shows its outcome with {@link #showAlertLater}
+     */
+    private void runInBackground(Button button, Runnable transfer) {
+        button.setDisable(true);
+        Thread thread = new Thread(() -> {
+            try {
+                transfer.run();
+            } finally {
+                Platform.runLater(() -> button.setDisable(false));
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private File showFileChooser(String defaultTitle) {
         var defaultTitleOptional = Optional.ofNullable(defaultTitle);
         FileChooser fileChooser = new FileChooser();
         String save = this.resourceManager.getStringForKey("content_save_json");
@@ -202,29 +289,26 @@ public class ManagementCtrl {
         fileChooser.getExtensionFilters().
                 add(new FileChooser.ExtensionFilter("JSON files (*.json)", "*.json"));
         defaultTitleOptional.ifPresent(fileChooser::setInitialFileName);
-        File file = fileChooser.showSaveDialog(null);
-
-        if (file != null) {
-            fileContentOptional.ifPresent(content -> saveJsonToFile(content, file));
-        }
+        return fileChooser.showSaveDialog(null);
     }
 
     /**
-     * saves a JSON string to a specified file
-     * @param json JSON string to be saved
-     * @param file file where the JSON string will be saved
+     * saves JSON to a specified file, writing it to disk while it is read
+     * @param json stream of the JSON to be saved, it is closed afterwards
+     * @param file file where the JSON will be saved
      */
-    private void saveJsonToFile(String json, File file) {
-        try (PrintWriter writer = new PrintWriter(file)) {
-            writer.write(json);
+    private void saveJsonToFile(InputStream json, File file) {
+        try (InputStream in = json;
+             OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            in.transferTo(out);
             String jsonSaved = this.resourceManager.getStringForKey("content_json_saved");
             String jsonDumpSaved = this.resourceManager.getStringForKey("content_json_dump_saved");
-            showAlert(AlertType.INFORMATION, jsonSaved, jsonDumpSaved);
+            showAlertLater(AlertType.INFORMATION, jsonSaved, jsonDumpSaved);
         } catch (IOException e) {
             String jsonSaved = this.resourceManager.getStringForKey("content_json_saved_error");
             String jsonDumpSaved = this.resourceManager
                     .getStringForKey("content_json_dump_saved_error");
-            showAlert(AlertType.ERROR, jsonSaved, jsonDumpSaved + " " + e.getMessage());
+            showAlertLater(AlertType.ERROR, jsonSaved, jsonDumpSaved + " " + e.getMessage());
         }
     }
 
@@ -244,84 +328,90 @@ public class ManagementCtrl {
         File file = fileChooser.showOpenDialog(null);
 
         if (file != null) {
-            String jsonContent = readJsonFile(file);
-            if (jsonContent != null) {
-                importEventsFromJsonString(jsonContent);
-            } else {
-                String importJsonError = this.resourceManager
-                        .getStringForKey("content_import_json_error");
-                String importJsonFailed = this.resourceManager
-                        .getStringForKey("content_import_json_failed");
-                showAlert(AlertType.ERROR, importJsonError, importJsonFailed);
-            }
+            runInBackground(importJsonDumpButton, () -> importEventsFromFile(file));
         }
     }
 
-    private String readJsonFile(File file) {
-        StringBuilder contentBuilder = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                contentBuilder.append(line);
+    private void importEventsFromFile(File file) {
+        String importJsonError = this.resourceManager.getStringForKey("content_import_json_error");
+        // The dump is uploaded while it is read, it is never loaded as a whole
+        try (InputStream dump = new BufferedInputStream(new FileInputStream(file))) {
+            ImportReport report = server.importEvents(dump);
+            if (!report.isSuccessful()) {
+                String importRefused = this.resourceManager
+                        .getStringForKey("content_import_refused");
+                showAlertLater(AlertType.ERROR, importJsonError,
+                        importRefused + " " + report.getStatus());
+                return;
             }
-            return contentBuilder.toString();
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
+            Platform.runLater(() -> showImportReport(report));
+        } catch (JsonProcessingException e) {
+            String importJsonFailed = this.resourceManager
+                    .getStringForKey("content_import_failed");
+            showAlertLater(AlertType.ERROR, importJsonError,
+                    importJsonFailed + " " + e.getOriginalMessage());
+        } catch (IOException | ProcessingException e) {
+            String importJsonFailed = this.resourceManager
+                    .getStringForKey("content_import_json_failed");
+            showAlertLater(AlertType.ERROR, importJsonError, importJsonFailed);
         }
     }
 
-    private void importEventsFromJsonString(String jsonString) {
-        ObjectMapper objectMapper = this.server.getObjectMapper();
-        try {
-            Event[] importedEvents = objectMapper.readValue(jsonString, Event[].class);
-            importEventArray(importedEvents);
-        } catch (IOException e) {
-            try {
-                Event importedEvent = objectMapper
-                        .readValue(jsonString, Event.class);
-                Event[] importedEvents = new Event[1];
-                importedEvents[0] = importedEvent;
-                importEventArray(importedEvents);
-            } catch (IOException error) {
-                String importJsonError = this.resourceManager
-                        .getStringForKey("content_import_json_error");
-                String importJsonFailed = this.resourceManager
-                        .getStringForKey("content_import_failed");
-                showAlert(AlertType.ERROR, importJsonError,
-                        importJsonFailed + " " + e.getMessage());
-            }
+    private void showImportReport(ImportReport report) {
+        // The imported events are placed by their creation date, so reload the current page
+        showEvents();
+        String importSuccess = this.resourceManager.getStringForKey("content_import_success");
+        String message = formatImportMessage(report.getImported());
+        if (report.getRejected().isEmpty()) {
+            showAlert(AlertType.INFORMATION, importSuccess, message);
+        } else {
+            showAlert(AlertType.WARNING, importSuccess,
+                    message + "\n\n" + formatRejected(report.getRejected()));
         }
     }
 
-    private void importEventArray(Event[] importedEvents) {
-        List<Event> importedEventsList = addEventsToDatabase(importedEvents);
-        this.events.addAll(importedEventsList);
-        displayEventsInTableView(importedEventsList);
-        String importMessage = formatImportMessage(importedEventsList);
-        String importSuccess = this.resourceManager.getStringForKey("content_import_success");
-        showAlert(AlertType.INFORMATION, importSuccess, importMessage);
+    /**
+     * lists the events that were not imported, with why they were not
+     * @param rejected the results of the rejected events
+     * @return the list, the first {@link #REJECTED_SHOWN} events followed by the number of
+     * the others
+     */
+    private String formatRejected(List<ImportResult> rejected) {
+        StringBuilder message = new StringBuilder(
+                this.resourceManager.getStringForKey("content_import_rejected"));
+        for (ImportResult result : rejected.subList(0, Math.min(rejected.size(), REJECTED_SHOWN))) {
+            message.append('\n').append(result.getInviteCode()).append(": ")
+                    .append(result.getStatus());
+            if (result.getReason() != null) {
+                message.append(" (").append(result.getReason()).append(')');
+            }
+        }
+        if (rejected.size() > REJECTED_SHOWN) {
+            message.append('\n').append(rejected.size() - REJECTED_SHOWN).append(' ')
+                    .append(this.resourceManager.getStringForKey("content_import_rejected_more"));
+        }
+        return message.toString();
     }
 
-    private String formatImportMessage(List<Event> importedEvents) {
-        int n = importedEvents.size();
-        return switch (n) {
+    private String formatImportMessage(long imported) {
+        return switch ((int) Math.min(imported, 2)) {
             case 0:
                 yield this.resourceManager.getStringForKey("yield_zero");
             case 1:
                 yield this.resourceManager.getStringForKey("yield_one");
             default:
-                yield n + " " + this.resourceManager.getStringForKey("yield_more");
+                yield imported + " " + this.resourceManager.getStringForKey("yield_more");
         };
     }
 
-    private void displayEventsInTableView(List<Event> events) {
-        ObservableList<Event> eventList = FXCollections.observableArrayList(events);
-        eventsTable.getItems().addAll(eventList);
-    }
-
-    private List<Event> addEventsToDatabase(Event[] events) {
-        return server.importEvents(events).orElse(new ArrayList<>());
+    /**
+     * displays an alert from a background thread, on the JavaFX thread
+     * @param alertType type of alert
+     * @param title title of the alert
+     * @param content content or message of the alert
+     */
+    private void showAlertLater(AlertType alertType, String title, String content) {
+        Platform.runLater(() -> showAlert(alertType, title, content));
     }
 
     /**
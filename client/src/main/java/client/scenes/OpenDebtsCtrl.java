@@ -7,6 +7,9 @@ import com.google.inject.Inject;
 import commons.Event;
 import commons.Debt;
 import commons.Participant;
+import commons.SettlementMethod;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.concurrent.Task;
@@ -20,15 +23,19 @@ import javafx.scene.layout.*;
 import javafx.scene.image.Image;
 
 import java.util.List;
+import java.util.Locale;
 
 import javafx.geometry.Insets;
 
 import javafx.scene.image.ImageView;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 
 
 public class OpenDebtsCtrl {
+    private static final long POLL_INTERVAL_MILLIS = 1000;
+    private static final long MAX_POLL_BACKOFF_MILLIS = 60_000;
     private final MainCtrl mainCtrl;
     private final ServerUtils server;
     private final EmailManager emailManager;
@@ -38,8 +45,13 @@ public class OpenDebtsCtrl {
 
     @FXML
     private VBox debtContainer;
+
+    @FXML
+    private ChoiceBox<SettlementMethod> settlementMethodBox;
+    private boolean showingSettlementMethod;
     private Event e;
     private Thread longPollingThread;
+    private long pollBackoff = POLL_INTERVAL_MILLIS;
     private static ResourceManager resourceManager;
 
     /**
@@ -76,7 +88,8 @@ public class OpenDebtsCtrl {
         if (newEvent != null) {
             e = newEvent;
         }
-        List<Debt> list = server.calculateDebts(e);
+        showSettlementMethod(e);
+        List<Debt> list = server.getSettlement(e);
 
         for (Debt debt : list) {
             if (debt.getDebtor().getId() != debt.getCreditor().getId()) {
@@ -100,6 +113,40 @@ public class OpenDebtsCtrl {
         resourceManager = new ResourceManager(mainCtrl);
     }
 
+    private void showSettlementMethod(Event event) {
+        if (settlementMethodBox.getItems().isEmpty()) {
+            settlementMethodBox.getItems().setAll(SettlementMethod.values());
+            settlementMethodBox.setConverter(new StringConverter<>() {
+                @Override
+                public String toString(SettlementMethod method) {
+                    return method == null ? "" : resourceManager.getStringForKey(
+                        "settlement_" + method.name().toLowerCase(Locale.ROOT));
+                }
+
+                @Override
+                public SettlementMethod fromString(String string) {
+                    return null;
+                }
+            });
+        }
+        showingSettlementMethod = true;
+        settlementMethodBox.setValue(event.getSettlementMethod());
+        showingSettlementMethod = false;
+    }
+
+    /**
+     * Stores the settlement method picked for the event and recalculates the debts
+     */
+    public void changeSettlementMethod() {
+        SettlementMethod method = settlementMethodBox.getValue();
+        if (showingSettlementMethod || e == null || method == null) {
+            return;
+        }
+        e.setSettlementMethod(method);
+        server.updateEvent(e);
+        initialize(e);
+    }
+
     private TitledPane createDebtTitledPane(Debt debt) {
         ResourceManager resourceManager = new ResourceManager(mainCtrl);
         TitledPane titledPane = new TitledPane();
@@ -429,21 +476,12 @@ public class OpenDebtsCtrl {
         Task<Void> longPollingTask = new Task<>() {
             @Override
             protected Void call() {
-                while (true) {
-                    try {
-                        if (e != null) {
-                            String result = server.longPollDebts(e.getInviteCode());
-                            Thread.sleep(100);
-                            e = server.getEventById(e.getInviteCode());
-                            Platform.runLater(() -> {
-                                mainCtrl.showOpenDebts(e);
-                            });
-                        }
-                        Thread.sleep(1000);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
+                try {
+                    while (true) {
+                        Thread.sleep(e == null ? POLL_INTERVAL_MILLIS : pollDebts());
                     }
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
                 }
                 return null;
             }
@@ -453,6 +491,33 @@ public class OpenDebtsCtrl {
         longPollingThread.start();
     }
 
+    /**
+     * Waits once for the open debts of the event to change and shows them if they did.
+     * A wait that timed out is repeated right away, a wait the server refused or that failed
+     * is repeated after a delay that doubles with every failure in a row.
+     *
+     * @return the number of milliseconds to wait before polling again
+     * @throws InterruptedException if the polling was stopped
+     */
+    long pollDebts() throws InterruptedException {
+        try {
+            boolean updated = server.longPollDebts(e.getInviteCode());
+            pollBackoff = POLL_INTERVAL_MILLIS;
+            if (!updated) {
+                return 0;
+            }
+            Thread.sleep(100);
+            e = server.getEventById(e.getInviteCode());
+            Event updatedEvent = e;
+            Platform.runLater(() -> mainCtrl.showOpenDebts(updatedEvent));
+            return POLL_INTERVAL_MILLIS;
+        } catch (WebApplicationException | ProcessingException failed) {
+            long delay = pollBackoff;
+            pollBackoff = Math.min(pollBackoff * 2, MAX_POLL_BACKOFF_MILLIS);
+            return delay;
+        }
+    }
+
     /**
      * Interrupts the request when user leaved the view
      */
@@ -99,6 +99,33 @@ public class OverviewCtrl {
         this.ev = ev;
     }
 
+    /**
+     * Gets the shown event
+     *
+     * @return the event
+     */
+    public Event getEvent() {
+        return ev;
+    }
+
+    /**
+     * Patches the shown event with a change pushed by the server, without fetching it again
+     *
+     * @param delta the change
+     * @return false if the change is not for the shown event
+     */
+    public boolean applyDelta(EventDelta delta) {
+        if (ev == null || !ev.getInviteCode().equals(delta.getInviteCode())) {
+            return false;
+        }
+        delta.applyTo(ev);
+        title.setText(ev.getName());
+        refreshParticipants();
+        participantNames.setItems(participantsObs);
+        refreshExpenses();
+        return true;
+    }
+
     /**
      * Method to refresh the current view.
      */
@@ -118,7 +145,6 @@ public class OverviewCtrl {
             participantsObs.clear();
             refreshParticipants();
             participantNames.setItems(participantsObs);
-            server.refreshExpensesList(ev);
             this.refreshExpenses();
         }
 
@@ -504,7 +530,7 @@ public class OverviewCtrl {
      */
     @FXML
     public void settleDebt() {
-        List<Debt> list = server.calculateDebts(ev);
+        List<Debt> list = server.getSettlement(ev);
         if (list.isEmpty()) {
             ButtonType okButton = new ButtonType("OK", ButtonBar.ButtonData.OK_DONE);
 
@@ -171,7 +171,7 @@ public class StartScreenCtrl implements Initializable {
         event.addType(travel);
 
         lastEvent = event.getInviteCode();
-        server.sendUpdateStatus(lastEvent);
+        mainCtrl.setEventVersion(server.sendUpdateStatus(lastEvent));
         updateConfig();
         clearFields();
         mainCtrl.showOverviewEvent(event);
@@ -200,7 +200,7 @@ public class StartScreenCtrl implements Initializable {
             clearFields();
             return;
         }
-        server.sendUpdateStatus(eventCode);
+        mainCtrl.setEventVersion(server.sendUpdateStatus(eventCode));
         lastEvent = eventCode;
         updateConfig();
         clearFields();
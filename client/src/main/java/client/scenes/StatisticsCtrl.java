@@ -7,6 +7,7 @@ import commons.Event;
 import commons.Expense;
 import commons.ExpenseType;
 import commons.Monetary;
+import commons.MonetaryAccumulator;
 import javafx.fxml.FXML;
 import javafx.scene.chart.PieChart;
 import javafx.scene.control.Label;
@@ -50,10 +51,11 @@ public class StatisticsCtrl {
     private void initCost() {
         ResourceManager resourceManager = new ResourceManager(mainCtrl);
         String totalCost = resourceManager.getStringForKey("content_total_cost");
-        Monetary expenseCost = new Monetary(0);
+        MonetaryAccumulator sum = new MonetaryAccumulator();
         for(Expense expense : event.getExpenses()) {
-            expenseCost = Monetary.add(expenseCost, expense.getAmount());
+            sum.add(expense.getAmount());
         }
+        Monetary expenseCost = sum.toMonetary();
         cost.setText(totalCost + " " + expenseCost.toString()
                 + expenseCost.getCurrency().getSymbol());
     }
@@ -80,14 +82,14 @@ public class StatisticsCtrl {
     }
 
     private Double getAmount(ExpenseType tag) {
-        Monetary value = new Monetary(0);
+        MonetaryAccumulator value = new MonetaryAccumulator();
         for(Expense expense : server.getAllExpensesFromEvent(event)) {
             for (ExpenseType expenseType : expense.getTags()) {
                 if(expenseType.getName().equals(tag.getName()))
-                    value = Monetary.add(value, expense.getAmount());
+                    value.add(expense.getAmount());
             }
         }
-        return Double.parseDouble(value.toString());
+        return Double.parseDouble(value.toMonetary().toString());
     }
 
     /**
@@ -108,6 +110,17 @@ public class StatisticsCtrl {
         }
     }
 
+    /**
+     * Redraws the statistics with a patched copy of the shown event
+     *
+     * @param ev the patched event
+     */
+    public void update(Event ev) {
+        if (this.event != null && this.event.getInviteCode().equals(ev.getInviteCode())) {
+            setEvent(ev);
+        }
+    }
+
     /**
      * Event handler for pressing a key.
      *
@@ -0,0 +1,68 @@
+package client.utils;
+
+import commons.ImportResult;
+
+import java.util.List;
+
+/**
+ * What the server answered to an import of events: the status of the response, the number
+ * of events that were imported and what happened to the events that were not.
+ */
+public class ImportReport {
+    private final int status;
+    private final long imported;
+    private final List<ImportResult> rejected;
+
+    /**
+     * Creates the report of an import the server accepted.
+     * @param status the status of the response.
+     * @param imported the number of events that were imported.
+     * @param rejected the results of the events that were not imported.
+     */
+    public ImportReport(int status, long imported, List<ImportResult> rejected) {
+        this.status = status;
+        this.imported = imported;
+        this.rejected = List.copyOf(rejected);
+    }
+
+    /**
+     * Creates the report of an import the server refused or did not answer properly.
+     * @param status the status of the response.
+     * @return the report, without imported or rejected events.
+     */
+    public static ImportReport failed(int status) {
+        return new ImportReport(status, -1, List.of());
+    }
+
+    /**
+     * Checks if the server accepted the import.
+     * @return true if the events were imported, except the rejected ones.
+     */
+    public boolean isSuccessful() {
+        return imported >= 0;
+    }
+
+    /**
+     * Retrieves the status of the response.
+     * @return the status.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Retrieves the number of events that were imported.
+     * @return the number of imported events, or -1 if the import failed.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Retrieves what happened to the events that were not imported.
+     * @return the results of the rejected events.
+     */
+    public List<ImportResult> getRejected() {
+        return rejected;
+    }
+}
@@ -18,28 +18,44 @@ package client.utils;
 import client.ConfigLoader;
 import client.MyWebSocketClient;
 import client.scenes.MainCtrl;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.google.inject.Inject;
 import commons.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.ServiceUnavailableException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.GenericType;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
-import javafx.util.Pair;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
 import java.util.concurrent.ExecutionException;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 
@@ -219,14 +235,14 @@ public class ServerUtils {
     /**
      * Deletes an event.
      * 
-     * @param ev the event to be deleted.
+     * @param inviteCode the invite code of the event to be deleted.
      */
-    public void deleteEvent(Event ev) {
+    public void deleteEvent(String inviteCode) {
         if (isAuthenticated()) {
             WebSocketMessage request = new WebSocketMessage();
             request.setEndpoint("api/events/id");
             request.setMethod("DELETE");
-            request.setData(ev.getInviteCode());
+            request.setData(inviteCode);
             request.setAuthHeader(auth.get());
             sendMessageWithoutResponse(request);
         }
@@ -294,25 +310,61 @@ public class ServerUtils {
      * a JSON dump of events.
      * it includes the Authorization header with the authentication
      * token obtained from the authentication service.
+     * the dump is sent compressed and is read while it arrives, the caller has to
+     * close the returned stream.
      *
-     * @return An Optional containing a JSON dump of events if authentication is successful,
-     * or an empty Optional if authentication fails or an error occurs during the request.
+     * @return An Optional containing a stream of the JSON dump of events if authentication
+     * is successful, or an empty Optional if authentication fails or the server refuses.
+     * @throws IOException if the compressed dump can't be read
      */
-    public Optional<String> handleJsonDump() {
+    public Optional<InputStream> handleJsonDump() throws IOException {
         if(isAuthenticated()) {
-            String jsonDump = client
+            Response response = client
                     .target(serverUrl)
                     .path("api/events/jsonDump")
                     .request(APPLICATION_JSON)
                     .header(HttpHeaders.AUTHORIZATION, auth.get())
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
                     .accept(APPLICATION_JSON)
-                    .get(new GenericType<String>() {
-                    });
+                    .get();
+            if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+                response.close();
+                return Optional.empty();
+            }
+            InputStream jsonDump = response.readEntity(InputStream.class);
+            if ("gzip".equalsIgnoreCase(response.getHeaderString(HttpHeaders.CONTENT_ENCODING))) {
+                jsonDump = new GZIPInputStream(jsonDump);
+            }
             return Optional.of(jsonDump);
         }
         return Optional.empty();
     }
 
+    /**
+     * retrieves a page of event summaries from the server, newest first.
+     * this method requires authentication.
+     * @param page the number of the page, starting at 0
+     * @param size the number of summaries on a page
+     * @return an Optional containing the summaries on the page if successful,
+     * otherwise an empty Optional.
+     */
+    public Optional<List<EventSummary>> getEventSummaries(int page, int size) {
+        if (isAuthenticated()) {
+            List<EventSummary> summaries = client
+                    .target(serverUrl)
+                    .path("api/events/summary")
+                    .queryParam("page", page)
+                    .queryParam("size", size)
+                    .request(APPLICATION_JSON)
+                    .header(HttpHeaders.AUTHORIZATION, auth.get())
+                    .accept(APPLICATION_JSON)
+                    .get(new GenericType<List<EventSummary>>() {
+                    });
+            return Optional.of(summaries);
+        }
+        return Optional.empty();
+    }
+
     /**
      * retrieves all events from the server.
      * this method requires authentication.
@@ -338,25 +390,71 @@ public class ServerUtils {
     }
 
     /**
-     * imports an array of events to the server.
-     * @param events array of Event objects to be imported.
-     * @return optional containing a list of imported
-     * Event objects if authentication is successful,
-     * else returns an empty Optional.
+     * imports the events of a JSON dump to the server. The dump is read one event at a time
+     * and uploaded as compressed newline delimited JSON while it is read, so it never has to
+     * fit in memory.
+     * @param dump stream holding a JSON array of events, or a single event.
+     * @return the number of imported events and what happened to the others if the import
+     * succeeded, else a failed report with the status the server answered.
+     * @throws IOException if the dump could not be read or is not valid JSON.
      */
-    public Optional<List<Event>> importEvents(Event[] events) {
-        if (isAuthenticated()) {
-            List<Event> eventList = client
-                    .target(serverUrl)
-                    .path("api/events/import")
-                    .request(APPLICATION_JSON)
-                    .header(HttpHeaders.AUTHORIZATION, auth.get())
-                    .accept(APPLICATION_JSON)
-                    .post(Entity.entity(events, APPLICATION_JSON), new GenericType<List<Event>>() {
+    public ImportReport importEvents(InputStream dump) throws IOException {
+        if (!isAuthenticated()) {
+            return ImportReport.failed(Response.Status.UNAUTHORIZED.getStatusCode());
+        }
+        StreamingOutput upload = out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out);
+            writeEventLines(dump, gzip);
+            gzip.finish();
+        };
+        try (Response response = client
+                .target(serverUrl)
+                .path("api/events/import")
+                .request(APPLICATION_JSON)
+                .property(ClientProperties.REQUEST_ENTITY_PROCESSING,
+                        RequestEntityProcessing.CHUNKED)
+                .header(HttpHeaders.AUTHORIZATION, auth.get())
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .post(Entity.entity(upload, "application/x-ndjson"))) {
+            String imported = response.getHeaderString("X-Imported-Count");
+            if (response.getStatus() != Response.Status.OK.getStatusCode() || imported == null) {
+                return ImportReport.failed(response.getStatus());
+            }
+            List<ImportResult> rejected =
+                    response.readEntity(new GenericType<List<ImportResult>>() {
                     });
-            return Optional.of(eventList);
+            return new ImportReport(response.getStatus(), Long.parseLong(imported), rejected);
+        } catch (ProcessingException e) {
+            // Reading the dump failed while it was uploaded
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Copies every event of the dump to its own line, without binding them to objects
+    private void writeEventLines(InputStream dump, OutputStream out) throws IOException {
+        JsonFactory factory = objectMapper.getFactory();
+        try (JsonParser parser = factory.createParser(dump);
+             JsonGenerator generator = factory.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                generator.copyCurrentStructure(parser);
+                return;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an event or an array of events");
+            }
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                generator.copyCurrentStructure(parser);
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected an event");
+            }
         }
-        return Optional.empty();
     }
 
     /**
@@ -364,13 +462,21 @@ public class ServerUtils {
      * too
      * 
      * @param eventId the inviteCode of the event
+     * @return the version of the last change of the event, changes after it are pushed
      */
-    public void sendUpdateStatus(String eventId) {
+    public long sendUpdateStatus(String eventId) {
         WebSocketMessage requestMessage = new WebSocketMessage();
         requestMessage.setEndpoint("api/client");
         requestMessage.setMethod("POST");
         requestMessage.setData(eventId);
-        sendMessageWithoutResponse(requestMessage);
+        try {
+            WebSocketMessage response = sendMessageWithResponse(requestMessage);
+            Long version = objectMapper.convertValue(response.getData(), Long.class);
+            return version == null ? -1 : version;
+        } catch (ExecutionException | InterruptedException e) {
+            e.printStackTrace();
+        }
+        return -1;
     }
 
     /**
@@ -447,113 +553,48 @@ public class ServerUtils {
     }
 
     /**
-     * Optimizes and calculates the debts for an event
+     * Gets the minimized debts of an event, computed and cached by the server
+     * @param event the event, settled with the method chosen for it
+     * @return the list of optimized debts
+     */
+    public List<Debt> getSettlement(Event event) {
+        return client
+                .target(serverUrl)
+                .path("api/events/" + event.getInviteCode() + "/settlement")
+                .queryParam("method", event.getSettlementMethod().name())
+                .request(APPLICATION_JSON)
+                .accept(APPLICATION_JSON)
+                .get(new GenericType<List<Debt>>() {
+                });
+    }
+
+    /**
+     * Optimizes and calculates the debts for an event using the method chosen for it
      * @param event the event
      * @return the list of optimized debts
      */
     public List<Debt> calculateDebts(Event event) {
-        List<Debt> initialDebts = event.paymentsToDebt(event);
-        int n = event.getParticipants().size();
-        DebtMinimizationGraph solver = new DebtMinimizationGraph(n);
-        HashMap<Participant, Integer> indexing = new HashMap<>();
-        HashMap<Integer, Participant> reverseIndexing = new HashMap<>();
-        int cnt = 0;
-        for (Participant p: event.getParticipants()) {
-            indexing.put(p, cnt);
-            reverseIndexing.put(cnt, p);
-            cnt += 1;
-        }
-        solver =
-            getMinimizationGraph(indexing, initialDebts, solver, n);
-        solver.minimizeDebtChains(n);
-        List<Debt> resultDebts = new ArrayList<>();
-        optimizeDebts(n, solver, resultDebts, reverseIndexing);
-        Map<Pair<Participant, Participant>, Long> netBalances =
-            getUnifiedDebts(resultDebts);
-        List<Debt> result = new ArrayList<>();
-        for (Map.Entry<Pair<Participant, Participant>, Long> entry : netBalances.entrySet()) {
-            Pair<Participant, Participant> key = entry.getKey();
-            Long balance = entry.getValue();
-            if (balance > 0) {
-                result.add(new Debt(key.getKey(), new Monetary(balance), key.getValue()));
-            } else if (balance < 0) {
-                result.add(new Debt(key.getValue(), new Monetary(-balance), key.getKey()));
-            }
-        }
-        return result;
+        return calculateDebts(event, event.getSettlementMethod());
     }
 
-    private static DebtMinimizationGraph
-            getMinimizationGraph(HashMap<Participant, Integer> indexing,
-                                 List<Debt> initialDebts,
-                                 DebtMinimizationGraph solver,
-                                 int n) {
-        for (Debt debt: initialDebts) {
-            solver.addEdge(indexing.get(debt.getDebtor()), indexing.get(debt.getCreditor()),
-                (int)debt.getAmount().getInternalValue());
-        }
-        for (int from = 0; from < n; ++from) {
-            List<Integer> toS = solver.getConnectedNodes(from);
-            for (Integer to: toS) {
-                if (to != from) {
-                    int mxFlow = solver.maxFlow(from, to);
-                    DebtMinimizationGraph residual = getResidualGraph(n, solver, from, to);
-                    if (mxFlow > 0) {
-                        residual.addEdge(from, to, mxFlow);
-                    }
-                    solver = residual;
-                }
-            }
-        }
-        return solver;
-    }
-
-    private void optimizeDebts(int n, DebtMinimizationGraph solver, List<Debt> resultDebts,
-                                  HashMap<Integer, Participant> reverseIndexing) {
-        for (int from = 0; from < n; ++from) {
-            List<DebtMinimizationGraph.Edge> adjacentEdges = solver.getEdgesForVertex(from);
-            for (DebtMinimizationGraph.Edge edge : adjacentEdges) {
-                if (edge.getCapacity() > 0) {
-                    resultDebts.add(new Debt(reverseIndexing.get(from),
-                        new Monetary(edge.getCapacity()), reverseIndexing.get(edge.getTo())));
-                }
-            }
-        }
+    /**
+     * Optimizes and calculates the debts for an event using the given settlement method
+     * @param event the event
+     * @param method the settlement method
+     * @return the list of optimized debts
+     */
+    public List<Debt> calculateDebts(Event event, SettlementMethod method) {
+        return method.getStrategy().settle(event);
     }
 
-    private static DebtMinimizationGraph getResidualGraph(int n,
-                                                                  DebtMinimizationGraph solver,
-                                                                  int xFrom, int xTo) {
-        DebtMinimizationGraph residualGraph = new DebtMinimizationGraph(n);
-        for (int from = 0; from < n; ++from) {
-            List<DebtMinimizationGraph.Edge> adjacentEdges = solver.getEdgesForVertex(from);
-            for (DebtMinimizationGraph.Edge edge: adjacentEdges) {
-                int flow = (edge.getFlow() < 0 ? edge.getCapacity()
-                    : (edge.getCapacity() - edge.getFlow()));
-                if (flow > 0 && (from != xFrom || edge.getTo() != xTo)) {
-                    residualGraph.addEdge(from, edge.getTo(), flow);
-                }
-            }
-        }
-        return residualGraph;
-    }
-
-    private static Map<Pair<Participant, Participant>, Long> getUnifiedDebts(
-        List<Debt> resultDebts) {
-        Map<Pair<Participant, Participant>, Long> netBalances = new HashMap<>();
-        for (Debt debt : resultDebts) {
-            Participant debtor = debt.getDebtor();
-            Participant creditor = debt.getCreditor();
-            Long amount = debt.getAmount().getInternalValue();
-            Pair<Participant, Participant> key = new Pair<>(debtor, creditor);
-            if (netBalances.containsKey(new Pair<>(creditor, debtor))) {
-                key = new Pair<>(creditor, debtor);
-                amount = -amount;
-            }
-            Long currentBalance = netBalances.getOrDefault(key, 0L);
-            netBalances.put(key, currentBalance + amount);
-        }
-        return netBalances;
+    /**
+     * Optimizes and calculates the debts for an event using the given max-flow engine
+     * @param event the event
+     * @param engine creates an empty flow graph for the given number of vertices
+     * @return the list of optimized debts
+     */
+    public List<Debt> calculateDebts(Event event, IntFunction<DebtFlowGraph> engine) {
+        return new MaxFlowSettlementStrategy(engine).settle(event);
     }
 
     /**
@@ -569,73 +610,13 @@ public class ServerUtils {
             splitBetween.add(debt.getCreditor());
             Expense expense = new Expense(e, "Debt", debt.getDebtor(),
                     debt.getAmount(), LocalDate.now(), splitBetween);
+            // The server removes the participants this settles once it is marked as received
             addExpense(expense);
-
-            refreshExpensesList(e);
         } catch (ExecutionException | InterruptedException er) {
             er.printStackTrace();
         }
     }
 
-    /**
-     * Refreshes the expenses list for an event
-     * by removing participants that have everything settled
-     * @param e the event
-     */
-    public void refreshExpensesList(Event e) {
-        List<Expense> allExpenses = getAllExpensesFromEvent(e);
-        List<Participant> canBeRemoved = participantsNoInfluence(allExpenses);
-        for (Participant p : canBeRemoved){
-            List<Expense> relevantExpenses = allExpenses
-                .stream()
-                .filter(x -> x.getSplitBetween().contains(p) || x.getCreator().equals(p))
-                .toList();
-            for (Expense ex : relevantExpenses) {
-                if (!ex.getCreator().equals(p)) {
-                    long value = ex.getAmount().getInternalValue();
-                    if (!ex.getSplitBetween().isEmpty()) {
-                        value -= value / ex.getSplitBetween().size();
-                    }
-                    ex.removeParticipant(p);
-                    ex.getAmount().setInternalValue(value);
-                    updateExpense(ex);
-                } else {
-                    deleteExpense(ex);
-                    allExpenses.remove(ex);
-                }
-            }
-        }
-    }
-
-    /**
-     * Retrieves all participants that can be removed from expenses
-     * @param allExpenses all existing expenses
-     * @return the list of participants that can be removed
-     */
-    protected List<Participant> participantsNoInfluence(List<Expense> allExpenses) {
-        if (allExpenses == null) {
-            return new ArrayList<>();
-        }
-        HashMap<Participant, Long> sumPerParticipant = new HashMap<>();
-        for (Expense ex : allExpenses) {
-            Set<Participant> split = ex.getSplitBetween();
-            long amountPerPerson = ex.getAmount().getInternalValue() / split.size();
-            for (Participant p : split) {
-                sumPerParticipant.put(p, sumPerParticipant.getOrDefault(p, 0L) + amountPerPerson);
-            }
-            sumPerParticipant.put(ex.getCreator(),
-                sumPerParticipant.getOrDefault(ex.getCreator(), 0L)
-                    - ex.getAmount().getInternalValue());
-        }
-        List<Participant> result = new ArrayList<>();
-        for (Map.Entry<Participant, Long> entry : sumPerParticipant.entrySet()) {
-            if (entry.getValue() == 0) {
-                result.add(entry.getKey());
-            }
-        }
-        return result;
-    }
-
     /**
      * Announce all client that open debts view needs to be updated for an event
      * @param eventId the event id
@@ -657,9 +638,12 @@ public class ServerUtils {
     /**
      * Long pools for updates in open debt view
      * @param eventId the event where the open debts are
-     * @return the status of the update
+     * @return true if the open debts changed, false if the wait timed out and should be
+     *      repeated
+     * @throws ServiceUnavailableException if too many clients are already waiting on the
+     *      event, the wait should be repeated after a while
      */
-    public String longPollDebts(String eventId) {
+    public boolean longPollDebts(String eventId) {
         String serverAddress = (String)config.getProperty("address");
         Response response = ClientBuilder.newClient(new ClientConfig())
             .target(serverAddress)
@@ -667,11 +651,15 @@ public class ServerUtils {
             .request(APPLICATION_JSON)
             .accept(APPLICATION_JSON)
             .post(Entity.text(""));
-
-        if (response.getStatus() != 200) {
-            throw new NotFoundException();
-        }
-        return "New update incoming";
+        int status = response.getStatus();
+        response.close();
+
+        return switch (status) {
+            case 200 -> true;
+            case 204 -> false;
+            case 503 -> throw new ServiceUnavailableException();
+            default -> throw new NotFoundException();
+        };
     }
 
     /**
@@ -1,10 +1,11 @@
 package client.scenes;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.testfx.assertions.api.Assertions.assertThat;
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
@@ -26,10 +27,11 @@ import com.google.common.collect.Table;
 import client.utils.EmailManager;
 import client.utils.SceneManager;
 import client.utils.ServerUtils;
-import commons.Event;
+import commons.EventSummary;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
 import javafx.scene.control.DialogPane;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.TableColumn;
@@ -42,7 +44,7 @@ import javafx.stage.Stage;
 @ExtendWith(ApplicationExtension.class)
 class ManagementCtrlTest {
 
-    Event event = new Event("code", "name", LocalDateTime.now(), new HashSet<>(), new HashSet<>());
+    EventSummary event = new EventSummary("code", "name", LocalDateTime.now(), LocalDateTime.now(), 2, 1);
 
     Pane pane;
     ManagementCtrl controller;
@@ -71,7 +73,8 @@ class ManagementCtrlTest {
         serverUtils = Mockito.mock(ServerUtils.class);
         mainCtrl = Mockito.mock(MainCtrl.class);
 
-        Mockito.when(serverUtils.getAllEvents()).thenReturn(Optional.of(List.of(event)));
+        Mockito.when(serverUtils.getEventSummaries(0, ManagementCtrl.PAGE_SIZE))
+                .thenReturn(Optional.of(List.of(event)));
 
         // We need to load the fxml file in this complicated manner because we need to give it
         // access to an injector.
@@ -110,7 +113,7 @@ class ManagementCtrlTest {
     @Test
     void deleteShowsConfirmation(FxRobot robot) {
         robot.clickOn(event.getName(), MouseButton.SECONDARY);
-        TableView<Event> table = robot.lookup("#eventsTable").queryTableView();
+        TableView<EventSummary> table = robot.lookup("#eventsTable").queryTableView();
         MenuItem item = table.getContextMenu().getItems().get(2);
 
         Platform.runLater(() -> {
@@ -143,7 +146,7 @@ class ManagementCtrlTest {
     @Test
     void clipboardDoesntThrow(FxRobot robot) {
         robot.clickOn(event.getName(), MouseButton.SECONDARY);
-        TableView<Event> table = robot.lookup("#eventsTable").queryTableView();
+        TableView<EventSummary> table = robot.lookup("#eventsTable").queryTableView();
         MenuItem item = table.getContextMenu().getItems().get(0);
 
         robot.interact(() -> {
@@ -151,11 +154,33 @@ class ManagementCtrlTest {
         });
     }
 
+    @Test
+    void singlePageDisablesPager(FxRobot robot) {
+        Button previous = robot.lookup("#previousPageButton").queryButton();
+        Button next = robot.lookup("#nextPageButton").queryButton();
+
+        assertTrue(previous.isDisabled());
+        assertTrue(next.isDisabled());
+    }
+
+    @Test
+    void nextPageFetchesFollowingPage(FxRobot robot) {
+        Mockito.when(serverUtils.getEventSummaries(1, ManagementCtrl.PAGE_SIZE))
+                .thenReturn(Optional.of(List.of()));
+
+        robot.interact(() -> controller.nextPage());
+
+        Mockito.verify(serverUtils).getEventSummaries(1, ManagementCtrl.PAGE_SIZE);
+        TableView<EventSummary> table = robot.lookup("#eventsTable").queryTableView();
+        assertTrue(table.getItems().isEmpty());
+        assertFalse(robot.lookup("#previousPageButton").queryButton().isDisabled());
+    }
+
     @Test
     void defaultSorting(FxRobot robot) {
-        TableView<Event> table = robot.lookup("#eventsTable").queryTableView();
+        TableView<EventSummary> table = robot.lookup("#eventsTable").queryTableView();
         // The creation date column is the third column
-        TableColumn<Event, String> creationDateColumn = (TableColumn<Event, String>) table.getColumns().get(2);
+        TableColumn<EventSummary, String> creationDateColumn = (TableColumn<EventSummary, String>) table.getColumns().get(2);
 
         assertEquals(SortType.DESCENDING, creationDateColumn.getSortType());
         assertThat(table.getSortOrder()).contains(creationDateColumn);
@@ -18,6 +18,7 @@ import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.Start;
 import client.utils.EmailManager;
 import client.utils.ServerUtils;
+import jakarta.ws.rs.ServiceUnavailableException;
 import commons.Debt;
 import commons.Event;
 import commons.Expense;
@@ -78,7 +79,7 @@ class OpenDebtsCtrlTest {
                         new Debt(participants.get(1), new Monetary(20), participants.get(2)),
                         new Debt(participants.get(2), new Monetary(20), participants.get(0))));
 
-        Mockito.when(serverUtils.calculateDebts(event)).thenReturn(debts);
+        Mockito.when(serverUtils.getSettlement(event)).thenReturn(debts);
 
 
         // We need to load the fxml file in this complicated manner because we need to give it
@@ -138,11 +139,10 @@ class OpenDebtsCtrlTest {
             controller.initialize(null);
         });
         robot.sleep(3000);
-        verify(serverUtils, times(0)).calculateDebts(event);
+        verify(serverUtils, times(0)).getSettlement(event);
     }
     @Test
     void startLongPollingUpdatesUIWhenDataChanges(FxRobot robot) {
-        String updatedInviteCode = "UPDATED";
         Set<Participant> participantSet = new HashSet<>(participants);
         Event updatedEvent = new Event(
             event.getInviteCode(),
@@ -152,7 +152,7 @@ class OpenDebtsCtrlTest {
             new HashSet<>()
         );
 
-        Mockito.when(serverUtils.longPollDebts(event.getInviteCode())).thenReturn(updatedInviteCode);
+        Mockito.when(serverUtils.longPollDebts(event.getInviteCode())).thenReturn(true);
         Mockito.when(serverUtils.getEventById(event.getInviteCode())).thenReturn(updatedEvent);
 
         controller.startLongPolling();
@@ -161,6 +161,33 @@ class OpenDebtsCtrlTest {
         verify(mainCtrl, times(2)).showOpenDebts(any(Event.class));
     }
 
+    @Test
+    void pollDebtsPollsAgainAfterTimeout() throws InterruptedException {
+        Mockito.when(serverUtils.longPollDebts(event.getInviteCode())).thenReturn(false);
+
+        assertEquals(0, controller.pollDebts());
+
+        verify(serverUtils, never()).getEventById(any());
+        verify(mainCtrl, never()).showOpenDebts(any(Event.class));
+    }
+
+    @Test
+    void pollDebtsBacksOffWhileServerIsBusy() throws InterruptedException {
+        Mockito.when(serverUtils.longPollDebts(event.getInviteCode()))
+            .thenThrow(new ServiceUnavailableException())
+            .thenThrow(new ServiceUnavailableException())
+            .thenReturn(false)
+            .thenThrow(new ServiceUnavailableException());
+
+        long first = controller.pollDebts();
+        long second = controller.pollDebts();
+        assertTrue(first > 0);
+        assertEquals(2 * first, second);
+        assertEquals(0, controller.pollDebts());
+        assertEquals(first, controller.pollDebts());
+        verify(mainCtrl, never()).showOpenDebts(any(Event.class));
+    }
+
     @Test
     void backEsc(FxRobot robot) {
         robot.interact(() -> {
@@ -2,11 +2,18 @@ package client.utils;
 
 import client.ConfigLoader;
 import client.MyWebSocketClient;
+import com.sun.net.httpserver.HttpServer;
 import commons.*;
+import jakarta.ws.rs.ServiceUnavailableException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -51,6 +58,94 @@ class ServerUtilsTest {
 
     }
 
+    @ParameterizedTest
+    @MethodSource("longPollStatuses")
+    void longPollDebtsReadsStatus(int status, Boolean updated) throws Exception {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/api/debts/ABCDEF/updates", exchange -> {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        httpServer.start();
+        try {
+            ConfigLoader cnf = mock(ConfigLoader.class);
+            when(cnf.getProperty("address"))
+                .thenReturn("http://localhost:" + httpServer.getAddress().getPort());
+            ServerUtils severe = new ServerUtils(mock(MyWebSocketClient.class), cnf);
+            if (updated == null) {
+                assertThrows(ServiceUnavailableException.class,
+                    () -> severe.longPollDebts("ABCDEF"));
+            } else {
+                assertEquals(updated, severe.longPollDebts("ABCDEF"));
+            }
+        } finally {
+            httpServer.stop(0);
+        }
+    }
+
+    @Test
+    void importEventsReportsRejectedEvents() throws Exception {
+        HttpServer httpServer = importServer(200, "2",
+            "[{\"inviteCode\":\"ABCDEF\",\"status\":\"DUPLICATE\",\"reason\":\"taken\"}]");
+        try {
+            ImportReport report = importTo(httpServer);
+            assertTrue(report.isSuccessful());
+            assertEquals(2, report.getImported());
+            assertEquals(List.of(new ImportResult("ABCDEF", ImportResult.Status.DUPLICATE,
+                "taken")), report.getRejected());
+        } finally {
+            httpServer.stop(0);
+        }
+    }
+
+    @Test
+    void importEventsReportsFailure() throws Exception {
+        HttpServer failing = importServer(500, null, "");
+        HttpServer withoutCount = importServer(200, null, "[]");
+        try {
+            ImportReport report = importTo(failing);
+            assertFalse(report.isSuccessful());
+            assertEquals(500, report.getStatus());
+            assertFalse(importTo(withoutCount).isSuccessful());
+        } finally {
+            failing.stop(0);
+            withoutCount.stop(0);
+        }
+    }
+
+    private static HttpServer importServer(int status, String imported, String body)
+            throws IOException {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/api/events/import", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            byte[] response = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            if (imported != null) {
+                exchange.getResponseHeaders().add("X-Imported-Count", imported);
+            }
+            exchange.sendResponseHeaders(status, response.length == 0 ? -1 : response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        httpServer.start();
+        return httpServer;
+    }
+
+    private static ImportReport importTo(HttpServer httpServer) throws IOException {
+        ConfigLoader cnf = mock(ConfigLoader.class);
+        when(cnf.getProperty("address"))
+            .thenReturn("http://localhost:" + httpServer.getAddress().getPort());
+        ServerUtils severe = new ServerUtils(mock(MyWebSocketClient.class), cnf);
+        ServerUtils.adminAuth(new Admin("", "", ""));
+        return severe.importEvents(new ByteArrayInputStream(
+            "[{\"inviteCode\":\"ABCDEF\"}]".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Stream<Arguments> longPollStatuses() {
+        return Stream.of(Arguments.of(200, true), Arguments.of(204, false),
+            Arguments.of(503, null));
+    }
+
     /**
      * method to create and send a random event.
      * 
@@ -123,71 +218,6 @@ class ServerUtilsTest {
         assertEquals(expected, Set.copyOf(severe.calculateDebts(event1)));
     }
 
-    @Test
-    void testParticipantsNoInfluenceNull() {
-        MyWebSocketClient myWebSocketClient = mock(MyWebSocketClient.class);
-        ConfigLoader configLoader = mock(ConfigLoader.class);
-        ;
-        ServerUtils serverUtils = new ServerUtils(myWebSocketClient, configLoader);
-
-        List<Participant> result = serverUtils.participantsNoInfluence(null);
-        assertEquals(new ArrayList<>(), result);
-    }
-
-    @Test
-    void testParticipantsNoInfluenceEmptyList() {
-        MyWebSocketClient myWebSocketClient = mock(MyWebSocketClient.class);
-        ConfigLoader configLoader = mock(ConfigLoader.class);
-        ;
-        ServerUtils serverUtils = new ServerUtils(myWebSocketClient, configLoader);
-
-        List<Participant> result = serverUtils.participantsNoInfluence(List.of());
-        assertEquals(new ArrayList<>(), result);
-    }
-
-    @Test
-    void testParticipantsNoInfluenceSimple() {
-        MyWebSocketClient myWebSocketClient = mock(MyWebSocketClient.class);
-        ConfigLoader configLoader = mock(ConfigLoader.class);
-        ;
-        ServerUtils serverUtils = new ServerUtils(myWebSocketClient, configLoader);
-
-        Participant alice = new Participant("Alice", "alice@alice.com", "NLTEST", "ABCDEF12");
-        Participant bob = new Participant("Bob", "bob@bob.com", "DETEST", "FEDCBA21");
-        ArrayList<Participant> participants = new ArrayList<>(List.of(alice, bob));
-
-        List<Expense> expenses = List.of(
-                new Expense(null, "Event 1", alice, new Monetary(10), LocalDate.now(), Set.of(alice, bob)),
-                new Expense(null, "Event 2", bob, new Monetary(10), LocalDate.now(), Set.of(alice, bob)));
-
-        ArrayList<Participant> result = new ArrayList<>(serverUtils.participantsNoInfluence(expenses));
-
-        // Sort the arrays since order of the arrays doesn't matter.
-        participants.sort((p1, p2) -> p1.getName().compareTo(p2.getName()));
-        result.sort((p1, p2) -> p1.getName().compareTo(p2.getName()));
-
-        assertEquals(participants, result, "equal debt should cancel out");
-    }
-
-    @Test
-    void testParticipantsNoInfluenceSimple2() {
-        MyWebSocketClient myWebSocketClient = mock(MyWebSocketClient.class);
-        ConfigLoader configLoader = mock(ConfigLoader.class);
-        ;
-        ServerUtils serverUtils = new ServerUtils(myWebSocketClient, configLoader);
-
-        Participant alice = new Participant("Alice", "alice@alice.com", "NLTEST", "ABCDEF12");
-        Participant bob = new Participant("Bob", "bob@bob.com", "DETEST", "FEDCBA21");
-
-        List<Expense> expenses = List.of(
-                new Expense(null, "Event 1", alice, new Monetary(20), LocalDate.now(), Set.of(alice, bob)),
-                new Expense(null, "Event 2", bob, new Monetary(10), LocalDate.now(), Set.of(alice, bob)));
-
-        ArrayList<Participant> result = new ArrayList<>(serverUtils.participantsNoInfluence(expenses));
-
-        assertEquals(List.of(), result, "unsettled debt");
-    }
-
     private static String generateRandomIban() {
         return "IBAN" + UUID.randomUUID().toString().substring(0, 10);
     }
@@ -0,0 +1,223 @@
+package commons;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Dinic max-flow engine storing the graph in parallel primitive arrays.
+ * Edge e and its reverse edge are always stored at e and e ^ 1, so the
+ * augmenting phase does not allocate anything once the graph is built.
+ */
+public class ArrayDebtMinimizationGraph implements DebtFlowGraph {
+    private static final int NONE = -1;
+    private static final int INITIAL_EDGES = 16;
+
+    private final int vertices;
+    private final int[] head;
+    private final int[] tail;
+    private final int[] level;
+    private final int[] start;
+    private final int[] queue;
+    private final int[] path;
+    private int[] next;
+    private int[] to;
+    private long[] capacity;
+    private long[] flow;
+    private int edgeCount;
+
+    /**
+     * Creates an instance of ArrayDebtMinimizationGraph
+     * @param vertices the number of vertices for the graph
+     */
+    public ArrayDebtMinimizationGraph(int vertices) {
+        this.vertices = vertices;
+        head = new int[vertices];
+        tail = new int[vertices];
+        level = new int[vertices];
+        start = new int[vertices];
+        queue = new int[vertices];
+        path = new int[vertices];
+        Arrays.fill(head, NONE);
+        Arrays.fill(tail, NONE);
+        next = new int[INITIAL_EDGES];
+        to = new int[INITIAL_EDGES];
+        capacity = new long[INITIAL_EDGES];
+        flow = new long[INITIAL_EDGES];
+    }
+
+    /**
+     * Adds an edge
+     * @param from the node to start the edge
+     * @param to the node to finish the edge
+     * @param capacity the capacity of the edge
+     */
+    @Override
+    public void addEdge(int from, int to, int capacity) {
+        Objects.checkIndex(from, vertices);
+        Objects.checkIndex(to, vertices);
+        ensureCapacity(edgeCount + 2);
+        append(from, to, capacity);
+        append(to, from, 0);
+    }
+
+    private void append(int from, int target, long cap) {
+        int e = edgeCount++;
+        to[e] = target;
+        capacity[e] = cap;
+        flow[e] = 0;
+        next[e] = NONE;
+        if (tail[from] == NONE) {
+            head[from] = e;
+        } else {
+            next[tail[from]] = e;
+        }
+        tail[from] = e;
+    }
+
+    private void ensureCapacity(int edges) {
+        if (edges <= to.length) {
+            return;
+        }
+        int size = Math.max(edges, to.length * 2);
+        next = Arrays.copyOf(next, size);
+        to = Arrays.copyOf(to, size);
+        capacity = Arrays.copyOf(capacity, size);
+        flow = Arrays.copyOf(flow, size);
+    }
+
+    private boolean bfs(int source, int sink) {
+        Arrays.fill(level, NONE);
+        level[source] = 0;
+        int first = 0;
+        int last = 0;
+        queue[last++] = source;
+        while (first != last) {
+            int node = queue[first++];
+            for (int e = head[node]; e != NONE; e = next[e]) {
+                if (level[to[e]] == NONE && flow[e] < capacity[e]) {
+                    level[to[e]] = level[node] + 1;
+                    queue[last++] = to[e];
+                }
+            }
+        }
+        return level[sink] != NONE;
+    }
+
+    private int admissibleEdge(int node) {
+        int e = start[node];
+        while (e != NONE && (level[to[e]] != level[node] + 1 || flow[e] >= capacity[e])) {
+            e = next[e];
+        }
+        start[node] = e;
+        return e;
+    }
+
+    private long sendFlow(int source, int sink) {
+        int depth = 0;
+        int node = source;
+        while (node != sink) {
+            int e = admissibleEdge(node);
+            if (e != NONE) {
+                path[depth++] = e;
+                node = to[e];
+            } else if (depth == 0) {
+                return 0;
+            } else {
+                level[node] = NONE;
+                node = to[path[--depth] ^ 1];
+                start[node] = next[start[node]];
+            }
+        }
+        return augment(depth);
+    }
+
+    private long augment(int depth) {
+        long bottleneck = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            bottleneck = Math.min(bottleneck, capacity[path[i]] - flow[path[i]]);
+        }
+        for (int i = 0; i < depth; i++) {
+            flow[path[i]] += bottleneck;
+            flow[path[i] ^ 1] -= bottleneck;
+        }
+        return bottleneck;
+    }
+
+    /**
+     * Calculates the maxFlow
+     * @param source the source
+     * @param sink the sink
+     * @return the max flow
+     */
+    @Override
+    public int maxFlow(int source, int sink) {
+        if (source == sink) {
+            return -1;
+        }
+        long totalFlow = 0;
+        while (bfs(source, sink)) {
+            System.arraycopy(head, 0, start, 0, vertices);
+            long pushed;
+            while ((pushed = sendFlow(source, sink)) != 0) {
+                totalFlow += pushed;
+            }
+        }
+        return Math.toIntExact(totalFlow);
+    }
+
+    /**
+     * Gets all nodes in the same connected component
+     * @param from the node to start from
+     * @return the list of nodes
+     */
+    @Override
+    public List<Integer> getConnectedNodes(int from) {
+        List<Integer> reachableNodes = new ArrayList<>();
+        boolean[] visited = new boolean[vertices];
+        int first = 0;
+        int last = 0;
+        queue[last++] = from;
+        visited[from] = true;
+        while (first != last) {
+            int node = queue[first++];
+            reachableNodes.add(node);
+            for (int e = head[node]; e != NONE; e = next[e]) {
+                if (!visited[to[e]] && capacity[e] != 0) {
+                    visited[to[e]] = true;
+                    queue[last++] = to[e];
+                }
+            }
+        }
+        return reachableNodes;
+    }
+
+    /**
+     * Visits every edge (reverse ones included) leaving a vertex, in insertion order
+     * @param vertex the vertex
+     * @param visitor the visitor receiving the edges
+     */
+    @Override
+    public void forEachEdge(int vertex, EdgeVisitor visitor) {
+        for (int e = head[vertex]; e != NONE; e = next[e]) {
+            visitor.visit(to[e], (int) capacity[e], (int) flow[e]);
+        }
+    }
+
+    /**
+     * Gets the number of vertices
+     * @return the number of vertices
+     */
+    public int getVertexCount() {
+        return vertices;
+    }
+
+    /**
+     * Gets the number of stored edges, reverse ones included
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+}
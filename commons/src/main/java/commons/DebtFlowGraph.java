@@ -0,0 +1,52 @@
+package commons;
+
+import java.util.List;
+
+/**
+ * Common operations of the max-flow engines used to minimize the debts of an event
+ */
+public interface DebtFlowGraph {
+    /**
+     * Receives the edges of a vertex without exposing the way they are stored
+     */
+    @FunctionalInterface
+    interface EdgeVisitor {
+        /**
+         * Visits an edge
+         * @param to the node the edge finishes in
+         * @param capacity the capacity of the edge
+         * @param flow the flow currently sent through the edge
+         */
+        void visit(int to, int capacity, int flow);
+    }
+
+    /**
+     * Adds an edge together with its reverse one
+     * @param from the node to start the edge
+     * @param to the node to finish the edge
+     * @param capacity the capacity of the edge
+     */
+    void addEdge(int from, int to, int capacity);
+
+    /**
+     * Calculates the maxFlow
+     * @param source the source
+     * @param sink the sink
+     * @return the max flow or -1 if the source is the sink
+     */
+    int maxFlow(int source, int sink);
+
+    /**
+     * Gets all nodes in the same connected component
+     * @param from the node to start from
+     * @return the list of nodes
+     */
+    List<Integer> getConnectedNodes(int from);
+
+    /**
+     * Visits every edge (reverse ones included) leaving a vertex, in insertion order
+     * @param vertex the vertex
+     * @param visitor the visitor receiving the edges
+     */
+    void forEachEdge(int vertex, EdgeVisitor visitor);
+}
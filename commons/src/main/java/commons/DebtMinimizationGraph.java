@@ -1,8 +1,9 @@
 package commons;
 
+import java.time.Duration;
 import java.util.*;
 
-public class DebtMinimizationGraph {
+public class DebtMinimizationGraph implements DebtFlowGraph {
     public static class Edge {
         private int to, flow, capacity, reverseIndex;
 
@@ -46,12 +47,31 @@ public class DebtMinimizationGraph {
         }
     }
 
-    private int maxChainValue;
-    private int firstValueFinal;
+    /**
+     * The default maximum number of steps searching for debt chains
+     */
+    public static final long DEFAULT_CHAIN_STEPS = 5_000_000;
+    /**
+     * The default maximum time searching for debt chains
+     */
+    public static final Duration DEFAULT_CHAIN_TIME = Duration.ofMillis(200);
+
     private List<List<Edge>> graph;
     private int[] level;
     private int[] start;
 
+    // State of the debt chain search, reused for every search of a minimization
+    private int[] path;
+    private int[] pathEdges;
+    private boolean[] branched;
+    private boolean[] explored;
+    private int[] maxChain;
+    private int[] maxChainEdges;
+    private int maxChainLength;
+    private int[] inDegrees;
+    private long stepsLeft;
+    private long deadline;
+
     /**
      * Creates an instance of DebtMinimizationGraph
      * @param vertices the number of vertices for the graph
@@ -71,6 +91,7 @@ public class DebtMinimizationGraph {
      * @param to the node to finish the edge
      * @param capacity the capacity of the edge
      */
+    @Override
     public void addEdge(int from, int to, int capacity) {
         graph.get(from).add(new Edge(to, 0, capacity, graph.get(to).size()));
         graph.get(to).add(
@@ -130,6 +151,7 @@ public class DebtMinimizationGraph {
      * @param sink the sink
      * @return the max flow
      */
+    @Override
     public int maxFlow(int source, int sink) {
         if (source == sink) {
             return -1;
@@ -154,11 +176,24 @@ public class DebtMinimizationGraph {
         return graph.get(vertex);
     }
 
+    /**
+     * Visits every edge (reverse ones included) leaving a vertex, in insertion order
+     * @param vertex the vertex
+     * @param visitor the visitor receiving the edges
+     */
+    @Override
+    public void forEachEdge(int vertex, EdgeVisitor visitor) {
+        for (Edge edge : graph.get(vertex)) {
+            visitor.visit(edge.to, edge.capacity, edge.flow);
+        }
+    }
+
     /**
      * Gets all nodes in the same connected component
      * @param from the node to start from
      * @return the list of nodes
      */
+    @Override
     public List<Integer> getConnectedNodes(int from) {
         List<Integer> reachableNodes = new ArrayList<>();
         boolean[] visited = new boolean[graph.size()];
@@ -184,93 +219,174 @@ public class DebtMinimizationGraph {
      * @param participantCount the number of participants (or nodes)
      */
     public void minimizeDebtChains(int participantCount) {
-        HashSet<Integer> visited = new HashSet<>();
-        while (true) {
-            int which = getWhich(participantCount, visited);
-            if (which == -1) {
-                break;
+        minimizeDebtChains(participantCount, DEFAULT_CHAIN_STEPS, DEFAULT_CHAIN_TIME);
+    }
+
+    /**
+     * Tries to minimize the debts by removing chains in which the payment can be done faster.
+     * Every collapsed chain leaves the graph with the same balances, so when the budget runs
+     * out the chains collapsed so far are kept and the rest is left as it is.
+     * @param participantCount the number of participants (or nodes)
+     * @param maxSteps the maximum number of steps searching for chains
+     * @param maxTime the maximum time searching for chains
+     * @return true if all chains were collapsed, false if the budget ran out first
+     */
+    public boolean minimizeDebtChains(int participantCount, long maxSteps, Duration maxTime) {
+        int vertices = graph.size();
+        path = new int[vertices];
+        pathEdges = new int[vertices];
+        branched = new boolean[vertices];
+        explored = new boolean[vertices];
+        maxChain = new int[vertices];
+        maxChainEdges = new int[vertices];
+        inDegrees = countInDegrees();
+        stepsLeft = maxSteps;
+        deadline = System.nanoTime() + maxTime.toNanos();
+        boolean[] started = new boolean[participantCount];
+        for (int which = getWhich(started); which != -1; which = getWhich(started)) {
+            started[which] = true;
+            while (findMaxChain(which)) {
+                collapseMaxChain();
             }
-            visited.add(which);
-            while (true) {
-                List<Integer> maxChain = new ArrayList<>();
-                maxChainValue = Integer.MIN_VALUE;
-                firstValueFinal = -1;
-                HashSet<Integer> visitedChain = new HashSet<>();
-                findMaxChain(which, new ArrayList<>(), 0, maxChain, visitedChain, -1);
-                if (maxChain.size() > 2) {
-                    for (int i = 0; i < maxChain.size() - 1; i++) {
-                        removeEdgeOrUpdate(maxChain.get(i), maxChain.get(i + 1));
-                    }
-                    int from = maxChain.get(0);
-                    int to = maxChain.get(maxChain.size() - 1);
-                    addEdge(from, to, firstValueFinal);
-                } else {
-                    break;
-                }
+            if (stepsLeft < 0) {
+                return false;
             }
         }
+        return true;
     }
 
-    private int getWhich(int participantCount, HashSet<Integer> visited) {
-        Map<Integer, Integer> inDegrees = new HashMap<>();
-        initialize(participantCount, inDegrees);
-        for (List<Edge> edges : getGraph()) {
+    private int[] countInDegrees() {
+        int[] degrees = new int[graph.size()];
+        for (List<Edge> edges : graph) {
             for (Edge edge : edges) {
-                if (edge.capacity != 0) {
-                    inDegrees.put(edge.to, inDegrees.getOrDefault(edge.to, 0) + 1);
+                if (edge.capacity > 0) {
+                    degrees[edge.to]++;
                 }
             }
         }
-        int minn = Integer.MAX_VALUE;
+        return degrees;
+    }
+
+    // The participant that has not been started from and is owed by the fewest others
+    private int getWhich(boolean[] started) {
         int which = -1;
-        for (int i = 0; i < participantCount; i++) {
-            if (inDegrees.get(i) < minn && !visited.contains(i)) {
-                minn = inDegrees.get(i);
+        for (int i = 0; i < started.length; i++) {
+            if (!started[i] && (which == -1 || inDegrees[i] < inDegrees[which])) {
                 which = i;
             }
         }
         return which;
     }
 
-    private void initialize(int participantCount, Map<Integer, Integer> inDegrees) {
-        for (int i = 0; i < participantCount; i++) {
-            inDegrees.put(i, 0);
+    /**
+     * Finds the longest chain from a node, following debts no bigger than the first one.
+     * Every node is explored at most once per search, so a search takes at most as many steps
+     * as there are edges. The path is kept on an array stack instead of copied per edge.
+     * @return true if a chain of at least two debts was found
+     */
+    private boolean findMaxChain(int from) {
+        int bound = firstCapacity(from);
+        maxChainLength = 0;
+        if (bound <= 0) {
+            return false;
+        }
+        Arrays.fill(explored, false);
+        explored[from] = true;
+        path[0] = from;
+        pathEdges[0] = 0;
+        branched[0] = false;
+        int depth = 0;
+        while (depth >= 0 && spendStep()) {
+            int next = nextEdge(path[depth], pathEdges[depth], bound);
+            if (next != -1) {
+                pathEdges[depth] = next + 1;
+                branched[depth] = true;
+                int to = graph.get(path[depth]).get(next).to;
+                explored[to] = true;
+                depth++;
+                path[depth] = to;
+                pathEdges[depth] = 0;
+                branched[depth] = false;
+            } else {
+                recordIfLonger(depth);
+                depth--;
+            }
+        }
+        return maxChainLength > 2;
+    }
+
+    private int firstCapacity(int node) {
+        for (Edge edge : graph.get(node)) {
+            if (edge.capacity > 0 && edge.to != node) {
+                return edge.capacity;
+            }
         }
+        return -1;
     }
 
-    private void findMaxChain(int currentNode, List<Integer> currentChain, int currentSum,
-                              List<Integer> maxChain,
-                              HashSet<Integer> visitedChain, int firstValue) {
-        currentChain.add(currentNode);
-        visitedChain.add(currentNode);
-        boolean isEndNode = true;
-        for (DebtMinimizationGraph.Edge edge : getGraph().get(currentNode)) {
-            if (edge.capacity > 0 && !visitedChain.contains(edge.to)
-                && (edge.capacity <= firstValue || firstValue == -1)) {
-                isEndNode = false;
-                if (firstValue == -1) {
-                    firstValue = edge.capacity;
-                }
-                findMaxChain(edge.to, new ArrayList<>(currentChain),
-                    currentSum + edge.capacity, maxChain, visitedChain, firstValue);
+    // The index of the next edge of a node leading to an unexplored node, or -1
+    private int nextEdge(int node, int from, int bound) {
+        List<Edge> edges = graph.get(node);
+        for (int i = from; i < edges.size(); i++) {
+            Edge edge = edges.get(i);
+            if (edge.capacity > 0 && edge.capacity <= bound && !explored[edge.to]) {
+                return i;
             }
         }
-        if (isEndNode && currentChain.size() > maxChainValue && firstValue != -1) {
-            maxChainValue = currentChain.size();
-            firstValueFinal = firstValue;
-            maxChain.clear();
-            maxChain.addAll(currentChain);
+        return -1;
+    }
+
+    // A chain ends at a node from which no debt was followed
+    private void recordIfLonger(int depth) {
+        if (!branched[depth] && depth + 1 > maxChainLength) {
+            maxChainLength = depth + 1;
+            System.arraycopy(path, 0, maxChain, 0, maxChainLength);
+            for (int i = 0; i < depth; i++) {
+                maxChainEdges[i] = pathEdges[i] - 1;
+            }
+        }
+    }
+
+    private boolean spendStep() {
+        stepsLeft--;
+        // Looking at the clock is slower than a step, so it is only done every 1024 steps
+        if ((stepsLeft & 1023) == 0 && System.nanoTime() > deadline) {
+            stepsLeft = -1;
+        }
+        return stepsLeft >= 0;
+    }
+
+    /**
+     * Replaces the longest chain by a single debt from its first to its last node. The amount
+     * is the smallest debt of the chain, so no debt becomes negative and the balances of all
+     * nodes stay the same.
+     */
+    private void collapseMaxChain() {
+        int amount = Integer.MAX_VALUE;
+        for (int i = 0; i < maxChainLength - 1; i++) {
+            amount = Math.min(amount, graph.get(maxChain[i]).get(maxChainEdges[i]).capacity);
+        }
+        // A chain passes every node once, so removing its edges does not move the others
+        for (int i = 0; i < maxChainLength - 1; i++) {
+            Edge edge = graph.get(maxChain[i]).get(maxChainEdges[i]);
+            edge.capacity -= amount;
+            if (edge.capacity == 0) {
+                graph.get(maxChain[i]).remove(maxChainEdges[i]);
+                inDegrees[edge.to]--;
+            }
         }
+        addDebt(maxChain[0], maxChain[maxChainLength - 1], amount);
     }
 
-    private void removeEdgeOrUpdate(int from, int to) {
-        for (Edge e: getGraph().get(from)) {
-            if (e.to == to) {
-                e.capacity -= firstValueFinal;
-                break;
+    private void addDebt(int from, int to, int amount) {
+        for (Edge edge : graph.get(from)) {
+            if (edge.to == to && edge.capacity > 0) {
+                edge.capacity += amount;
+                return;
             }
         }
-        getGraph().get(from).removeIf(edge -> edge.to == to && edge.capacity == 0);
+        addEdge(from, to, amount);
+        inDegrees[to]++;
     }
 
     /**
@@ -12,6 +12,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 @Entity
+@Cacheable
 public class Event {
 
     private static final int INVITE_CODE_LENGTH = 6;
@@ -25,17 +26,20 @@ public class Event {
     private LocalDateTime creationTime;
     private LocalDateTime lastUpdateTime;
 
-    @ManyToMany(fetch = FetchType.EAGER,
+    @Enumerated(EnumType.STRING)
+    private SettlementMethod settlementMethod;
+
+    @ManyToMany(fetch = FetchType.LAZY,
         cascade = { CascadeType.PERSIST, CascadeType.MERGE, CascadeType.REMOVE })
     private Set<Participant> participants;
 
-    @OneToMany(fetch = FetchType.EAGER,
+    @OneToMany(fetch = FetchType.LAZY,
             cascade = { CascadeType.PERSIST, CascadeType.MERGE, CascadeType.REMOVE },
             mappedBy = "event")
     @JsonManagedReference
     private Set<ExpenseType> tags;
 
-    @OneToMany(fetch = FetchType.EAGER,
+    @OneToMany(fetch = FetchType.LAZY,
             cascade = { CascadeType.PERSIST, CascadeType.MERGE, CascadeType.REMOVE },
             mappedBy = "event")
     @JsonManagedReference
@@ -104,6 +108,27 @@ public class Event {
         this.tags = tags;
     }
 
+    /**
+     * Create the header of an Event, holding its own fields but none of its participants,
+     * tags or expenses. Used to list events without loading what they contain.
+     *
+     * @param inviteCode       The inviteCode that can be used to join the event.
+     * @param name             The name/title of the event.
+     * @param dateTime         The date and time of the event.
+     * @param creationTime     The date and time the event was created.
+     * @param lastUpdateTime   The date and time the event was last updated.
+     * @param settlementMethod The method used to settle the debts of the event.
+     */
+    public Event(String inviteCode, String name, LocalDateTime dateTime,
+            LocalDateTime creationTime, LocalDateTime lastUpdateTime,
+            SettlementMethod settlementMethod) {
+        this(inviteCode, name, dateTime, new HashSet<>(), new HashSet<>());
+        this.creationTime = creationTime;
+        this.lastUpdateTime = lastUpdateTime;
+        this.settlementMethod = settlementMethod;
+        this.expenses = new HashSet<>();
+    }
+
     /**
      * For object mapper
      */
@@ -240,6 +265,24 @@ public class Event {
         this.lastUpdateTime = lastUpdateTime;
     }
 
+    /**
+     * Gets the method used to settle the debts of this event
+     *
+     * @return the settlement method, max-flow when none was chosen
+     */
+    public SettlementMethod getSettlementMethod() {
+        return settlementMethod == null ? SettlementMethod.MAX_FLOW : settlementMethod;
+    }
+
+    /**
+     * Sets the method used to settle the debts of this event
+     *
+     * @param settlementMethod the settlement method
+     */
+    public void setSettlementMethod(SettlementMethod settlementMethod) {
+        this.settlementMethod = settlementMethod;
+    }
+
     /**
      * Generate a new invite code. The code is generated using a new SecureRandom
      * instance. The
@@ -250,7 +293,18 @@ public class Event {
         CodeGenerator generator = new CodeGenerator(new SecureRandom());
         String code = generator.generateCode(INVITE_CODE_LENGTH);
 
-        setInviteCode(code);
+        setInviteCode(normalizeInviteCode(code));
+    }
+
+    /**
+     * Bring an invite code to the form it is stored in. Invite codes do not depend on case,
+     * they are stored in upper case so an event can be found by its primary key.
+     *
+     * @param inviteCode The invite code, may be null.
+     * @return the invite code in upper case, or null.
+     */
+    public static String normalizeInviteCode(String inviteCode) {
+        return inviteCode == null ? null : inviteCode.toUpperCase(Locale.ROOT);
     }
 
     /**
@@ -305,7 +359,8 @@ public class Event {
     public static Map<DebtPair, Monetary> calculatePayments(Event event) {
         Set<Expense> eventExpenses = event.getExpenses();
         Iterator<Expense> iteratorExpense = eventExpenses.iterator();
-        Map<DebtPair, Monetary> allDebts = new HashMap<>();
+        // One accumulator per pair, so adding a share creates nothing
+        Map<DebtPair, MonetaryAccumulator> sums = new HashMap<>();
 
         while (iteratorExpense.hasNext()) {
             Expense expense = iteratorExpense.next();
@@ -316,16 +371,12 @@ public class Event {
 
             while (iteratorDebtors.hasNext()) {
                 DebtPair currentPair = new DebtPair(iteratorDebtors.next(), creditor);
-                Monetary currentMonetary = new Monetary(amount);
-                if (!allDebts.containsKey(currentPair)) {
-                    allDebts.put(currentPair, currentMonetary);
-                } else {
-                    Monetary newMonetary = allDebts.get(currentPair);
-                    allDebts.put(currentPair, Monetary.add(currentMonetary, newMonetary));
-                }
-
+                sums.computeIfAbsent(currentPair, pair -> new MonetaryAccumulator())
+                    .add(amount);
             }
         }
+        Map<DebtPair, Monetary> allDebts = new HashMap<>();
+        sums.forEach((pair, sum) -> allDebts.put(pair, sum.toMonetary()));
         return allDebts;
     }
 
@@ -0,0 +1,277 @@
+package commons;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+/**
+ * A single change to an event, pushed to the clients looking at it so they can patch their
+ * copy of the event instead of fetching it again. The version numbers the changes of an
+ * event, a client seeing a gap in them has missed a change and should fetch the event.
+ */
+public class EventDelta {
+    /**
+     * The kinds of changes
+     */
+    public enum Type {
+        EXPENSE_ADDED,
+        EXPENSE_UPDATED,
+        EXPENSE_DELETED,
+        PARTICIPANT_CHANGED,
+        TAG_CHANGED,
+        TAG_DELETED
+    }
+
+    private String inviteCode;
+    private long version;
+    private Type type;
+    private Expense expense;
+    private Participant participant;
+    private ExpenseType tag;
+    private Long removedId;
+
+    /**
+     * Creates a delta.
+     * Used for object mapping.
+     */
+    public EventDelta() {
+        // for object mapper
+    }
+
+    /**
+     * Creates a delta for an added or updated expense
+     * @param type EXPENSE_ADDED or EXPENSE_UPDATED
+     * @param expense the expense as it is stored now
+     * @return the delta
+     */
+    public static EventDelta ofExpense(Type type, Expense expense) {
+        EventDelta delta = new EventDelta();
+        delta.type = type;
+        delta.expense = expense;
+        return delta;
+    }
+
+    /**
+     * Creates a delta for a changed participant
+     * @param participant the participant as it is stored now
+     * @return the delta
+     */
+    public static EventDelta ofParticipant(Participant participant) {
+        EventDelta delta = new EventDelta();
+        delta.type = Type.PARTICIPANT_CHANGED;
+        delta.participant = participant;
+        return delta;
+    }
+
+    /**
+     * Creates a delta for an added or updated tag
+     * @param tag the tag as it is stored now
+     * @return the delta
+     */
+    public static EventDelta ofTag(ExpenseType tag) {
+        EventDelta delta = new EventDelta();
+        delta.type = Type.TAG_CHANGED;
+        delta.tag = tag;
+        return delta;
+    }
+
+    /**
+     * Creates a delta for a deleted expense or tag
+     * @param type EXPENSE_DELETED or TAG_DELETED
+     * @param id the id of the deleted entity
+     * @return the delta
+     */
+    public static EventDelta ofRemoval(Type type, long id) {
+        EventDelta delta = new EventDelta();
+        delta.type = type;
+        delta.removedId = id;
+        return delta;
+    }
+
+    /**
+     * Applies this change to a local copy of the event. Applying a change twice has the same
+     * effect as applying it once.
+     * @param event the event to patch
+     */
+    public void applyTo(Event event) {
+        switch (type) {
+            case EXPENSE_ADDED, EXPENSE_UPDATED -> putExpense(event);
+            case EXPENSE_DELETED -> event.getExpenses()
+                .removeIf(e -> Objects.equals(e.getId(), removedId));
+            case PARTICIPANT_CHANGED -> putParticipant(event);
+            case TAG_CHANGED -> putTag(event);
+            // The server only detaches a deleted tag from the event, expenses keep it
+            case TAG_DELETED -> event.getTags().removeIf(t -> t.getId() == removedId);
+        }
+    }
+
+    private void putExpense(Event event) {
+        expense.setEvent(event);
+        event.getExpenses().removeIf(e -> Objects.equals(e.getId(), expense.getId()));
+        event.getExpenses().add(expense);
+    }
+
+    private void putParticipant(Event event) {
+        long id = participant.getId();
+        if (!event.getParticipants().removeIf(p -> p.getId() == id)) {
+            // Not part of this event, it is added through an update of the event
+            return;
+        }
+        event.getParticipants().add(participant);
+        for (Expense e : event.getExpenses()) {
+            if (e.getCreator() != null && e.getCreator().getId() == id) {
+                e.setReceiver(participant);
+            }
+            e.setSplitBetween(replace(e.getSplitBetween(), p -> p.getId() == id, participant));
+        }
+        // The hash codes of the expenses changed with their participants
+        event.setExpenses(new HashSet<>(event.getExpenses()));
+    }
+
+    private void putTag(Event event) {
+        long id = tag.getId();
+        event.getTags().removeIf(t -> t.getId() == id);
+        event.getTags().add(tag);
+        tag.setEvent(event);
+        for (Expense e : event.getExpenses()) {
+            e.setTags(replace(e.getTags(), t -> t.getId() == id, tag));
+        }
+    }
+
+    // Replaces the matching elements of a set, the set may be immutable or null
+    private static <T> Set<T> replace(Set<T> set, Predicate<T> matches, T replacement) {
+        if (set == null || set.stream().noneMatch(matches)) {
+            return set;
+        }
+        Set<T> replaced = new HashSet<>(set);
+        replaced.removeIf(matches);
+        replaced.add(replacement);
+        return replaced;
+    }
+
+    /**
+     * Gets the invite code of the changed event
+     * @return the invite code
+     */
+    public String getInviteCode() {
+        return inviteCode;
+    }
+
+    /**
+     * Sets the invite code of the changed event
+     * @param inviteCode the invite code
+     */
+    public void setInviteCode(String inviteCode) {
+        this.inviteCode = inviteCode;
+    }
+
+    /**
+     * Gets the number of this change within its event
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the number of this change within its event
+     * @param version the version
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Gets the kind of change
+     * @return the type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Sets the kind of change
+     * @param type the type
+     */
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * Gets the added or updated expense
+     * @return the expense
+     */
+    public Expense getExpense() {
+        return expense;
+    }
+
+    /**
+     * Sets the added or updated expense
+     * @param expense the expense
+     */
+    public void setExpense(Expense expense) {
+        this.expense = expense;
+    }
+
+    /**
+     * Gets the changed participant
+     * @return the participant
+     */
+    public Participant getParticipant() {
+        return participant;
+    }
+
+    /**
+     * Sets the changed participant
+     * @param participant the participant
+     */
+    public void setParticipant(Participant participant) {
+        this.participant = participant;
+    }
+
+    /**
+     * Gets the added or updated tag
+     * @return the tag
+     */
+    public ExpenseType getTag() {
+        return tag;
+    }
+
+    /**
+     * Sets the added or updated tag
+     * @param tag the tag
+     */
+    public void setTag(ExpenseType tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * Gets the id of the deleted expense or tag
+     * @return the id
+     */
+    public Long getRemovedId() {
+        return removedId;
+    }
+
+    /**
+     * Sets the id of the deleted expense or tag
+     * @param removedId the id
+     */
+    public void setRemovedId(Long removedId) {
+        this.removedId = removedId;
+    }
+
+    /**
+     * Turns this into a readable string.
+     * @return string representation of the delta.
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
@@ -0,0 +1,149 @@
+package commons;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+/**
+ * What the management overview shows of an event. The counts and the total are computed by
+ * the database, so listing events never loads their participants or expenses.
+ */
+public class EventSummary {
+    private String inviteCode;
+    private String name;
+    private LocalDateTime creationTime;
+    private LocalDateTime lastUpdateTime;
+    private long participantCount;
+    private long expenseCount;
+    private long totalAmount;
+
+    /**
+     * Creates the summary of an event.
+     * @param inviteCode the invite code of the event.
+     * @param name the name of the event.
+     * @param creationTime the date and time the event was created.
+     * @param lastUpdateTime the date and time the event was last updated.
+     * @param participantCount the number of participants in the event.
+     * @param expenseCount the number of expenses in the event.
+     */
+    public EventSummary(String inviteCode, String name, LocalDateTime creationTime,
+                        LocalDateTime lastUpdateTime, long participantCount,
+                        long expenseCount) {
+        this.inviteCode = inviteCode;
+        this.name = name;
+        this.creationTime = creationTime;
+        this.lastUpdateTime = lastUpdateTime;
+        this.participantCount = participantCount;
+        this.expenseCount = expenseCount;
+    }
+
+    /**
+     * Creates a summary.
+     * Used for object mapping.
+     */
+    public EventSummary() {
+        // for object mapper
+    }
+
+    /**
+     * Retrieves the invite code of the event.
+     * @return the invite code.
+     */
+    public String getInviteCode() {
+        return inviteCode;
+    }
+
+    /**
+     * Retrieves the name of the event.
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the date and time the event was created.
+     * @return the creation time.
+     */
+    public LocalDateTime getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * Retrieves the date and time the event was last updated.
+     * @return the last update time.
+     */
+    public LocalDateTime getLastUpdateTime() {
+        return lastUpdateTime;
+    }
+
+    /**
+     * Retrieves the number of participants in the event.
+     * @return the participant count.
+     */
+    public long getParticipantCount() {
+        return participantCount;
+    }
+
+    /**
+     * Retrieves the number of expenses in the event.
+     * @return the expense count.
+     */
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    /**
+     * Retrieves the sum of the amounts of all expenses of the event.
+     * @return the total in the minor unit.
+     */
+    public long getTotalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * Sets the sum of the amounts of all expenses of the event.
+     * @param totalAmount the total in the minor unit.
+     */
+    public void setTotalAmount(long totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    /**
+     * Checks if two summaries are equal.
+     * @param o object to be compared with.
+     * @return true if they are equal.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EventSummary that = (EventSummary) o;
+        return participantCount == that.participantCount && expenseCount == that.expenseCount
+            && totalAmount == that.totalAmount && Objects.equals(inviteCode, that.inviteCode)
+            && Objects.equals(name, that.name) && Objects.equals(creationTime, that.creationTime)
+            && Objects.equals(lastUpdateTime, that.lastUpdateTime);
+    }
+
+    /**
+     * Generates a hash code.
+     * @return the hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(inviteCode, name, creationTime, lastUpdateTime, participantCount,
+            expenseCount, totalAmount);
+    }
+
+    /**
+     * Turns this into a readable string.
+     * @return string representation of the summary.
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
@@ -38,11 +38,11 @@ public class Expense {
 
     private LocalDate date;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.REFRESH)
+    @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.REFRESH)
     @JoinTable(name = "EXPENSE_PARTICIPANTS")
     private Set<Participant> splitBetween;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.REFRESH)
+    @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.REFRESH)
     @JoinTable(name = "EXPENSE_TAGS")
     private Set<ExpenseType> tags;
 
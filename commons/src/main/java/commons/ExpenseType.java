@@ -9,6 +9,7 @@ import java.util.Objects;
 import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
 
 @Entity
+@Cacheable
 public class ExpenseType {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
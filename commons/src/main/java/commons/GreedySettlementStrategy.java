@@ -0,0 +1,97 @@
+package commons;
+
+import commons.Event.DebtPair;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Settles an event on the net balance of every participant, repeatedly letting the
+ * biggest debtor pay the biggest creditor. Needs at most n - 1 transfers and runs in
+ * O(n log n) after the balances are known.
+ */
+public class GreedySettlementStrategy implements SettlementStrategy {
+    private static final Comparator<Balance> BIGGEST_FIRST = Comparator
+        .comparingLong(Balance::amount).reversed()
+        .thenComparingLong(balance -> balance.participant().getId());
+
+    private record Balance(Participant participant, long amount) {
+    }
+
+    /**
+     * Calculates the debts that settle an event
+     * @param event the event
+     * @return the list of debts
+     */
+    @Override
+    public List<Debt> settle(Event event) {
+        return settle(netBalances(event));
+    }
+
+    /**
+     * Calculates the debts that settle an event from its precomputed balances
+     * @param event the event
+     * @param balances the net balance of every participant
+     * @return the list of debts
+     */
+    @Override
+    public List<Debt> settle(Event event, Map<Participant, Long> balances) {
+        return settle(balances);
+    }
+
+    /**
+     * Calculates the debts that settle the given balances
+     * @param balances the net balance of every participant, positive when the participant
+     *                 should receive money and negative when they owe money
+     * @return the list of debts
+     */
+    public List<Debt> settle(Map<Participant, Long> balances) {
+        PriorityQueue<Balance> debtors = new PriorityQueue<>(BIGGEST_FIRST);
+        PriorityQueue<Balance> creditors = new PriorityQueue<>(BIGGEST_FIRST);
+        balances.forEach((participant, amount) -> {
+            if (amount < 0) {
+                debtors.add(new Balance(participant, -amount));
+            } else if (amount > 0) {
+                creditors.add(new Balance(participant, amount));
+            }
+        });
+        List<Debt> result = new ArrayList<>();
+        while (!debtors.isEmpty() && !creditors.isEmpty()) {
+            Balance debtor = debtors.poll();
+            Balance creditor = creditors.poll();
+            long amount = Math.min(debtor.amount(), creditor.amount());
+            result.add(new Debt(debtor.participant(), new Monetary(amount),
+                creditor.participant()));
+            if (debtor.amount() > amount) {
+                debtors.add(new Balance(debtor.participant(), debtor.amount() - amount));
+            }
+            if (creditor.amount() > amount) {
+                creditors.add(new Balance(creditor.participant(), creditor.amount() - amount));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Nets the payments of an event into one balance per participant
+     * @param event the event
+     * @return the balance of every participant, positive when they should receive money
+     */
+    public static Map<Participant, Long> netBalances(Event event) {
+        Map<Participant, Long> balances = new HashMap<>();
+        for (Map.Entry<DebtPair, Monetary> entry : Event.calculatePayments(event).entrySet()) {
+            DebtPair pair = entry.getKey();
+            if (pair.debtor().equals(pair.creditor())) {
+                continue;
+            }
+            long amount = entry.getValue().getInternalValue();
+            balances.merge(pair.debtor(), -amount, Long::sum);
+            balances.merge(pair.creditor(), amount, Long::sum);
+        }
+        return balances;
+    }
+}
@@ -0,0 +1,121 @@
+package commons;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Objects;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+/**
+ * What happened to a single event of an import.
+ */
+public class ImportResult {
+    /**
+     * The outcomes of importing an event
+     */
+    public enum Status {
+        IMPORTED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+
+    private String inviteCode;
+    private Status status;
+    private String reason;
+
+    /**
+     * Creates the result of importing an event.
+     * @param inviteCode the invite code of the event.
+     * @param status what happened to the event.
+     * @param reason why the event was not imported, or null if it was.
+     */
+    public ImportResult(String inviteCode, Status status, String reason) {
+        this.inviteCode = inviteCode;
+        this.status = status;
+        this.reason = reason;
+    }
+
+    /**
+     * Creates a result.
+     * Used for object mapping.
+     */
+    public ImportResult() {
+        // for object mapper
+    }
+
+    /**
+     * Creates the result of an event that was imported.
+     * @param inviteCode the invite code of the event.
+     * @return the result.
+     */
+    public static ImportResult imported(String inviteCode) {
+        return new ImportResult(inviteCode, Status.IMPORTED, null);
+    }
+
+    /**
+     * Retrieves the invite code of the event.
+     * @return the invite code.
+     */
+    public String getInviteCode() {
+        return inviteCode;
+    }
+
+    /**
+     * Retrieves what happened to the event.
+     * @return the status.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Retrieves why the event was not imported.
+     * @return the reason, or null if the event was imported.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Checks if the event was imported.
+     * @return true if the event was imported.
+     */
+    @JsonIgnore
+    public boolean isImported() {
+        return status == Status.IMPORTED;
+    }
+
+    /**
+     * Checks if two results are equal.
+     * @param o object to be compared with.
+     * @return true if they are equal.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ImportResult that = (ImportResult) o;
+        return Objects.equals(inviteCode, that.inviteCode) && status == that.status
+            && Objects.equals(reason, that.reason);
+    }
+
+    /**
+     * Generates a hash code.
+     * @return the hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(inviteCode, status, reason);
+    }
+
+    /**
+     * Turns this into a readable string.
+     * @return string representation of the result.
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
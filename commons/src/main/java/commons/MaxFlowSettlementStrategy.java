@@ -0,0 +1,236 @@
+package commons;
+
+import commons.Event.DebtPair;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+
+/**
+ * Settles an event by running max-flow between every pair of connected participants
+ * and collapsing the remaining debt chains afterwards. Groups of participants that owe each
+ * other nothing are settled independently, in parallel when the event is large enough.
+ */
+public class MaxFlowSettlementStrategy implements SettlementStrategy {
+    /**
+     * The number of debts from which the groups of an event are settled in parallel, below it
+     * handing them to the pool costs more than it saves
+     */
+    public static final int PARALLEL_THRESHOLD = 32;
+
+    private final IntFunction<DebtFlowGraph> engine;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a strategy using the list based max-flow engine
+     */
+    public MaxFlowSettlementStrategy() {
+        this(DebtMinimizationGraph::new);
+    }
+
+    /**
+     * Creates a strategy using the given max-flow engine
+     * @param engine creates an empty flow graph for the given number of vertices
+     */
+    public MaxFlowSettlementStrategy(IntFunction<DebtFlowGraph> engine) {
+        this(engine, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a strategy using the given max-flow engine and pool
+     * @param engine creates an empty flow graph for the given number of vertices
+     * @param pool the pool settling the groups of a large event in parallel
+     */
+    public MaxFlowSettlementStrategy(IntFunction<DebtFlowGraph> engine, ForkJoinPool pool) {
+        this.engine = engine;
+        this.pool = pool;
+    }
+
+    /**
+     * Optimizes and calculates the debts for an event
+     * @param event the event
+     * @return the list of optimized debts
+     */
+    @Override
+    public List<Debt> settle(Event event) {
+        List<List<Debt>> components = getComponents(event.paymentsToDebt(event));
+        List<Debt> result = new ArrayList<>();
+        int debtCount = components.stream().mapToInt(List::size).sum();
+        if (components.size() < 2 || debtCount < PARALLEL_THRESHOLD) {
+            components.forEach(component -> result.addAll(settleComponent(component)));
+            return result;
+        }
+        // The biggest group is settled by this thread while the pool settles the others
+        components.sort(Comparator.comparingInt(List<Debt>::size).reversed());
+        List<ForkJoinTask<List<Debt>>> tasks = new ArrayList<>();
+        for (List<Debt> component : components.subList(1, components.size())) {
+            tasks.add(pool.submit(() -> settleComponent(component)));
+        }
+        result.addAll(settleComponent(components.get(0)));
+        tasks.forEach(task -> result.addAll(task.join()));
+        return result;
+    }
+
+    /**
+     * Splits debts into the groups of participants connected by them
+     * @param debts the debts
+     * @return the debts of every group
+     */
+    static List<List<Debt>> getComponents(List<Debt> debts) {
+        Map<Participant, Integer> indexing = new HashMap<>();
+        for (Debt debt : debts) {
+            indexing.putIfAbsent(debt.getDebtor(), indexing.size());
+            indexing.putIfAbsent(debt.getCreditor(), indexing.size());
+        }
+        int[] parent = new int[indexing.size()];
+        for (int i = 0; i < parent.length; ++i) {
+            parent[i] = i;
+        }
+        for (Debt debt : debts) {
+            parent[root(parent, indexing.get(debt.getDebtor()))] =
+                root(parent, indexing.get(debt.getCreditor()));
+        }
+        Map<Integer, List<Debt>> components = new LinkedHashMap<>();
+        for (Debt debt : debts) {
+            components.computeIfAbsent(root(parent, indexing.get(debt.getDebtor())),
+                key -> new ArrayList<>()).add(debt);
+        }
+        return new ArrayList<>(components.values());
+    }
+
+    private static int root(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private List<Debt> settleComponent(List<Debt> initialDebts) {
+        HashMap<Participant, Integer> indexing = new HashMap<>();
+        HashMap<Integer, Participant> reverseIndexing = new HashMap<>();
+        for (Debt debt : initialDebts) {
+            index(debt.getDebtor(), indexing, reverseIndexing);
+            index(debt.getCreditor(), indexing, reverseIndexing);
+        }
+        int n = indexing.size();
+        DebtMinimizationGraph solver =
+            toChainGraph(n, getMinimizationGraph(indexing, initialDebts, n));
+        solver.minimizeDebtChains(n);
+        List<Debt> resultDebts = new ArrayList<>();
+        optimizeDebts(n, solver, resultDebts, reverseIndexing);
+        return toDebts(getUnifiedDebts(resultDebts));
+    }
+
+    private static void index(Participant participant, Map<Participant, Integer> indexing,
+                              Map<Integer, Participant> reverseIndexing) {
+        if (!indexing.containsKey(participant)) {
+            reverseIndexing.put(indexing.size(), participant);
+            indexing.put(participant, indexing.size());
+        }
+    }
+
+    private static List<Debt> toDebts(Map<DebtPair, Long> netBalances) {
+        List<Debt> result = new ArrayList<>();
+        for (Map.Entry<DebtPair, Long> entry : netBalances.entrySet()) {
+            DebtPair key = entry.getKey();
+            Long balance = entry.getValue();
+            if (balance > 0) {
+                result.add(new Debt(key.debtor(), new Monetary(balance), key.creditor()));
+            } else if (balance < 0) {
+                result.add(new Debt(key.creditor(), new Monetary(-balance), key.debtor()));
+            }
+        }
+        return result;
+    }
+
+    private DebtFlowGraph getMinimizationGraph(HashMap<Participant, Integer> indexing,
+                                               List<Debt> initialDebts, int n) {
+        DebtFlowGraph solver = engine.apply(n);
+        for (Debt debt: initialDebts) {
+            solver.addEdge(indexing.get(debt.getDebtor()), indexing.get(debt.getCreditor()),
+                (int)debt.getAmount().getInternalValue());
+        }
+        for (int from = 0; from < n; ++from) {
+            List<Integer> toS = solver.getConnectedNodes(from);
+            for (Integer to: toS) {
+                if (to != from) {
+                    int mxFlow = solver.maxFlow(from, to);
+                    DebtFlowGraph residual = getResidualGraph(n, solver, from, to);
+                    if (mxFlow > 0) {
+                        residual.addEdge(from, to, mxFlow);
+                    }
+                    solver = residual;
+                }
+            }
+        }
+        return solver;
+    }
+
+    private static DebtMinimizationGraph toChainGraph(int n, DebtFlowGraph solver) {
+        if (solver instanceof DebtMinimizationGraph graph) {
+            return graph;
+        }
+        DebtMinimizationGraph chainGraph = new DebtMinimizationGraph(n);
+        for (int from = 0; from < n; ++from) {
+            int source = from;
+            solver.forEachEdge(from, (to, capacity, flow) -> {
+                if (capacity > 0) {
+                    chainGraph.addEdge(source, to, capacity);
+                }
+            });
+        }
+        return chainGraph;
+    }
+
+    private static void optimizeDebts(int n, DebtMinimizationGraph solver,
+                                      List<Debt> resultDebts,
+                                      HashMap<Integer, Participant> reverseIndexing) {
+        for (int from = 0; from < n; ++from) {
+            List<DebtMinimizationGraph.Edge> adjacentEdges = solver.getEdgesForVertex(from);
+            for (DebtMinimizationGraph.Edge edge : adjacentEdges) {
+                if (edge.getCapacity() > 0) {
+                    resultDebts.add(new Debt(reverseIndexing.get(from),
+                        new Monetary(edge.getCapacity()), reverseIndexing.get(edge.getTo())));
+                }
+            }
+        }
+    }
+
+    private DebtFlowGraph getResidualGraph(int n, DebtFlowGraph solver, int xFrom, int xTo) {
+        DebtFlowGraph residualGraph = engine.apply(n);
+        for (int from = 0; from < n; ++from) {
+            int source = from;
+            solver.forEachEdge(from, (to, capacity, flow) -> {
+                int remaining = (flow < 0 ? capacity : (capacity - flow));
+                if (remaining > 0 && (source != xFrom || to != xTo)) {
+                    residualGraph.addEdge(source, to, remaining);
+                }
+            });
+        }
+        return residualGraph;
+    }
+
+    private static Map<DebtPair, Long> getUnifiedDebts(List<Debt> resultDebts) {
+        Map<DebtPair, Long> netBalances = new HashMap<>();
+        for (Debt debt : resultDebts) {
+            Participant debtor = debt.getDebtor();
+            Participant creditor = debt.getCreditor();
+            Long amount = debt.getAmount().getInternalValue();
+            DebtPair key = new DebtPair(debtor, creditor);
+            if (netBalances.containsKey(new DebtPair(creditor, debtor))) {
+                key = new DebtPair(creditor, debtor);
+                amount = -amount;
+            }
+            Long currentBalance = netBalances.getOrDefault(key, 0L);
+            netBalances.put(key, currentBalance + amount);
+        }
+        return netBalances;
+    }
+}
@@ -0,0 +1,157 @@
+package commons;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settles an event with the fewest possible transfers. Participants whose balances add up to
+ * zero can settle among themselves with one transfer less than there are of them, so the
+ * fewest transfers follow from splitting the participants into as many such groups as
+ * possible. The groups are found by dynamic programming over every subset of the
+ * participants, which takes O(n 2^n) time, so events with more balances than the limit and
+ * searches running out of time are settled by the greedy strategy instead.
+ */
+public class MinimumTransfersSettlementStrategy implements SettlementStrategy {
+    /**
+     * The largest number of non-zero balances settled exactly, the search keeps 9 bytes per
+     * subset of them
+     */
+    public static final int MAX_EXACT_BALANCES = 20;
+    /**
+     * The default time after which the search gives up and the greedy strategy is used
+     */
+    public static final Duration DEFAULT_TIME_LIMIT = Duration.ofMillis(100);
+
+    // Looking at the clock is slower than a step, so it is only done every 16384 subsets
+    private static final int CLOCK_CHECK_MASK = (1 << 14) - 1;
+
+    private final int maxExactBalances;
+    private final Duration timeLimit;
+    private final GreedySettlementStrategy fallback = new GreedySettlementStrategy();
+
+    /**
+     * Creates a strategy settling up to MAX_EXACT_BALANCES balances exactly
+     */
+    public MinimumTransfersSettlementStrategy() {
+        this(MAX_EXACT_BALANCES, DEFAULT_TIME_LIMIT);
+    }
+
+    /**
+     * Creates a strategy
+     * @param maxExactBalances the largest number of non-zero balances settled exactly, at most
+     *                         MAX_EXACT_BALANCES
+     * @param timeLimit the time after which the search gives up
+     */
+    public MinimumTransfersSettlementStrategy(int maxExactBalances, Duration timeLimit) {
+        this.maxExactBalances = Math.min(maxExactBalances, MAX_EXACT_BALANCES);
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Calculates the debts that settle an event
+     * @param event the event
+     * @return the list of debts
+     */
+    @Override
+    public List<Debt> settle(Event event) {
+        return settle(GreedySettlementStrategy.netBalances(event));
+    }
+
+    /**
+     * Calculates the debts that settle an event from its precomputed balances
+     * @param event the event
+     * @param balances the net balance of every participant
+     * @return the list of debts
+     */
+    @Override
+    public List<Debt> settle(Event event, Map<Participant, Long> balances) {
+        return settle(balances);
+    }
+
+    /**
+     * Calculates the fewest debts that settle the given balances
+     * @param balances the net balance of every participant, positive when the participant
+     *                 should receive money and negative when they owe money
+     * @return the list of debts
+     */
+    public List<Debt> settle(Map<Participant, Long> balances) {
+        List<Participant> participants = new ArrayList<>();
+        balances.forEach((participant, amount) -> {
+            if (amount != 0) {
+                participants.add(participant);
+            }
+        });
+        if (participants.size() > maxExactBalances) {
+            return fallback.settle(balances);
+        }
+        long[] amounts = participants.stream().mapToLong(balances::get).toArray();
+        List<List<Integer>> groups =
+            findGroups(amounts, System.nanoTime() + timeLimit.toNanos());
+        if (groups == null) {
+            return fallback.settle(balances);
+        }
+        // Greedy needs at most one transfer less than there are balances in a group
+        List<Debt> result = new ArrayList<>();
+        for (List<Integer> group : groups) {
+            Map<Participant, Long> groupBalances = new HashMap<>();
+            group.forEach(i -> groupBalances.put(participants.get(i), amounts[i]));
+            result.addAll(fallback.settle(groupBalances));
+        }
+        return result;
+    }
+
+    /**
+     * Splits balances into the most groups that add up to zero
+     * @param amounts the balances
+     * @param deadline the System.nanoTime() after which the search gives up
+     * @return the indices of the balances of every group, or null if the search gave up
+     */
+    static List<List<Integer>> findGroups(long[] amounts, long deadline) {
+        int full = (1 << amounts.length) - 1;
+        // The sum of every subset, and the most zero-sum groups it splits into when it
+        // is taken apart one balance at a time
+        long[] sums = new long[full + 1];
+        byte[] groups = new byte[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            if ((mask & CLOCK_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+                return null;
+            }
+            sums[mask] = sums[mask & (mask - 1)] + amounts[Integer.numberOfTrailingZeros(mask)];
+            groups[mask] = (byte) (mostGroupsWithoutOne(groups, mask) + (sums[mask] == 0 ? 1 : 0));
+        }
+        return split(sums, groups, full);
+    }
+
+    private static int mostGroupsWithoutOne(byte[] groups, int mask) {
+        int most = 0;
+        for (int rest = mask; rest != 0; rest &= rest - 1) {
+            most = Math.max(most, groups[mask ^ Integer.lowestOneBit(rest)]);
+        }
+        return most;
+    }
+
+    // Takes the balances apart along the best order, a group ends whenever the rest is zero
+    private static List<List<Integer>> split(long[] sums, byte[] groups, int full) {
+        List<List<Integer>> result = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        int mask = full;
+        while (mask != 0) {
+            int target = groups[mask] - (sums[mask] == 0 ? 1 : 0);
+            int rest = mask;
+            while (groups[mask ^ Integer.lowestOneBit(rest)] != target) {
+                rest &= rest - 1;
+            }
+            int bit = Integer.lowestOneBit(rest);
+            current.add(Integer.numberOfTrailingZeros(bit));
+            mask ^= bit;
+            if (sums[mask] == 0) {
+                result.add(current);
+                current = new ArrayList<>();
+            }
+        }
+        return result;
+    }
+}
@@ -1,11 +1,10 @@
 package commons;
 
 
-import java.util.Arrays;
 import java.util.Currency;
-
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -16,6 +15,11 @@ import jakarta.persistence.Embeddable;
 @Embeddable
 public class Monetary {
 
+    private static final Currency DEFAULT_CURRENCY = Currency.getInstance("EUR");
+    // 10^(fraction digits) of every currency seen so far, Currency has a fixed set of
+    // instances so this stays small
+    private static final Map<Currency, Long> FRACTION_DIVIDERS = new ConcurrentHashMap<>();
+
     /**
      * Add up different monetary values
      *
@@ -29,26 +33,85 @@ public class Monetary {
      * @throws IllegalArgumentException if no monetary values are passed, or if they
      *                                  are not the
      *                                  same currency
+     * @throws ArithmeticException if the sum overflows
      */
     public static Monetary add(Monetary... monetaries) throws IllegalArgumentException {
         if (monetaries.length <= 1) {
             throw new IllegalArgumentException(
                     "Must have at least one monetary value as an argument");
         }
-        Currency curr = monetaries[0].getCurrency();
+        MonetaryAccumulator sum = new MonetaryAccumulator(monetaries[0].getCurrency());
+        for (Monetary monetary : monetaries) {
+            sum.add(monetary);
+        }
+        return sum.toMonetary();
+    }
+
+    /**
+     * Adds two monetary values of the same currency without the array and checks of
+     * the varargs version
+     *
+     * @param a the first value
+     * @param b the second value
+     * @return the sum
+     * @throws IllegalArgumentException if the values are not the same currency
+     * @throws ArithmeticException if the sum overflows
+     */
+    public static Monetary add(Monetary a, Monetary b) throws IllegalArgumentException {
+        checkSameCurrency(a, b);
+        return new Monetary(Math.addExact(a.internalValue, b.internalValue), a.currency);
+    }
+
+    /**
+     * Subtracts a monetary value from another one of the same currency
+     *
+     * @param a the value to subtract from
+     * @param b the value to subtract
+     * @return a minus b
+     * @throws IllegalArgumentException if the values are not the same currency
+     * @throws ArithmeticException if the difference overflows
+     */
+    public static Monetary subtract(Monetary a, Monetary b) throws IllegalArgumentException {
+        checkSameCurrency(a, b);
+        return new Monetary(Math.subtractExact(a.internalValue, b.internalValue), a.currency);
+    }
+
+    /**
+     * Divides a monetary value, rounding towards zero in the minor unit like splitting
+     * an expense does
+     *
+     * @param a the value to divide
+     * @param divisor the number to divide by
+     * @return a divided by the divisor
+     * @throws ArithmeticException if the divisor is zero
+     */
+    public static Monetary divide(Monetary a, long divisor) {
+        return new Monetary(a.internalValue / divisor, a.currency);
+    }
 
-        long sum = Arrays.stream(monetaries)
-                .peek(
-                        mon -> {
-                            if (mon.getCurrency() != curr) {
-                                throw new IllegalArgumentException(
-                                        "All monetaries must have the same currency");
-                            }
-                        })
-                .mapToLong(mon -> mon.internalValue)
-                .sum();
+    private static void checkSameCurrency(Monetary a, Monetary b) {
+        if (a.currency != b.currency) {
+            throw new IllegalArgumentException("All monetaries must have the same currency");
+        }
+    }
 
-        return new Monetary(sum, curr);
+    /**
+     * Gets 10^(fraction digits) of a currency, the number of minor units in a major one
+     *
+     * @param currency the currency
+     * @return the fraction divider, 1 for currencies without minor units
+     */
+    static long fractionDivider(Currency currency) {
+        Long divider = FRACTION_DIVIDERS.get(currency);
+        if (divider == null) {
+            long value = 1;
+            for (int i = 0; i < currency.getDefaultFractionDigits(); i++) {
+                value *= 10;
+            }
+            divider = value;
+            FRACTION_DIVIDERS.put(currency, divider);
+        }
+        return divider;
     }
 
     @JsonProperty
@@ -72,7 +135,7 @@ public class Monetary {
      * @param value The internal value and corresponding currency
      */
     public Monetary(long value) {
-        this(value, "EUR");
+        this(value, DEFAULT_CURRENCY);
     }
 
     /**
@@ -135,10 +198,7 @@ public class Monetary {
      */
     public void setCurrency(Currency currency) {
         this.currency = currency;
-        this.fractionDivider = 1;
-        for (int i = 0; i < this.currency.getDefaultFractionDigits(); i++) {
-            this.fractionDivider *= 10;
-        }
+        this.fractionDivider = fractionDivider(currency);
     }
 
     /**
@@ -169,7 +229,12 @@ public class Monetary {
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if (this == obj) {
+            return true;
+        }
+        // The fraction divider follows from the currency
+        return obj instanceof Monetary other && internalValue == other.internalValue
+                && Objects.equals(currency, other.currency);
     }
 
     /**
@@ -179,7 +244,7 @@ public class Monetary {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return 31 * Long.hashCode(internalValue) + Objects.hashCode(currency);
     }
 
     /**
@@ -219,11 +284,7 @@ public class Monetary {
             throw new Exception("Invalid currency format", e);
         }
 
-        for (long i = 0; i < c.getDefaultFractionDigits(); i++) {
-            major *= 10;
-        }
-
-        return new Monetary(major + minor, c);
+        return new Monetary(major * fractionDivider(c) + minor, c);
     }
     /** FIXME: Checkstyle */
     private static long parseMinor(int decimalIndex, String str, Currency c) {
@@ -0,0 +1,105 @@
+package commons;
+
+import java.util.Currency;
+
+/**
+ * Adds up monetary values of one currency in a single long, so summing the expenses of an
+ * event does not create a Monetary for every step. The total is checked for overflow.
+ */
+public class MonetaryAccumulator {
+    private final Currency currency;
+    private long total;
+
+    /**
+     * Creates an accumulator for euros starting at zero
+     */
+    public MonetaryAccumulator() {
+        this(Currency.getInstance("EUR"));
+    }
+
+    /**
+     * Creates an accumulator starting at zero
+     *
+     * @param currency the currency of the values to add up
+     */
+    public MonetaryAccumulator(Currency currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * Adds a monetary value to the total
+     *
+     * @param monetary the value to add
+     * @throws IllegalArgumentException if the value is of another currency
+     * @throws ArithmeticException if the total overflows
+     */
+    public void add(Monetary monetary) throws IllegalArgumentException {
+        checkCurrency(monetary);
+        add(monetary.getInternalValue());
+    }
+
+    /**
+     * Adds an amount in the minor unit of the currency to the total
+     *
+     * @param minor the amount to add
+     * @throws ArithmeticException if the total overflows
+     */
+    public void add(long minor) {
+        total = Math.addExact(total, minor);
+    }
+
+    /**
+     * Subtracts a monetary value from the total
+     *
+     * @param monetary the value to subtract
+     * @throws IllegalArgumentException if the value is of another currency
+     * @throws ArithmeticException if the total overflows
+     */
+    public void subtract(Monetary monetary) throws IllegalArgumentException {
+        checkCurrency(monetary);
+        subtract(monetary.getInternalValue());
+    }
+
+    /**
+     * Subtracts an amount in the minor unit of the currency from the total
+     *
+     * @param minor the amount to subtract
+     * @throws ArithmeticException if the total overflows
+     */
+    public void subtract(long minor) {
+        total = Math.subtractExact(total, minor);
+    }
+
+    private void checkCurrency(Monetary monetary) {
+        if (monetary.getCurrency() != currency) {
+            throw new IllegalArgumentException("All monetaries must have the same currency");
+        }
+    }
+
+    /**
+     * Gets the total so far
+     *
+     * @return the total in the minor unit of the currency
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the currency of the total
+     *
+     * @return the currency
+     */
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Turns the total so far into a monetary value
+     *
+     * @return the total
+     */
+    public Monetary toMonetary() {
+        return new Monetary(total, currency);
+    }
+}
@@ -0,0 +1,118 @@
+package commons;
+
+import jakarta.persistence.*;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Objects;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+@Entity
+@Table(name = "participant_balance", indexes = @Index(
+    columnList = "event_invite_code, participant_id", unique = true))
+public class ParticipantBalance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private long id;
+
+    @Column(name = "event_invite_code")
+    private String eventInviteCode;
+
+    @Column(name = "participant_id")
+    private long participantId;
+
+    private long amount;
+
+    /**
+     * Creates the balance of a participant in an event.
+     * @param eventInviteCode the invite code of the event.
+     * @param participantId the id of the participant.
+     * @param amount the net balance in the minor unit, positive when the participant
+     *               should receive money.
+     */
+    public ParticipantBalance(String eventInviteCode, long participantId, long amount) {
+        this.eventInviteCode = eventInviteCode;
+        this.participantId = participantId;
+        this.amount = amount;
+    }
+
+    /**
+     * Creates a balance.
+     * Used for object mapping.
+     */
+    public ParticipantBalance() {
+        // for object mapper
+    }
+
+    /**
+     * Retrieves the id of this balance.
+     * @return the balance's id.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Retrieves the invite code of the event this balance belongs to.
+     * @return the event's invite code.
+     */
+    public String getEventInviteCode() {
+        return eventInviteCode;
+    }
+
+    /**
+     * Retrieves the id of the participant this balance belongs to.
+     * @return the participant's id.
+     */
+    public long getParticipantId() {
+        return participantId;
+    }
+
+    /**
+     * Retrieves the net balance, positive when the participant should receive money.
+     * @return the balance in the minor unit.
+     */
+    public long getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets the net balance.
+     * @param amount the new balance in the minor unit.
+     */
+    public void setAmount(long amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * Checks if two balances are equal.
+     * @param o object to be compared with.
+     * @return true if they are equal.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ParticipantBalance that = (ParticipantBalance) o;
+        return participantId == that.participantId && amount == that.amount
+            && Objects.equals(eventInviteCode, that.eventInviteCode);
+    }
+
+    /**
+     * Generates a hash code.
+     * @return the hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(eventInviteCode, participantId, amount);
+    }
+
+    /**
+     * Turns this into a readable string.
+     * @return string representation of the balance.
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
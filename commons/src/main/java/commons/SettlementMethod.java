@@ -0,0 +1,35 @@
+package commons;
+
+import java.util.function.Supplier;
+
+/**
+ * The settlement strategies an event can be configured with
+ */
+public enum SettlementMethod {
+    /**
+     * Max-flow per pair of participants followed by debt chain collapsing
+     */
+    MAX_FLOW(MaxFlowSettlementStrategy::new),
+    /**
+     * Matches the biggest debtor with the biggest creditor on net balances
+     */
+    GREEDY(GreedySettlementStrategy::new),
+    /**
+     * The fewest possible transfers, found exactly for events with up to 20 balances
+     */
+    MINIMUM_TRANSFERS(MinimumTransfersSettlementStrategy::new);
+
+    private final Supplier<SettlementStrategy> strategy;
+
+    SettlementMethod(Supplier<SettlementStrategy> strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Gets the strategy implementing this method
+     * @return the strategy
+     */
+    public SettlementStrategy getStrategy() {
+        return strategy.get();
+    }
+}
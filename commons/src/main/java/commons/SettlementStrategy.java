@@ -0,0 +1,28 @@
+package commons;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the expenses of an event into the list of transfers that settles them
+ */
+public interface SettlementStrategy {
+    /**
+     * Calculates the debts that settle an event
+     * @param event the event
+     * @return the list of debts, every debtor paying the creditor the given amount
+     */
+    List<Debt> settle(Event event);
+
+    /**
+     * Calculates the debts that settle an event whose net balances are already known.
+     * Strategies that need more than the balances ignore them and look at the expenses.
+     * @param event the event
+     * @param balances the net balance of every participant, positive when the participant
+     *                 should receive money
+     * @return the list of debts, every debtor paying the creditor the given amount
+     */
+    default List<Debt> settle(Event event, Map<Participant, Long> balances) {
+        return settle(event);
+    }
+}
@@ -0,0 +1,118 @@
+package commons;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ArrayDebtMinimizationGraphTest {
+    private ArrayDebtMinimizationGraph graph;
+    @BeforeEach
+    public void setUp() {
+        graph = new ArrayDebtMinimizationGraph(5);
+    }
+
+    @Test
+    public void testGraphInitialization() {
+        assertEquals(5, graph.getVertexCount(), "Graph should be initialized with 5 vertices.");
+        assertEquals(0, graph.getEdgeCount(), "Graph should not contain edges.");
+    }
+
+    @Test
+    public void testAddEdgeAndVerify() {
+        graph.addEdge(0, 1, 10);
+        List<int[]> edgesFrom0 = new ArrayList<>();
+        graph.forEachEdge(0, (to, capacity, flow) -> edgesFrom0.add(new int[]{to, capacity, flow}));
+        assertEquals(1, edgesFrom0.size(), "Node 0 should have 1 outgoing edge.");
+        assertArrayEquals(new int[]{1, 10, 0}, edgesFrom0.get(0));
+        List<int[]> edgesFrom1 = new ArrayList<>();
+        graph.forEachEdge(1, (to, capacity, flow) -> edgesFrom1.add(new int[]{to, capacity, flow}));
+        assertArrayEquals(new int[]{0, 0, 0}, edgesFrom1.get(0), "Reverse edge should be empty.");
+        assertEquals(2, graph.getEdgeCount());
+    }
+
+    @Test
+    public void testMaxFlowSimpleScenario() {
+        graph.addEdge(0, 1, 10);
+        graph.addEdge(1, 2, 5);
+        graph.addEdge(0, 2, 5);
+        assertEquals(10, graph.maxFlow(0, 2), "Max flow from 0 to 2 should be 10.");
+    }
+
+    @Test
+    public void testMaxFlowComplexScenario() {
+        graph.addEdge(0, 1, 10);
+        graph.addEdge(1, 2, 20);
+        graph.addEdge(2, 3, 10);
+        graph.addEdge(3, 4, 20);
+        graph.addEdge(0, 2, 5);
+        graph.addEdge(2, 4, 5);
+        assertEquals(15, graph.maxFlow(0, 4), "Max flow from 0 to 4 should be 15.");
+    }
+
+    @Test
+    public void testMaxFlowSameNode() {
+        assertEquals(-1, graph.maxFlow(2, 2));
+    }
+
+    @Test
+    public void testFlowIsRecordedOnEdges() {
+        graph.addEdge(0, 1, 10);
+        graph.addEdge(1, 2, 4);
+        assertEquals(4, graph.maxFlow(0, 2));
+        List<Integer> flows = new ArrayList<>();
+        graph.forEachEdge(0, (to, capacity, flow) -> flows.add(flow));
+        assertEquals(List.of(4), flows);
+        flows.clear();
+        graph.forEachEdge(1, (to, capacity, flow) -> flows.add(flow));
+        assertEquals(List.of(-4, 4), flows);
+    }
+
+    @Test
+    public void testGetConnectedNodes() {
+        graph.addEdge(0, 1, 10);
+        graph.addEdge(1, 2, 5);
+        graph.addEdge(0, 2, 5);
+        List<Integer> connectedNodes = graph.getConnectedNodes(0);
+        assertEquals(3, connectedNodes.size(), "There should be 3 nodes connected to node 0.");
+        assertTrue(connectedNodes.containsAll(List.of(0, 1, 2)), "Connected nodes should include 0, 1, and 2.");
+    }
+
+    @Test
+    public void testGrowsBeyondInitialEdges() {
+        ArrayDebtMinimizationGraph big = new ArrayDebtMinimizationGraph(50);
+        for (int i = 0; i < 49; i++) {
+            big.addEdge(i, i + 1, 100 - i);
+        }
+        assertEquals(98, big.getEdgeCount());
+        assertEquals(52, big.maxFlow(0, 49));
+    }
+
+    @Test
+    public void testSameFlowAsListEngine() {
+        Random random = new Random(42);
+        for (int test = 0; test < 200; test++) {
+            int n = 2 + random.nextInt(8);
+            DebtMinimizationGraph expected = new DebtMinimizationGraph(n);
+            ArrayDebtMinimizationGraph actual = new ArrayDebtMinimizationGraph(n);
+            for (int i = random.nextInt(25); i > 0; i--) {
+                int from = random.nextInt(n);
+                int to = random.nextInt(n);
+                int capacity = random.nextInt(100);
+                expected.addEdge(from, to, capacity);
+                actual.addEdge(from, to, capacity);
+            }
+            int source = random.nextInt(n);
+            int sink = random.nextInt(n);
+            assertEquals(expected.maxFlow(source, sink), actual.maxFlow(source, sink));
+        }
+    }
+
+    @Test
+    public void testAddingEdgeToNonExistentVertex() {
+        Exception exception = assertThrows(IndexOutOfBoundsException.class, () -> graph.addEdge(0, 5, 10));
+        assertTrue(exception.getMessage().contains("Index 5 out of bounds for length 5"));
+    }
+}
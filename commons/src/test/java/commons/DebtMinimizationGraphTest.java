@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
 import java.util.List;
 
 public class DebtMinimizationGraphTest {
@@ -88,6 +89,55 @@ public class DebtMinimizationGraphTest {
         assertTrue(directEdgeExists, "A direct edge from 0 to 3 with capacity 100 should exist after minimization.");
     }
 
+    private long[] balances(DebtMinimizationGraph g) {
+        long[] balances = new long[g.getGraph().size()];
+        for (int i = 0; i < balances.length; ++i) {
+            for (Edge edge : g.getEdgesForVertex(i)) {
+                balances[i] -= edge.getCapacity();
+                balances[edge.getTo()] += edge.getCapacity();
+            }
+        }
+        return balances;
+    }
+
+    @Test
+    public void testMinimizeDebtChainsCollapsesBySmallestDebt() {
+        graph.addEdge(0, 1, 100);
+        graph.addEdge(1, 2, 50);
+        long[] before = balances(graph);
+        graph.minimizeDebtChains(5);
+        assertArrayEquals(before, balances(graph), "Balances should not change.");
+        assertTrue(graph.getGraph().stream().flatMap(List::stream)
+            .allMatch(edge -> edge.getCapacity() >= 0), "No debt should become negative.");
+        assertTrue(graph.getEdgesForVertex(0).stream()
+            .anyMatch(edge -> edge.getTo() == 2 && edge.getCapacity() == 50));
+    }
+
+    @Test
+    public void testMinimizeDebtChainsStopsWhenBudgetRunsOut() {
+        graph.addEdge(0, 1, 100);
+        graph.addEdge(1, 2, 100);
+        long[] before = balances(graph);
+        assertFalse(graph.minimizeDebtChains(5, 0, Duration.ofSeconds(1)));
+        assertArrayEquals(before, balances(graph), "Balances should not change.");
+    }
+
+    @Test
+    public void testMinimizeDebtChainsOnDenseGraph() {
+        int n = 60;
+        DebtMinimizationGraph dense = new DebtMinimizationGraph(n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                if (i != j) {
+                    dense.addEdge(i, j, 1 + (i * 31 + j * 17) % 100);
+                }
+            }
+        }
+        long[] before = balances(dense);
+        assertTrue(dense.minimizeDebtChains(n, Long.MAX_VALUE, Duration.ofMinutes(1)));
+        assertArrayEquals(before, balances(dense), "Balances should not change.");
+    }
+
     @Test
     public void testAddingEdgeToNonExistentVertex() {
         Exception exception = assertThrows(IndexOutOfBoundsException.class, () -> graph.addEdge(0, 5, 10));
@@ -0,0 +1,102 @@
+package commons;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventDeltaTest {
+    private Event event;
+    private Participant alice;
+    private Participant bob;
+    private Expense expense;
+    private ExpenseType food;
+
+    @BeforeEach
+    public void setup() {
+        alice = new Participant("alice", "", "", "");
+        alice.setId(1);
+        bob = new Participant("bob", "", "", "");
+        bob.setId(2);
+        event = new Event("ABCDEF", "Test Event", LocalDateTime.now(),
+            new HashSet<>(Set.of(alice, bob)), new HashSet<>());
+        food = new ExpenseType("food", "red", event);
+        food.setId(5);
+        event.addType(food);
+        expense = new Expense(event, "lunch", alice, new Monetary(1000), LocalDate.now(),
+            Set.of(alice, bob));
+        expense.setId(10L);
+        expense.setTags(new HashSet<>(Set.of(food)));
+        event.setExpenses(new HashSet<>(Set.of(expense)));
+    }
+
+    @Test
+    public void expenseAddedTwiceIsAddedOnce() {
+        Expense added = new Expense(null, "dinner", bob, new Monetary(500), LocalDate.now(),
+            Set.of(alice, bob));
+        added.setId(11L);
+        EventDelta delta = EventDelta.ofExpense(EventDelta.Type.EXPENSE_ADDED, added);
+        delta.applyTo(event);
+        delta.applyTo(event);
+        assertEquals(2, event.getExpenses().size());
+        assertSame(event, added.getEvent());
+    }
+
+    @Test
+    public void expenseUpdatedReplacesById() {
+        Expense updated = new Expense(null, "brunch", alice, new Monetary(1000), LocalDate.now(),
+            Set.of(alice, bob));
+        updated.setId(10L);
+        EventDelta.ofExpense(EventDelta.Type.EXPENSE_UPDATED, updated).applyTo(event);
+        assertEquals(Set.of(updated), event.getExpenses());
+    }
+
+    @Test
+    public void expenseDeleted() {
+        EventDelta.ofRemoval(EventDelta.Type.EXPENSE_DELETED, 10).applyTo(event);
+        assertTrue(event.getExpenses().isEmpty());
+    }
+
+    @Test
+    public void participantChangedEverywhere() {
+        Participant renamed = new Participant("alicia", "", "", "");
+        renamed.setId(1);
+        EventDelta.ofParticipant(renamed).applyTo(event);
+        assertTrue(event.getParticipants().contains(renamed));
+        assertFalse(event.getParticipants().contains(alice));
+        Expense patched = event.getExpenses().iterator().next();
+        assertSame(renamed, patched.getCreator());
+        assertTrue(patched.getSplitBetween().contains(renamed));
+        assertTrue(event.getExpenses().contains(patched));
+    }
+
+    @Test
+    public void participantOfOtherEventIgnored() {
+        Participant other = new Participant("carol", "", "", "");
+        other.setId(3);
+        EventDelta.ofParticipant(other).applyTo(event);
+        assertEquals(Set.of(alice, bob), event.getParticipants());
+    }
+
+    @Test
+    public void tagChangedEverywhere() {
+        ExpenseType renamed = new ExpenseType("groceries", "green", null);
+        renamed.setId(5);
+        EventDelta.ofTag(renamed).applyTo(event);
+        assertEquals("groceries", event.getTags().iterator().next().getName());
+        assertSame(renamed, expense.getTags().iterator().next());
+        assertSame(event, renamed.getEvent());
+    }
+
+    @Test
+    public void tagDeletedFromEventOnly() {
+        EventDelta.ofRemoval(EventDelta.Type.TAG_DELETED, 5).applyTo(event);
+        assertTrue(event.getTags().isEmpty());
+        assertEquals(Set.of(food), expense.getTags());
+    }
+}
@@ -45,6 +45,44 @@ class EventTest {
         assertEquals(newDateTime, event.getDateTime());
     }
 
+    @Test
+    void normalizeInviteCode() {
+        assertEquals("ABC1DE", Event.normalizeInviteCode("abC1de"));
+        assertNull(Event.normalizeInviteCode(null));
+    }
+
+    @Test
+    void generatedInviteCodeIsNormalized() {
+        event.generateInviteCode();
+        assertEquals(Event.normalizeInviteCode(event.getInviteCode()), event.getInviteCode());
+    }
+
+    @Test
+    void headerHasFieldsButNoContents() {
+        LocalDateTime created = LocalDateTime.of(1, 1, 1, 1, 1, 1);
+        LocalDateTime updated = LocalDateTime.of(3, 3, 3, 3, 3, 3);
+        Event header = new Event("ABCDEF", "Header", dateTime, created, updated,
+            SettlementMethod.GREEDY);
+        assertEquals("ABCDEF", header.getInviteCode());
+        assertEquals(created, header.getCreationTime());
+        assertEquals(updated, header.getLastUpdateTime());
+        assertEquals(SettlementMethod.GREEDY, header.getSettlementMethod());
+        assertTrue(header.getParticipants().isEmpty());
+        assertTrue(header.getTags().isEmpty());
+        assertTrue(header.getExpenses().isEmpty());
+    }
+
+    @Test
+    void getSettlementMethodDefaultsToMaxFlow() {
+        assertEquals(SettlementMethod.MAX_FLOW, event.getSettlementMethod());
+    }
+
+    @Test
+    void setSettlementMethod() {
+        event.setSettlementMethod(SettlementMethod.GREEDY);
+        assertEquals(SettlementMethod.GREEDY, event.getSettlementMethod());
+    }
+
     @Test
     void getParticipants() {
         assertEquals(new HashSet<>(), event.getParticipants());
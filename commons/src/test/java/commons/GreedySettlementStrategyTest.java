@@ -0,0 +1,103 @@
+package commons;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GreedySettlementStrategyTest {
+    private GreedySettlementStrategy strategy;
+    private List<Participant> participants;
+    private Event event;
+
+    @BeforeEach
+    void setup() {
+        strategy = new GreedySettlementStrategy();
+        participants = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Participant participant = new Participant("p" + i, "", "", "");
+            participant.setId(i);
+            participants.add(participant);
+        }
+        event = new Event("ABCDEF", "Test Event", LocalDateTime.now(),
+            new HashSet<>(participants), new HashSet<>());
+        event.setExpenses(new HashSet<>());
+    }
+
+    private void addExpense(int creator, long amount, int... splitBetween) {
+        Set<Participant> split = new HashSet<>();
+        for (int i : splitBetween) {
+            split.add(participants.get(i));
+        }
+        event.getExpenses().add(new Expense(event, "expense" + event.getExpenses().size(),
+            participants.get(creator), new Monetary(amount), LocalDate.now(), split));
+    }
+
+    @Test
+    void noExpensesNoDebts() {
+        assertEquals(List.of(), strategy.settle(event));
+    }
+
+    @Test
+    void netBalancesIgnoreOwnShare() {
+        addExpense(0, 300, 0, 1, 2);
+        Map<Participant, Long> balances = GreedySettlementStrategy.netBalances(event);
+        assertEquals(200L, balances.get(participants.get(0)));
+        assertEquals(-100L, balances.get(participants.get(1)));
+        assertEquals(-100L, balances.get(participants.get(2)));
+        assertNull(balances.get(participants.get(3)));
+    }
+
+    @Test
+    void biggestDebtorPaysBiggestCreditor() {
+        Map<Participant, Long> balances = new HashMap<>();
+        balances.put(participants.get(0), 500L);
+        balances.put(participants.get(1), 100L);
+        balances.put(participants.get(2), -400L);
+        balances.put(participants.get(3), -200L);
+        List<Debt> debts = strategy.settle(balances);
+        assertEquals(List.of(
+            new Debt(participants.get(2), new Monetary(400), participants.get(0)),
+            new Debt(participants.get(3), new Monetary(100), participants.get(0)),
+            new Debt(participants.get(3), new Monetary(100), participants.get(1))), debts);
+    }
+
+    @Test
+    void chainIsCollapsed() {
+        addExpense(1, 100, 0);
+        addExpense(2, 100, 1);
+        addExpense(3, 100, 2);
+        assertEquals(List.of(new Debt(participants.get(0), new Monetary(100), participants.get(3))),
+            strategy.settle(event));
+    }
+
+    @Test
+    void debtsSettleEveryBalance() {
+        Random random = new Random(7);
+        for (int i = 0; i < 20; i++) {
+            addExpense(random.nextInt(4), random.nextInt(10000), 0, 1, random.nextInt(4));
+        }
+        Map<Participant, Long> expected = GreedySettlementStrategy.netBalances(event);
+        expected.values().removeIf(amount -> amount == 0);
+        Map<Participant, Long> actual = new HashMap<>();
+        List<Debt> debts = strategy.settle(event);
+        for (Debt debt : debts) {
+            long amount = debt.getAmount().getInternalValue();
+            actual.merge(debt.getDebtor(), -amount, Long::sum);
+            actual.merge(debt.getCreditor(), amount, Long::sum);
+        }
+        actual.values().removeIf(amount -> amount == 0);
+        assertEquals(expected, actual);
+        assertTrue(debts.size() < participants.size());
+    }
+
+    @Test
+    void settlementMethodPicksStrategy() {
+        assertInstanceOf(GreedySettlementStrategy.class, SettlementMethod.GREEDY.getStrategy());
+        assertInstanceOf(MaxFlowSettlementStrategy.class, SettlementMethod.MAX_FLOW.getStrategy());
+    }
+}
@@ -0,0 +1,102 @@
+package commons;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaxFlowSettlementStrategyTest {
+    private static final int GROUP_SIZE = 10;
+
+    private List<Participant> participants;
+    private Event event;
+
+    @BeforeEach
+    void setup() {
+        participants = new ArrayList<>();
+        for (int i = 0; i < 3 * GROUP_SIZE; i++) {
+            Participant participant = new Participant("p" + i, "", "", "");
+            participant.setId(i);
+            participants.add(participant);
+        }
+        event = new Event("ABCDEF", "Test Event", LocalDateTime.now(),
+            new HashSet<>(participants), new HashSet<>());
+        event.setExpenses(new HashSet<>());
+    }
+
+    private void addExpense(int creator, long amount, int... splitBetween) {
+        Set<Participant> split = new HashSet<>();
+        for (int i : splitBetween) {
+            split.add(participants.get(i));
+        }
+        event.getExpenses().add(new Expense(event, "expense" + event.getExpenses().size(),
+            participants.get(creator), new Monetary(amount), LocalDate.now(), split));
+    }
+
+    // Every group pays its own expenses in a circle, with a few shared ones on top
+    private void addGroupExpenses(int groups) {
+        for (int g = 0; g < groups; g++) {
+            int first = g * GROUP_SIZE;
+            for (int i = 0; i < GROUP_SIZE; i++) {
+                addExpense(first + i, 100 * (i + 1), first + (i + 1) % GROUP_SIZE,
+                    first + (i + 3) % GROUP_SIZE);
+                addExpense(first + i, 70, first, first + 1, first + 2);
+            }
+        }
+    }
+
+    private int group(Participant participant) {
+        return participants.indexOf(participant) / GROUP_SIZE;
+    }
+
+    private void assertSettles(List<Debt> debts) {
+        Map<Participant, Long> balances = GreedySettlementStrategy.netBalances(event);
+        for (Debt debt : debts) {
+            assertTrue(debt.getAmount().getInternalValue() > 0);
+            assertEquals(group(debt.getDebtor()), group(debt.getCreditor()),
+                "Debts should stay within a group.");
+            balances.merge(debt.getDebtor(), debt.getAmount().getInternalValue(), Long::sum);
+            balances.merge(debt.getCreditor(), -debt.getAmount().getInternalValue(), Long::sum);
+        }
+        balances.values().forEach(balance -> assertEquals(0L, balance));
+    }
+
+    @Test
+    void componentsDoNotShareParticipants() {
+        addGroupExpenses(3);
+        List<List<Debt>> components =
+            MaxFlowSettlementStrategy.getComponents(event.paymentsToDebt(event));
+        assertEquals(3, components.size());
+        for (List<Debt> component : components) {
+            int group = group(component.get(0).getDebtor());
+            assertTrue(component.stream().allMatch(debt -> group(debt.getDebtor()) == group
+                && group(debt.getCreditor()) == group));
+        }
+    }
+
+    @Test
+    void settlesSmallEventOnCallingThread() {
+        addExpense(0, 300, 0, 1, 2);
+        addExpense(GROUP_SIZE, 200, GROUP_SIZE, GROUP_SIZE + 1);
+        assertSettles(new MaxFlowSettlementStrategy().settle(event));
+    }
+
+    @Test
+    void settlesGroupsInParallel() {
+        addGroupExpenses(3);
+        assertTrue(event.paymentsToDebt(event).size()
+            >= MaxFlowSettlementStrategy.PARALLEL_THRESHOLD);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertSettles(new MaxFlowSettlementStrategy(DebtMinimizationGraph::new, pool)
+                .settle(event));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
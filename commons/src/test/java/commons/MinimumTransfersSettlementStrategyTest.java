@@ -0,0 +1,110 @@
+package commons;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinimumTransfersSettlementStrategyTest {
+    private MinimumTransfersSettlementStrategy strategy;
+    private List<Participant> participants;
+
+    @BeforeEach
+    void setup() {
+        strategy = new MinimumTransfersSettlementStrategy();
+        participants = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Participant participant = new Participant("p" + i, "", "", "");
+            participant.setId(i);
+            participants.add(participant);
+        }
+    }
+
+    private Map<Participant, Long> balances(long... amounts) {
+        Map<Participant, Long> balances = new HashMap<>();
+        for (int i = 0; i < amounts.length; i++) {
+            balances.put(participants.get(i), amounts[i]);
+        }
+        return balances;
+    }
+
+    private void assertSettles(Map<Participant, Long> balances, List<Debt> debts) {
+        Map<Participant, Long> left = new HashMap<>(balances);
+        for (Debt debt : debts) {
+            assertTrue(debt.getAmount().getInternalValue() > 0);
+            left.merge(debt.getDebtor(), debt.getAmount().getInternalValue(), Long::sum);
+            left.merge(debt.getCreditor(), -debt.getAmount().getInternalValue(), Long::sum);
+        }
+        left.values().forEach(balance -> assertEquals(0L, balance));
+    }
+
+    @Test
+    void noBalancesNoDebts() {
+        assertEquals(List.of(), strategy.settle(new HashMap<>()));
+    }
+
+    @Test
+    void fewerTransfersThanGreedy() {
+        // p2 and p3 settle between themselves, the other three need two transfers
+        Map<Participant, Long> balances = balances(-400, 200, 300, -300, 200);
+        List<Debt> debts = strategy.settle(balances);
+        assertSettles(balances, debts);
+        assertEquals(3, debts.size());
+        assertEquals(4, new GreedySettlementStrategy().settle(balances).size());
+        assertTrue(debts.contains(new Debt(participants.get(3), new Monetary(300),
+            participants.get(2))));
+    }
+
+    @Test
+    void findGroupsSplitsIntoMostZeroSumGroups() {
+        List<List<Integer>> groups = MinimumTransfersSettlementStrategy.findGroups(
+            new long[] {5, -5, 3, -1, -2, 7, -7}, Long.MAX_VALUE);
+        assertEquals(3, groups.size());
+        assertEquals(Set.of(0, 1, 2, 3, 4, 5, 6),
+            groups.stream().flatMap(List::stream).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void fallsBackAboveThreshold() {
+        long[] amounts = new long[MinimumTransfersSettlementStrategy.MAX_EXACT_BALANCES + 2];
+        for (int i = 0; i < amounts.length; i += 2) {
+            amounts[i] = 100 + i;
+            amounts[i + 1] = -100 - i;
+        }
+        Map<Participant, Long> balances = balances(amounts);
+        List<Debt> debts = strategy.settle(balances);
+        assertSettles(balances, debts);
+        assertEquals(new HashSet<>(new GreedySettlementStrategy().settle(balances)),
+            new HashSet<>(debts));
+    }
+
+    @Test
+    void fallsBackWhenOutOfTime() {
+        assertNull(MinimumTransfersSettlementStrategy.findGroups(new long[16],
+            System.nanoTime() - 1));
+        MinimumTransfersSettlementStrategy capped =
+            new MinimumTransfersSettlementStrategy(20, Duration.ZERO);
+        Map<Participant, Long> balances = balances(-400, 200, 300, -300, 200);
+        assertSettles(balances, capped.settle(balances));
+    }
+
+    @Test
+    void settlesEvent() {
+        Event event = new Event("ABCDEF", "Test Event", LocalDateTime.now(),
+            new HashSet<>(participants.subList(0, 3)), new HashSet<>());
+        event.setExpenses(new HashSet<>(Set.of(new Expense(event, "expense",
+            participants.get(0), new Monetary(300), LocalDate.now(),
+            Set.of(participants.get(1), participants.get(2))))));
+        List<Debt> debts = SettlementMethod.MINIMUM_TRANSFERS.getStrategy().settle(event);
+        assertEquals(Set.of(
+            new Debt(participants.get(1), new Monetary(150), participants.get(0)),
+            new Debt(participants.get(2), new Monetary(150), participants.get(0))),
+            new HashSet<>(debts));
+    }
+}
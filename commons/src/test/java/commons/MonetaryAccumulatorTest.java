@@ -0,0 +1,70 @@
+package commons;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonetaryAccumulatorTest {
+    private MonetaryAccumulator accumulator;
+
+    @BeforeEach
+    void setup() {
+        accumulator = new MonetaryAccumulator();
+    }
+
+    @Test
+    void startsAtZero() {
+        assertEquals(0L, accumulator.getTotal());
+        assertEquals(new Monetary(0), accumulator.toMonetary());
+    }
+
+    @Test
+    void addsAndSubtracts() {
+        accumulator.add(new Monetary(1202));
+        accumulator.add(5205);
+        accumulator.subtract(new Monetary(7));
+        accumulator.subtract(100);
+        assertEquals(1202L + 5205 - 7 - 100, accumulator.getTotal());
+        assertEquals(new Monetary(6300), accumulator.toMonetary());
+    }
+
+    @Test
+    void matchesAddingMonetaries() {
+        Random random = new Random(42);
+        Monetary expected = new Monetary(0);
+        for (int i = 0; i < 1000; i++) {
+            Monetary monetary = new Monetary(random.nextInt(1_000_000) - 500_000);
+            expected = Monetary.add(expected, monetary);
+            accumulator.add(monetary);
+        }
+        assertEquals(expected, accumulator.toMonetary());
+    }
+
+    @Test
+    void otherCurrencyThrows() {
+        Monetary usd = new Monetary(1, "USD");
+        assertThrows(IllegalArgumentException.class, () -> accumulator.add(usd));
+        assertThrows(IllegalArgumentException.class, () -> accumulator.subtract(usd));
+    }
+
+    @Test
+    void keepsCurrency() {
+        MonetaryAccumulator tnd = new MonetaryAccumulator(Currency.getInstance("TND"));
+        tnd.add(new Monetary(14501, "TND"));
+        assertEquals(Currency.getInstance("TND"), tnd.getCurrency());
+        assertEquals("14.501", tnd.toMonetary().toString());
+    }
+
+    @Test
+    void overflowThrows() {
+        accumulator.add(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> accumulator.add(1));
+        assertEquals(Long.MAX_VALUE, accumulator.getTotal());
+        accumulator.subtract(Long.MAX_VALUE);
+        accumulator.subtract(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> accumulator.subtract(2));
+    }
+}
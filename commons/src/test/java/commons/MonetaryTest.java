@@ -1,6 +1,7 @@
 package commons;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
@@ -82,6 +83,60 @@ public class MonetaryTest {
         assertEquals(monetary1, monetary2);
     }
 
+    @Test
+    public void testAdditionOverflowThrows() {
+        var max = new Monetary(Long.MAX_VALUE, "EUR");
+        var one = new Monetary(1, "EUR");
+        assertThrows(ArithmeticException.class, () -> Monetary.add(max, one));
+    }
+
+    @Test
+    public void testVarargsAddition() {
+        var monetary = new Monetary(100, "EUR");
+        Monetary sum = Monetary.add(monetary, monetary, monetary);
+
+        assertEquals(new Monetary(300, "EUR"), sum);
+    }
+
+    @Test
+    public void testSubtraction() {
+        var monetary1 = new Monetary(1202, "EUR");
+        var monetary2 = new Monetary(5205, "EUR");
+
+        assertEquals(new Monetary(1202 - 5205, "EUR"), Monetary.subtract(monetary1, monetary2));
+        assertThrows(IllegalArgumentException.class,
+                () -> Monetary.subtract(monetary1, new Monetary(1, "USD")));
+    }
+
+    @Test
+    public void testDivision() {
+        assertEquals(new Monetary(333, "EUR"), Monetary.divide(new Monetary(1000, "EUR"), 3));
+        assertEquals(new Monetary(-333, "EUR"), Monetary.divide(new Monetary(-1000, "EUR"), 3));
+        assertThrows(ArithmeticException.class, () -> Monetary.divide(new Monetary(1), 0));
+    }
+
+    @Test
+    public void testNotEqual() {
+        assertNotEquals(new Monetary(123, "EUR"), new Monetary(124, "EUR"));
+        assertNotEquals(new Monetary(123, "EUR"), new Monetary(123, "USD"));
+        assertNotEquals(new Monetary(123, "EUR"), null);
+        assertNotEquals(new Monetary(123, "EUR"), 123L);
+    }
+
+    @Test
+    public void testHashCode() {
+        assertEquals(new Monetary(123, "EUR").hashCode(), new Monetary(123, "EUR").hashCode());
+        assertEquals(new Monetary().hashCode(), new Monetary().hashCode());
+    }
+
+    @Test
+    public void testFractionDivider() {
+        assertEquals(100, Monetary.fractionDivider(Currency.getInstance("EUR")));
+        assertEquals(1000, Monetary.fractionDivider(Currency.getInstance("TND")));
+        assertEquals(1, Monetary.fractionDivider(Currency.getInstance("JPY")));
+        assertEquals(5, new Monetary(500, "JPY").getMajor() / 100);
+    }
+
     @Test
     public void setValue() {
         var monetary1 = new Monetary();
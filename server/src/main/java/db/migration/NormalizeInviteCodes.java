@@ -0,0 +1,147 @@
+package db.migration;
+
+import commons.Event;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Moves the events saved before invite codes were normalized to their invite code in upper
+ * case. The primary key of an event can't be changed while its tags and expenses refer to it,
+ * so the event is inserted again under the new code and everything referring to it is moved
+ * over before the old one is deleted. Events whose codes are the same in upper case can't be
+ * told apart anymore, so the migration fails before moving anything and lists them. It is
+ * version 4, the version is given here rather than in the name of the class.
+ */
+public class NormalizeInviteCodes extends BaseJavaMigration {
+    private static final String COPY_EVENT = "insert into event (invite_code, creation_time, "
+        + "date_time, last_update_time, name, settlement_method) select ?, creation_time, "
+        + "date_time, last_update_time, name, settlement_method from event where invite_code = ?";
+    // Every reference to an event, each set from the new code (first) to the old one (second)
+    private static final String[] MOVE_REFERENCES = {
+        "update event_participants set event_invite_code = ? where event_invite_code = ?",
+        "update expense_type set event_id = ? where event_id = ?",
+        "update expense set event_id = ? where event_id = ?",
+        "update participant_balance set event_invite_code = ? where event_invite_code = ?"
+    };
+
+    // The version and description are not read from the name of the class
+    @Override
+    protected void init() {
+    }
+
+    /**
+     * gets the version of this migration
+     *
+     * @return version 4
+     */
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("4");
+    }
+
+    /**
+     * gets the description of this migration
+     *
+     * @return the description, as it is saved in the schema history
+     */
+    @Override
+    public String getDescription() {
+        return "NormalizeInviteCodes";
+    }
+
+    /**
+     * normalizes the invite codes of all events
+     *
+     * @param context the connection of the migration
+     * @throws SQLException if the database could not be changed
+     */
+    @Override
+    public void migrate(Context context) throws SQLException {
+        normalize(context.getConnection());
+    }
+
+    /**
+     * normalizes the invite codes of all events
+     *
+     * @param connection the connection to the database
+     * @return the number of events that were moved
+     * @throws SQLException if the database could not be changed
+     * @throws FlywayException if the codes of some events are the same in upper case
+     */
+    static int normalize(Connection connection) throws SQLException {
+        Map<String, List<String>> byNormalized = new TreeMap<>();
+        for (String inviteCode : unnormalizedInviteCodes(connection)) {
+            byNormalized.computeIfAbsent(Event.normalizeInviteCode(inviteCode),
+                normalized -> new ArrayList<>()).add(inviteCode);
+        }
+        List<String> collisions = new ArrayList<>();
+        for (Map.Entry<String, List<String>> codes : byNormalized.entrySet()) {
+            if (codes.getValue().size() > 1 || exists(connection, codes.getKey())) {
+                collisions.add(codes.getKey() + " " + codes.getValue());
+            }
+        }
+        if (!collisions.isEmpty()) {
+            throw new FlywayException("The invite codes of these events are the same in upper "
+                + "case, rename or remove all but one of each in the database: "
+                + String.join(", ", collisions));
+        }
+        for (Map.Entry<String, List<String>> codes : byNormalized.entrySet()) {
+            move(connection, codes.getValue().get(0), codes.getKey());
+        }
+        return byNormalized.size();
+    }
+
+    private static List<String> unnormalizedInviteCodes(Connection connection)
+            throws SQLException {
+        List<String> inviteCodes = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet codes = statement.executeQuery("select invite_code from event "
+                 + "where invite_code <> upper(invite_code) order by invite_code")) {
+            while (codes.next()) {
+                inviteCodes.add(codes.getString(1));
+            }
+        }
+        return inviteCodes;
+    }
+
+    private static boolean exists(Connection connection, String inviteCode) throws SQLException {
+        try (PreparedStatement statement =
+                 connection.prepareStatement("select 1 from event where invite_code = ?")) {
+            statement.setString(1, inviteCode);
+            try (ResultSet found = statement.executeQuery()) {
+                return found.next();
+            }
+        }
+    }
+
+    private static void move(Connection connection, String old, String inviteCode)
+            throws SQLException {
+        update(connection, COPY_EVENT, inviteCode, old);
+        for (String reference : MOVE_REFERENCES) {
+            update(connection, reference, inviteCode, old);
+        }
+        update(connection, "delete from event where invite_code = ?", old);
+    }
+
+    private static void update(Connection connection, String sql, String... parameters)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setString(i + 1, parameters[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+}
@@ -1,70 +1,82 @@
 package server;
 
+import commons.Event;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+/**
+ * Keeps the long polling requests waiting for updates of the open debts of an event.
+ * Subscribing only stores a callback, so no thread is parked while a request waits.
+ */
 @Service
 public class DebtUpdateService {
 
-    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
-    // Map each eventId to a list of locks, where each lock corresponds to a waiting request
-    private final Map<String, List<Object>> eventLocks = new ConcurrentHashMap<>();
-
     /**
-     * Waits for an update for the specified event ID. When an update occurs,
-     * the provided callback is called. This method blocks until the update occurs.
-     *
-     * @param eventId The ID of the event to wait for updates on.
-     * @param callback The callback to invoke when an update occurs.
+     * Counters describing the waiting long polling requests
+     * @param events           number of events with at least one waiting request
+     * @param waitingListeners number of waiting requests over all events
+     * @param delivered        number of updates delivered since startup
+     * @param rejected         number of requests rejected because their event was full
      */
-    public void waitForUpdate(String eventId, Consumer<String> callback) {
-        // Create a new lock for this request
-        final Object lock = new Object();
+    public record Metrics(int events, long waitingListeners, long delivered, long rejected) {
+    }
 
-        // Add the lock to the list of locks for this eventId
-        eventLocks.computeIfAbsent(eventId, k ->
-            Collections.synchronizedList(new CopyOnWriteArrayList<>())).add(lock);
+    private final Map<String, Set<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+    private final int maxListenersPerEvent;
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
 
-        synchronized (lock) {
-            try {
-                // Register the listener before waiting
-                listeners.computeIfAbsent(eventId, k -> new CopyOnWriteArrayList<>()).add(callback);
+    /**
+     * Creates the service
+     * @param maxListenersPerEvent the maximum number of requests waiting on a single event
+     */
+    public DebtUpdateService(
+            @Value("${splitty.debts.max-listeners-per-event:1000}") int maxListenersPerEvent) {
+        this.maxListenersPerEvent = maxListenersPerEvent;
+    }
 
-                // Wait on the lock for this specific request
-                lock.wait();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt(); // Restore the interrupted status
-                System.err.println("Interrupted while waiting for update on event ID: " + eventId);
+    /**
+     * Registers a listener that is called once on the next update of the specified event.
+     * Returns immediately, the listener is called from the thread notifying the update.
+     * Invite codes are compared ignoring case, like everywhere else.
+     *
+     * @param eventId The ID of the event to wait for updates on.
+     * @param listener The callback to invoke when an update occurs.
+     * @return false if the event already has the maximum number of listeners
+     */
+    public boolean subscribe(String eventId, Consumer<String> listener) {
+        boolean[] added = {false};
+        listeners.compute(Event.normalizeInviteCode(eventId), (id, current) -> {
+            Set<Consumer<String>> set = current == null ? ConcurrentHashMap.newKeySet() : current;
+            if (set.size() < maxListenersPerEvent) {
+                added[0] = set.add(listener);
             }
+            return set.isEmpty() ? null : set;
+        });
+        if (!added[0]) {
+            rejected.incrementAndGet();
         }
+        return added[0];
     }
 
     /**
      * Notifies about an update to all listeners waiting on the specified event ID.
-     * Also wakes up all locks (requests) waiting for an update on this event ID.
      *
      * @param eventId The ID of the event that has been updated.
      */
     public void notifyUpdate(String eventId) {
-        List<Consumer<String>> eventListeners = listeners.remove(eventId);
+        String id = Event.normalizeInviteCode(eventId);
+        Set<Consumer<String>> eventListeners = listeners.remove(id);
         if (eventListeners != null) {
-            eventListeners.forEach(listener -> listener.accept("Update for event ID: " + eventId));
-        }
-
-        // Retrieve and notify all locks for this event
-        List<Object> locks = eventLocks.remove(eventId);
-        if (locks != null) {
-            for (Object lock : locks) {
-                synchronized (lock) {
-                    lock.notifyAll();
-                }
-            }
+            String update = "Update for event ID: " + id;
+            eventListeners.forEach(listener -> listener.accept(update));
+            delivered.addAndGet(eventListeners.size());
         }
     }
 
@@ -75,10 +87,30 @@ public class DebtUpdateService {
      * @return the status of removal
      */
     public boolean removeUpdateListener(String eventId, Consumer<String> listener) {
-        List<Consumer<String>> listenersList = listeners.getOrDefault(eventId, null);
-        if (listenersList != null) {
-            return listenersList.remove(listener);
-        }
-        return false;
+        boolean[] removed = {false};
+        listeners.computeIfPresent(Event.normalizeInviteCode(eventId), (id, set) -> {
+            removed[0] = set.remove(listener);
+            return set.isEmpty() ? null : set;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Gets the number of listeners waiting on the specified event
+     * @param eventId the event id
+     * @return the number of waiting listeners
+     */
+    public int getWaitingListeners(String eventId) {
+        Set<Consumer<String>> eventListeners = listeners.get(Event.normalizeInviteCode(eventId));
+        return eventListeners == null ? 0 : eventListeners.size();
+    }
+
+    /**
+     * Gets the counters describing the waiting listeners
+     * @return the metrics
+     */
+    public Metrics getMetrics() {
+        long waiting = listeners.values().stream().mapToLong(Set::size).sum();
+        return new Metrics(listeners.size(), waiting, delivered.get(), rejected.get());
     }
 }
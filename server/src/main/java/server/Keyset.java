@@ -0,0 +1,123 @@
+package server;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination of the list endpoints. A page holds the rows following the one the cursor
+ * points to, ordered by primary key, so reading a page never skips over the rows before it.
+ * The cursor is the primary key of the last row of the previous page, encoded so clients
+ * treat it as opaque. It is returned in the {@link #NEXT_CURSOR} header while rows are left.
+ */
+public final class Keyset {
+    /**
+     * The header holding the cursor of the next page
+     */
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+    /**
+     * The number of rows on a page when the client does not ask for a limit
+     */
+    public static final int DEFAULT_LIMIT = 100;
+    /**
+     * The largest number of rows on a page
+     */
+    public static final int MAX_LIMIT = 500;
+
+    private Keyset() {
+        // utility class
+    }
+
+    /**
+     * Checks if a request asks for a page instead of the whole list
+     * @param limit the requested number of rows, may be null
+     * @param after the requested cursor, may be null
+     * @return true if either is given
+     */
+    public static boolean isPaged(Integer limit, String after) {
+        return limit != null || after != null;
+    }
+
+    /**
+     * Checks the requested number of rows on a page
+     * @param limit the requested number of rows, may be null
+     * @return the number of rows on the page
+     * @throws IllegalArgumentException if the limit is not between 1 and {@link #MAX_LIMIT}
+     */
+    public static int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Invalid limit " + limit);
+        }
+        return limit;
+    }
+
+    /**
+     * Fetches one row more than fits on the page, to find out if a next page exists
+     * @param limit the number of rows on the page
+     * @return the first rows of the query
+     */
+    public static Pageable fetch(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * Encodes the primary key of a row as a cursor
+     * @param key the primary key
+     * @return the cursor
+     */
+    public static String encode(Object key) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(String.valueOf(key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into a string primary key
+     * @param cursor the cursor, null for the first page
+     * @return the primary key the page follows, the empty string for the first page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public static String afterKey(String cursor) {
+        if (cursor == null) {
+            return "";
+        }
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a cursor into a numeric primary key
+     * @param cursor the cursor, null for the first page
+     * @return the id the page follows, {@link Long#MIN_VALUE} for the first page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public static long afterId(String cursor) {
+        return cursor == null ? Long.MIN_VALUE : Long.parseLong(afterKey(cursor));
+    }
+
+    /**
+     * Turns the fetched rows into a page. If a row more than fits was fetched it is dropped,
+     * and the cursor of the next page is set.
+     * @param fetched the rows fetched with {@link #fetch(int)}
+     * @param limit   the number of rows on the page
+     * @param key     gets the primary key of a row
+     * @param <T>     the type of the rows
+     * @return the page
+     */
+    public static <T> ResponseEntity<List<T>> page(List<T> fetched, int limit,
+                                                   Function<? super T, ?> key) {
+        if (fetched.size() <= limit) {
+            return ResponseEntity.ok(fetched);
+        }
+        List<T> rows = fetched.subList(0, limit);
+        return ResponseEntity.ok()
+            .header(NEXT_CURSOR, encode(key.apply(rows.get(limit - 1))))
+            .body(List.copyOf(rows));
+    }
+}
@@ -0,0 +1,127 @@
+package server;
+
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sending side of a client connection. Messages are buffered and written by whichever thread
+ * holds the session, so a slow client never blocks the threads sending to other clients.
+ * A client exceeding the send time or buffer size limit is disconnected. A refresh is only
+ * queued if the client does not already have one waiting to be sent.
+ */
+public class OutboundSession extends ConcurrentWebSocketSessionDecorator {
+    private final Tracker tracker;
+    private final AtomicLong coalescedRefreshes = new AtomicLong();
+
+    /**
+     * Wraps a client connection
+     * @param session         the client session
+     * @param sendTimeLimit   the maximum time in milliseconds a single send may take
+     * @param bufferSizeLimit the maximum number of bytes waiting to be sent
+     */
+    public OutboundSession(WebSocketSession session, int sendTimeLimit, int bufferSizeLimit) {
+        super(new Tracker(session), sendTimeLimit, bufferSizeLimit);
+        this.tracker = (Tracker) getDelegate();
+    }
+
+    /**
+     * Queues a message to be sent to the client
+     * @param message the message
+     * @throws IOException if sending the message failed
+     */
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        tracker.queued.incrementAndGet();
+        super.sendMessage(message);
+    }
+
+    /**
+     * Creates a refresh message that can be shared by all sessions
+     * @param payload the encoded refresh
+     * @return the refresh message
+     */
+    public static TextMessage refreshFrame(String payload) {
+        return new TextMessage(payload);
+    }
+
+    /**
+     * Queues a refresh, unless the client still has an earlier refresh waiting to be sent
+     * @param refresh the refresh message
+     * @throws IOException if sending the message failed
+     */
+    public void sendRefresh(TextMessage refresh) throws IOException {
+        if (!tracker.refreshPending.compareAndSet(false, true)) {
+            coalescedRefreshes.incrementAndGet();
+            return;
+        }
+        sendMessage(new RefreshMessage(refresh));
+    }
+
+    /**
+     * Gets the number of messages waiting to be sent
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return tracker.queued.get();
+    }
+
+    /**
+     * Gets the number of refreshes that were merged into one already waiting
+     * @return the number of coalesced refreshes
+     */
+    public long getCoalescedRefreshes() {
+        return coalescedRefreshes.get();
+    }
+
+    /**
+     * Marks a refresh while it waits in the buffer, the connection is handed the frame inside
+     */
+    private record RefreshMessage(TextMessage frame) implements WebSocketMessage<String> {
+        @Override
+        public String getPayload() {
+            return frame.getPayload();
+        }
+
+        @Override
+        public int getPayloadLength() {
+            return frame.getPayloadLength();
+        }
+
+        @Override
+        public boolean isLast() {
+            return frame.isLast();
+        }
+    }
+
+    /**
+     * Sits between the buffer and the connection to see which messages actually go out
+     */
+    private static final class Tracker extends WebSocketSessionDecorator {
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+        private Tracker(WebSocketSession session) {
+            super(session);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            queued.decrementAndGet();
+            if (message instanceof RefreshMessage refresh) {
+                // A mutation after this point needs a new refresh
+                refreshPending.set(false);
+                super.sendMessage(refresh.frame());
+                return;
+            }
+            super.sendMessage(message);
+        }
+    }
+}
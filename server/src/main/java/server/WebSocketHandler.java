@@ -1,27 +1,56 @@
 package server;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import commons.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.websocket.server.ServerEndpoint;
 import server.api.*;
+import server.database.EventRepository;
+import server.services.EventSnapshotService;
+import server.services.ExpensesCompacted;
 
 import java.io.IOException;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 @ServerEndpoint(value = "/ws", configurator = ContextConfigurator.class)
 public class WebSocketHandler extends TextWebSocketHandler {
-    private static final HashMap<WebSocketSession, String> connectionToEvent = new HashMap<>();
-    private static List<WebSocketSession> sessions = new ArrayList<>();
+    private static final Map<WebSocketSession, String> connectionToEvent =
+        new ConcurrentHashMap<>();
+    // Index of the sessions looking at every event, so updates only visit that event's clients
+    private static final Map<String, Set<WebSocketSession>> eventToSessions =
+        new ConcurrentHashMap<>();
+    private static final Set<WebSocketSession> sessions = ConcurrentHashMap.newKeySet();
+    private static final Map<WebSocketSession, OutboundSession> outbound =
+        new ConcurrentHashMap<>();
+    // Numbers the deltas of every event clients look at, so they can notice when they missed
+    // one. A counter starts at the last update time of its event in microseconds, which every
+    // delta moves forward, so the numbers keep growing after a counter is dropped or the
+    // server restarts. A delta is numbered and queued for the clients while holding its
+    // counter, so clients receive the deltas of an event in the order of their numbers.
+    private final Map<String, AtomicLong> eventVersions = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
+    // Every refresh is the same message, so it is encoded once for all mutations
+    private final TextMessage refreshMessage;
+    @Value("${splitty.ws.send-time-limit:5000}")
+    private int sendTimeLimit = 5000;
+    @Value("${splitty.ws.buffer-size-limit:524288}")
+    private int bufferSizeLimit = 524288;
     @Autowired
     private AdminController adminController;
     @Autowired
@@ -32,12 +61,24 @@ public class WebSocketHandler extends TextWebSocketHandler {
     private ExpenseController expenseController;
     @Autowired
     private ExpenseTypeController expenseTypeController;
+    @Autowired
+    private EventSnapshotService eventSnapshotService;
+    @Autowired
+    private EventRepository eventRepository;
 
     /**
      * Creates a class for handling the websocket connection
      */
     public WebSocketHandler() {
         this.objectMapper.registerModule(new JavaTimeModule());
+        WebSocketMessage toUpdate = new WebSocketMessage();
+        toUpdate.setEndpoint("events/refresh");
+        try {
+            this.refreshMessage =
+                OutboundSession.refreshFrame(objectMapper.writeValueAsString(toUpdate));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode the refresh message", e);
+        }
     }
 
     /**
@@ -57,6 +98,7 @@ public class WebSocketHandler extends TextWebSocketHandler {
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         sessions.add(session);
+        outbound(session);
     }
 
     /**
@@ -68,8 +110,12 @@ public class WebSocketHandler extends TextWebSocketHandler {
     @Override
     public void afterConnectionClosed(WebSocketSession session,
             CloseStatus status) throws Exception {
-        connectionToEvent.remove(session);
+        String inviteCode = connectionToEvent.remove(session);
+        if (inviteCode != null) {
+            unsubscribe(inviteCode, session);
+        }
         sessions.remove(session);
+        outbound.remove(session);
     }
 
     /**
@@ -119,8 +165,11 @@ public class WebSocketHandler extends TextWebSocketHandler {
         if(endPoint.contains("/expense_type")) {
             handleExpenseTypes(session, request, request.getMethod());
         }
-        if (endPoint.contains("/expenses") || endPoint.contains("/events")
-            || endPoint.contains("/participants") ||  endPoint.contains("/expense_type")) {
+        // Expenses, tags and participant updates push their own delta
+        boolean participantUpdate = "api/participants/id".equals(endPoint)
+            && "PUT".equals(request.getMethod());
+        if ((endPoint.contains("/events") || endPoint.contains("/participants"))
+            && !participantUpdate) {
             updateClients(session, request);
         }
     }
@@ -146,21 +195,11 @@ public class WebSocketHandler extends TextWebSocketHandler {
             throws Exception {
         if ("DELETE".equals(request.getMethod())) {
             long expenseId = objectMapper.convertValue(request.getData(), Long.class);
-            ResponseEntity<String> deletedExpense = expenseController.deleteById(expenseId);
-            returnResult(session, request, deletedExpense.getBody());
+            deleteExpense(session, request, expenseId);
             return;
         }
         if ("PUT".equals(request.getMethod())) {
-            Expense ex = objectMapper.convertValue(request.getData(), Expense.class);
-            long id = ex.getId();
-            if (ex.getSplitBetween().isEmpty() || (ex.getSplitBetween().size() == 1
-                && ex.getSplitBetween().iterator().next().equals(ex.getCreator()))) {
-                ResponseEntity<String> deletedExpense = expenseController.deleteById(id);
-                returnResult(session, request, deletedExpense.getBody());
-                return;
-            }
-            ResponseEntity<Object> updatedExpense = expenseController.updateById(id, ex);
-            returnResult(session, request, updatedExpense.getBody());
+            updateExpense(session, request);
             return;
         }
         if (!"POST".equals(request.getMethod())) {
@@ -169,6 +208,44 @@ public class WebSocketHandler extends TextWebSocketHandler {
         Expense expense = objectMapper.convertValue(request.getData(), Expense.class);
         ResponseEntity<String> savedExpense = expenseController.addExpense(expense);
         returnResult(session, request, savedExpense.getBody());
+        pushAddedExpense(session, request, savedExpense, expense);
+    }
+
+    private void updateExpense(WebSocketSession session, WebSocketMessage request)
+            throws Exception {
+        Expense ex = objectMapper.convertValue(request.getData(), Expense.class);
+        long id = ex.getId();
+        if (ex.getSplitBetween().isEmpty() || (ex.getSplitBetween().size() == 1
+            && ex.getSplitBetween().iterator().next().equals(ex.getCreator()))) {
+            deleteExpense(session, request, id);
+            return;
+        }
+        ResponseEntity<Object> updatedExpense = expenseController.updateById(id, ex);
+        returnResult(session, request, updatedExpense.getBody());
+        if (updatedExpense.getBody() instanceof Expense saved) {
+            pushDelta(session, request,
+                EventDelta.ofExpense(EventDelta.Type.EXPENSE_UPDATED, saved));
+        }
+    }
+
+    private void deleteExpense(WebSocketSession session, WebSocketMessage request, long id)
+            throws Exception {
+        ResponseEntity<String> deletedExpense = expenseController.deleteById(id);
+        returnResult(session, request, deletedExpense.getBody());
+        if (deletedExpense.getStatusCode().is2xxSuccessful()) {
+            pushDelta(session, request,
+                EventDelta.ofRemoval(EventDelta.Type.EXPENSE_DELETED, id));
+        }
+    }
+
+    private void pushAddedExpense(WebSocketSession session, WebSocketMessage request,
+            ResponseEntity<String> response, Expense expense) throws IOException {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return;
+        }
+        // Without an id the clients could not match later deltas, they refresh instead
+        pushDelta(session, request, expense.getId() == null ? null
+            : EventDelta.ofExpense(EventDelta.Type.EXPENSE_ADDED, expense));
     }
 
     private void handleExpenseByEventId(WebSocketSession session, WebSocketMessage request)
@@ -180,12 +257,13 @@ public class WebSocketHandler extends TextWebSocketHandler {
 
         String id = objectMapper.convertValue(request.getParameters().get(0), String.class);
         if ("GET".equals(meth)) {
-            List<Expense> expenses = expenseController.getByEvent(id).getBody();
-            returnResult(session, request, expenses);
+            returnPage(session, request, expenseController.getByEvent(id,
+                pageLimit(request, 1), pageCursor(request, 1)));
         } else {
             Expense expense = objectMapper.convertValue(request.getData(), Expense.class);
-            String res = expenseController.addExpenseByEventId(id, expense).getBody();
-            returnResult(session, request, res);
+            ResponseEntity<String> res = expenseController.addExpenseByEventId(id, expense);
+            returnResult(session, request, res.getBody());
+            pushAddedExpense(session, request, res, expense);
         }
 
     }
@@ -205,6 +283,9 @@ public class WebSocketHandler extends TextWebSocketHandler {
                 request.getData(), ExpenseType.class);
         ResponseEntity<ExpenseType> savedTag = expenseTypeController.update(tag);
         returnResult(session, request, savedTag.getBody());
+        if (savedTag.getBody() != null) {
+            pushDelta(session, request, EventDelta.ofTag(savedTag.getBody()));
+        }
     }
 
     private void handleDeleteExpenseType(WebSocketSession session,
@@ -213,6 +294,10 @@ public class WebSocketHandler extends TextWebSocketHandler {
                 request.getData(), ExpenseType.class);
         ResponseEntity<ExpenseType> savedTag = expenseTypeController.delete(tag);
         returnResult(session, request, savedTag.getBody());
+        if (savedTag.getBody() != null) {
+            pushDelta(session, request,
+                EventDelta.ofRemoval(EventDelta.Type.TAG_DELETED, tag.getId()));
+        }
     }
 
     private void handleAddExpenseType(WebSocketSession session,
@@ -220,8 +305,11 @@ public class WebSocketHandler extends TextWebSocketHandler {
         ExpenseType tag = objectMapper.convertValue(request.getData(), ExpenseType.class);
         String id = objectMapper.convertValue(request.getParameters().get(0), String.class);
 
-        String res = expenseTypeController.add(id, tag).getBody();
-        returnResult(session, request, res);
+        ResponseEntity<String> res = expenseTypeController.add(id, tag);
+        returnResult(session, request, res.getBody());
+        if (res.getStatusCode().is2xxSuccessful()) {
+            pushDelta(session, request, tag.getId() == 0 ? null : EventDelta.ofTag(tag));
+        }
     }
 
 
@@ -237,34 +325,207 @@ public class WebSocketHandler extends TextWebSocketHandler {
     private void updateClients(WebSocketSession session,
             WebSocketMessage request) throws IOException {
         if (connectionToEvent.containsKey(session) && !Objects.equals(request.getMethod(), "GET")) {
-            WebSocketMessage toUpdate = new WebSocketMessage();
-            toUpdate.setEndpoint("events/refresh");
-            TextMessage convMessage = new TextMessage(objectMapper.writeValueAsString(toUpdate));
             String inviteCode = connectionToEvent.get(session);
-            for (WebSocketSession ses : sessions) {
-                if (connectionToEvent.containsKey(ses)
-                        && connectionToEvent.get(ses).equals(inviteCode)
-                        && (ses != session || "DELETE".equals(request.getMethod()))) {
-                    ses.sendMessage(convMessage);
+            // Dropped before the refresh goes out, the clients re-fetch the mutated event
+            eventSnapshotService.invalidate(inviteCode);
+            Set<WebSocketSession> subscribers = eventToSessions.get(inviteCode);
+            if (subscribers == null) {
+                return;
+            }
+            for (WebSocketSession ses : subscribers) {
+                if (ses != session || "DELETE".equals(request.getMethod())) {
+                    sendRefresh(ses, refreshMessage);
+                }
+            }
+        }
+    }
+
+    /**
+     * Refreshes every client looking at an event whose expenses were compacted, once the
+     * compaction is committed. The expenses are compacted when a debt is received.
+     *
+     * @param compacted the compacted event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void expensesCompacted(ExpensesCompacted compacted) {
+        String inviteCode = compacted.inviteCode();
+        eventSnapshotService.invalidate(inviteCode);
+        for (WebSocketSession ses : eventToSessions.getOrDefault(inviteCode, Set.of())) {
+            sendRefresh(ses, refreshMessage);
+        }
+    }
+
+    /**
+     * Sends a change to every client looking at the same event as the current one, including
+     * the current client so its numbering of the changes has no gaps
+     *
+     * @param session the session of the current user
+     * @param request the request from the current user
+     * @param delta   the change, or null if the clients have to refresh the whole event
+     * @throws IOException if the object mapper fails
+     */
+    private void pushDelta(WebSocketSession session, WebSocketMessage request,
+            EventDelta delta) throws IOException {
+        String inviteCode = connectionToEvent.get(session);
+        if (delta == null || inviteCode == null) {
+            updateClients(session, request);
+            return;
+        }
+        eventSnapshotService.invalidate(inviteCode);
+        delta.setInviteCode(inviteCode);
+        AtomicLong version = eventVersion(inviteCode);
+        synchronized (version) {
+            delta.setVersion(version.incrementAndGet());
+            WebSocketMessage message = new WebSocketMessage();
+            message.setEndpoint("events/delta");
+            message.setData(delta);
+            TextMessage encoded = new TextMessage(objectMapper.writeValueAsString(message));
+            for (WebSocketSession ses : eventToSessions.getOrDefault(inviteCode, Set.of())) {
+                try {
+                    outbound(ses).sendMessage(encoded);
+                } catch (IOException | SessionLimitExceededException e) {
+                    System.err.println("Could not update client " + ses.getId()
+                        + ": " + e.getMessage());
                 }
             }
         }
     }
 
+    private AtomicLong eventVersion(String inviteCode) {
+        AtomicLong version = eventVersions.get(inviteCode);
+        if (version != null) {
+            return version;
+        }
+        // Read outside the map, so other events are not blocked on the database
+        long start = eventRepository.findLastUpdateTimeByInviteCode(inviteCode)
+            .map(time -> time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000)
+            .orElse(0L);
+        AtomicLong started = new AtomicLong(start);
+        version = eventVersions.putIfAbsent(inviteCode, started);
+        return version == null ? started : version;
+    }
+
+    /**
+     * Queues a refresh for a client, a client that can not keep up is disconnected by its
+     * outbound session and must not keep the others from being refreshed
+     *
+     * @param session the client session
+     * @param refresh the refresh message
+     */
+    private void sendRefresh(WebSocketSession session, TextMessage refresh) {
+        try {
+            outbound(session).sendRefresh(refresh);
+        } catch (IOException | SessionLimitExceededException e) {
+            System.err.println("Could not refresh client " + session.getId()
+                + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the buffered sending side of a client session
+     *
+     * @param session the client session
+     * @return the outbound session
+     */
+    private OutboundSession outbound(WebSocketSession session) {
+        return outbound.computeIfAbsent(session,
+            ses -> new OutboundSession(ses, sendTimeLimit, bufferSizeLimit));
+    }
+
+    /**
+     * Gets the counters of the messages waiting to be sent to the clients
+     *
+     * @return the metrics
+     */
+    public OutboundMetrics getOutboundMetrics() {
+        long queued = 0;
+        long bufferedBytes = 0;
+        int maxQueueDepth = 0;
+        long coalesced = 0;
+        for (OutboundSession session : outbound.values()) {
+            queued += session.getQueueDepth();
+            bufferedBytes += session.getBufferSize();
+            maxQueueDepth = Math.max(maxQueueDepth, session.getQueueDepth());
+            coalesced += session.getCoalescedRefreshes();
+        }
+        return new OutboundMetrics(outbound.size(), queued, bufferedBytes, maxQueueDepth,
+            coalesced);
+    }
+
+    /**
+     * Counters of the messages waiting to be sent to the clients
+     *
+     * @param sessions           number of open client sessions
+     * @param queuedMessages     number of messages waiting over all sessions
+     * @param bufferedBytes      number of bytes waiting over all sessions
+     * @param maxQueueDepth      number of messages waiting for the slowest session
+     * @param coalescedRefreshes number of refreshes merged into an already waiting one
+     */
+    public record OutboundMetrics(int sessions, long queuedMessages, long bufferedBytes,
+                                  int maxQueueDepth, long coalescedRefreshes) {
+    }
+
     /**
      * Process the special requests from the client
      * 
      * @param session the client session used to identify the client
      * @param request the request message
+     * @throws IOException if the object mapper fails
      */
-    private void handleClientUpdate(WebSocketSession session, WebSocketMessage request) {
+    private void handleClientUpdate(WebSocketSession session, WebSocketMessage request)
+            throws IOException {
         if (Objects.equals(request.getEndpoint(), "api/client")) {
-            if ("POST".equals(request.getMethod())) {
-                connectionToEvent.put(session, (String) request.getData());
+            if ("POST".equals(request.getMethod()) && request.getData() != null) {
+                String inviteCode = Event.normalizeInviteCode((String) request.getData());
+                AtomicLong version = eventVersion(inviteCode);
+                long seen;
+                // Not while a delta is sent, the client gets either the delta or its number
+                synchronized (version) {
+                    subscribe(inviteCode, session);
+                    seen = version.get();
+                }
+                // Deltas after this version are the ones the client has not seen yet
+                returnResult(session, request, seen);
             }
         }
     }
 
+    /**
+     * Moves a client to the index of the event it is looking at
+     *
+     * @param inviteCode the invite code of the event
+     * @param session    the client session
+     */
+    private void subscribe(String inviteCode, WebSocketSession session) {
+        String previous = connectionToEvent.put(session, inviteCode);
+        if (previous != null && !previous.equals(inviteCode)) {
+            unsubscribe(previous, session);
+        }
+        eventToSessions.compute(inviteCode, (code, subscribers) -> {
+            Set<WebSocketSession> set =
+                subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            set.add(session);
+            return set;
+        });
+    }
+
+    /**
+     * Removes a client from the index of an event, dropping the entry once it is empty
+     *
+     * @param inviteCode the invite code of the event
+     * @param session    the client session
+     */
+    private void unsubscribe(String inviteCode, WebSocketSession session) {
+        eventToSessions.computeIfPresent(inviteCode, (code, subscribers) -> {
+            subscribers.remove(session);
+            if (subscribers.isEmpty()) {
+                eventVersions.remove(code);
+                return null;
+            }
+            return subscribers;
+        });
+    }
+
     private void handleEventsApi(WebSocketSession session,
             WebSocketMessage request) throws Exception {
         String endpoint = request.getEndpoint();
@@ -273,7 +534,6 @@ public class WebSocketHandler extends TextWebSocketHandler {
         switch (endpoint) {
             case "api/events" -> handleEventsEndpoint(session, request, method);
             case "api/events/id" -> handleEventsByIdEndpoint(session, request, method);
-            case "api/events/jsonDump" -> handleJsonDumpApi(session, request);
         }
     }
 
@@ -313,9 +573,10 @@ public class WebSocketHandler extends TextWebSocketHandler {
     private void handleGetEvents(WebSocketSession session,
             WebSocketMessage request) throws Exception {
         String authHeader = request.getAuthHeader();
-        ResponseEntity<List<Event>> events = eventController.getAll(authHeader);
+        ResponseEntity<List<Event>> events = eventController.getAll(authHeader,
+            pageLimit(request, 0), pageCursor(request, 0));
         if (events != null) {
-            returnResult(session, request, events.getBody());
+            returnPage(session, request, events);
         }
     }
 
@@ -324,8 +585,9 @@ public class WebSocketHandler extends TextWebSocketHandler {
         List<Object> parameters = request.getParameters();
         String id = (String) parameters.get(0);
 
-        ResponseEntity<Event> event = eventController.getById(id);
-        returnResult(session, request, event.getBody());
+        // Served from the serialized snapshot, most of these requests follow a refresh
+        RawValue event = eventSnapshotService.getSnapshot(id).map(RawValue::new).orElse(null);
+        returnResult(session, request, event);
     }
 
     private void handleDeleteEventById(WebSocketSession session, WebSocketMessage request)
@@ -335,21 +597,13 @@ public class WebSocketHandler extends TextWebSocketHandler {
         String auth = request.getAuthHeader();
 
         ResponseEntity<String> deletedEvent = eventController.delete(id, auth);
+        if (deletedEvent.getStatusCode().is2xxSuccessful() && id != null) {
+            eventVersions.remove(Event.normalizeInviteCode(id));
+        }
         returnResult(session, request, deletedEvent.getBody());
         return;
     }
 
-    private void handleJsonDumpApi(WebSocketSession session,
-            WebSocketMessage request) throws Exception {
-        if ("GET".equals(request.getMethod())) {
-            String authHeader = request.getAuthHeader();
-            ResponseEntity<String> jsonDumpResponse = eventController.getJsonDump(authHeader);
-            if (jsonDumpResponse.getStatusCode().is2xxSuccessful()) {
-                this.returnResult(session, request, jsonDumpResponse.getBody());
-            }
-        }
-    }
-
     /**
      * Handles the event specific to /api/admin
      * 
@@ -389,8 +643,8 @@ public class WebSocketHandler extends TextWebSocketHandler {
         switch (request.getEndpoint()) {
             case "api/participants" -> {
                 if ("GET".equals(request.getMethod())) {
-                    List<Participant> all = participantController.getAll();
-                    this.returnResult(session, request, all);
+                    this.returnPage(session, request, participantController.getAll(
+                        pageLimit(request, 0), pageCursor(request, 0)));
                 } else if ("POST".equals(request.getMethod())) {
                     Participant p = objectMapper.convertValue(request.getData(), Participant.class);
                     ResponseEntity<Participant> response = participantController.add(p);
@@ -424,6 +678,10 @@ public class WebSocketHandler extends TextWebSocketHandler {
             ResponseEntity<String> response = participantController.update(
                     oldParticipant.getId(), newParticipant);
             this.returnResult(session, request, response.getBody());
+            if (response.getStatusCode().is2xxSuccessful()) {
+                newParticipant.setId(oldParticipant.getId());
+                pushDelta(session, request, EventDelta.ofParticipant(newParticipant));
+            }
         } else if ("GET".equals(request.getMethod())) {
             long id = objectMapper.convertValue(request.getData(), Long.class);
             ResponseEntity<Participant> response = participantController.getById(id);
@@ -442,10 +700,49 @@ public class WebSocketHandler extends TextWebSocketHandler {
      */
     private void returnResult(WebSocketSession session,
             WebSocketMessage request, Object obj) throws IOException {
+        returnResult(session, request, obj, null);
+    }
+
+    private void returnResult(WebSocketSession session, WebSocketMessage request, Object obj,
+            List<Object> parameters) throws IOException {
         WebSocketMessage messageBack = new WebSocketMessage();
         messageBack.setId(request.getId());
         messageBack.setData(obj);
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(messageBack)));
+        messageBack.setParameters(parameters);
+        outbound(session).sendMessage(
+            new TextMessage(objectMapper.writeValueAsString(messageBack)));
+    }
+
+    /**
+     * Returns a list, and the cursor of its next page as the only parameter if it is a page
+     * that is followed by others
+     *
+     * @param session the channel used to communicate
+     * @param request the parsed request
+     * @param list    the response holding the list
+     * @throws IOException if the message can't be parsed
+     */
+    private void returnPage(WebSocketSession session, WebSocketMessage request,
+            ResponseEntity<? extends List<?>> list) throws IOException {
+        String next = list.getHeaders().getFirst(Keyset.NEXT_CURSOR);
+        returnResult(session, request, list.getBody(), next == null ? null : List.of(next));
+    }
+
+    // The limit and the cursor of a list request follow the parameters of the list itself
+    private Integer pageLimit(WebSocketMessage request, int index) {
+        List<Object> parameters = request.getParameters();
+        if (parameters == null || parameters.size() <= index) {
+            return null;
+        }
+        return objectMapper.convertValue(parameters.get(index), Integer.class);
+    }
+
+    private String pageCursor(WebSocketMessage request, int index) {
+        List<Object> parameters = request.getParameters();
+        if (parameters == null || parameters.size() <= index + 1) {
+            return null;
+        }
+        return objectMapper.convertValue(parameters.get(index + 1), String.class);
     }
 
     /**
@@ -453,6 +750,7 @@ public class WebSocketHandler extends TextWebSocketHandler {
      * @param ses session
      */
     public void setSession(List<WebSocketSession> ses) {
-        sessions = ses;
+        sessions.clear();
+        sessions.addAll(ses);
     }
 }
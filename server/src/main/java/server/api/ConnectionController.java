@@ -0,0 +1,30 @@
+package server.api;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import server.WebSocketHandler;
+
+@RestController
+@RequestMapping("/api/connections")
+public class ConnectionController {
+    private final WebSocketHandler webSocketHandler;
+
+    /**
+     * Creates a controller reporting on the websocket connections
+     *
+     * @param webSocketHandler the handler owning the connections
+     */
+    public ConnectionController(WebSocketHandler webSocketHandler) {
+        this.webSocketHandler = webSocketHandler;
+    }
+
+    /**
+     * Retrieves the counters of the messages waiting to be sent to the websocket clients
+     * @return the metrics
+     */
+    @GetMapping("/metrics")
+    public WebSocketHandler.OutboundMetrics getMetrics() {
+        return webSocketHandler.getOutboundMetrics();
+    }
+}
@@ -17,12 +17,15 @@ package server.api;
 
 import commons.Debt;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import org.springframework.web.context.request.async.DeferredResult;
 import server.DebtUpdateService;
+import server.Keyset;
 import server.services.DebtService;
+import server.services.ExpenseCompactionService;
 
 import java.util.List;
 import java.util.Optional;
@@ -33,24 +36,42 @@ import java.util.function.Consumer;
 public class DebtController {
     private final DebtUpdateService debtUpdateService;
     private final DebtService debtService;
+    private final ExpenseCompactionService compaction;
     /**
      * Constructs a DebtController with the specified random generator and debt repository.
      *
      * @param debtUpdateService An instance of the debt update service
      * @param debtService       An instance of DebtService for accessing debt operations.
+     * @param compaction        The service removing settled participants from expenses.
      */
-    public DebtController(DebtUpdateService debtUpdateService, DebtService debtService) {
+    public DebtController(DebtUpdateService debtUpdateService, DebtService debtService,
+                          ExpenseCompactionService compaction) {
         this.debtService = debtService;
         this.debtUpdateService = debtUpdateService;
+        this.compaction = compaction;
     }
 
     /**
-     * Retrieves all debts.
-     * @return A list of Debt objects representing all debts.
+     * Retrieves all debts. Given a limit or a cursor, only a page of the debts ordered by id
+     * is retrieved, with the cursor of the next page in the {@link Keyset#NEXT_CURSOR} header.
+     * @param limit The number of debts on a page, or null.
+     * @param after The cursor of the page, or null for the first page.
+     * @return A list of Debt objects, or 400 if the page is invalid.
      */
     @GetMapping(path = { "", "/" })
-    public List<Debt> getAll() {
-        return debtService.getAllDebts();
+    public ResponseEntity<List<Debt>> getAll(
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "after", required = false) String after) {
+        if (!Keyset.isPaged(limit, after)) {
+            return ResponseEntity.ok(debtService.getAllDebts());
+        }
+        try {
+            int size = Keyset.limit(limit);
+            return Keyset.page(debtService.getDebtsAfter(Keyset.afterId(after), size), size,
+                Debt::getId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -121,26 +142,31 @@ public class DebtController {
     }
 
     /**
-     * Notifies awaiting request that open debts for event needs to be refreshed
+     * Removes the participants the received debt settled from the expenses of the event,
+     * in one transaction, and notifies awaiting request that open debts for event needs to
+     * be refreshed. Receiving a debt is the only time participants become settled, so the
+     * expenses are compacted here rather than on every expense write.
      * @param eventId the event id
      * @return status 200 if everything went well
      */
     @PostMapping("/{eventId}/received")
     public ResponseEntity<Void> markDebtAsReceived(@PathVariable("eventId") String eventId) {
+        compaction.compact(eventId);
         debtUpdateService.notifyUpdate(eventId);
         return ResponseEntity.ok().build();
     }
 
     /**
-     * Long pools for any updates on open debt view
+     * Long pools for any updates on open debt view. The request does not hold a server thread
+     * while it waits, it is completed when the event is updated or the wait times out.
      * @param eventId the event invite code
-     * @return the status of the await
+     * @return the status of the await, 503 if too many clients are already waiting on the event
      */
     @PostMapping("/{eventId}/updates")
     public DeferredResult<ResponseEntity<?>> getDebtUpdates(
         @PathVariable("eventId") String eventId) {
         DeferredResult<ResponseEntity<?>> deferredResult =
-            new DeferredResult<>(30 * 60 * 1000L);
+            new DeferredResult<>(30 * 60 * 1000L, () -> ResponseEntity.noContent().build());
 
         Consumer<String> listener = update -> {
             if (update != null) {
@@ -154,7 +180,18 @@ public class DebtController {
             debtUpdateService.removeUpdateListener(eventId, listener);
         });
 
-        debtUpdateService.waitForUpdate(eventId, listener);
+        if (!debtUpdateService.subscribe(eventId, listener)) {
+            deferredResult.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
         return deferredResult;
     }
+
+    /**
+     * Retrieves the counters of the requests waiting for open debt updates
+     * @return the metrics
+     */
+    @GetMapping("/updates/metrics")
+    public DebtUpdateService.Metrics getUpdateMetrics() {
+        return debtUpdateService.getMetrics();
+    }
 }
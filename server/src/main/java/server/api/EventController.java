@@ -1,80 +1,148 @@
 package server.api;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import commons.Debt;
 import commons.Event;
+import commons.EventSummary;
+import commons.ImportResult;
+import commons.ParticipantBalance;
+import commons.SettlementMethod;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import server.Keyset;
+import server.services.BalanceLedgerService;
+import server.services.EventExportService;
+import server.services.EventImportService;
+import server.services.SettlementService;
 
 @RestController
 @RequestMapping("/api/events")
 public class EventController {
 
     private final server.services.EventService eventService;
+    private final SettlementService settlementService;
+    private final BalanceLedgerService balanceLedger;
+    private final EventExportService eventExport;
+    private final EventImportService eventImport;
 
     /**
      * Create a new event controller. This controller contains all api endpoints that have to do
      * with events.
      *
      * @param eventService event Service
+     * @param settlementService settlement Service
+     * @param balanceLedger balance ledger Service
+     * @param eventExport event export Service
+     * @param eventImport event import Service
      */
-    public EventController(server.services.EventService eventService) {
+    public EventController(server.services.EventService eventService,
+                           SettlementService settlementService,
+                           BalanceLedgerService balanceLedger,
+                           EventExportService eventExport,
+                           EventImportService eventImport) {
         this.eventService = eventService;
+        this.settlementService = settlementService;
+        this.balanceLedger = balanceLedger;
+        this.eventExport = eventExport;
+        this.eventImport = eventImport;
     }
 
     /**
-     * API Endpoint for getting a list of all events.
+     * API Endpoint for getting a list of all events. Given a limit or a cursor, only a page
+     * of the events ordered by invite code is returned, with the cursor of the next page in
+     * the {@link Keyset#NEXT_CURSOR} header.
      *
      * @param auth The authorization header.
-     * @return a list of all events.
+     * @param limit The number of events on a page, or null.
+     * @param after The cursor of the page, or null for the first page.
+     * @return a list of the events, or 400 if the page is invalid or the request is not
+     *         authenticated.
      */
     @GetMapping(path = {"", "/"})
     public ResponseEntity<List<Event>> getAll(
-            @RequestHeader(HttpHeaders.AUTHORIZATION) String auth) {
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String auth,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "after", required = false) String after) {
         // This is a protected API endpoint.
-        List<Event> events = eventService.getAllEvents();
         if (!eventService.isAuthenticated(auth)) {
             return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.ok(events);
+        if (!Keyset.isPaged(limit, after)) {
+            return ResponseEntity.ok(eventService.getAllEvents());
+        }
+        try {
+            int size = Keyset.limit(limit);
+            return Keyset.page(eventService.getEventsAfter(Keyset.afterKey(after), size), size,
+                Event::getInviteCode);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * API Endpoint for getting a page of event summaries, newest first.
+     *
+     * @param auth The authorization header.
+     * @param page The number of the page, starting at 0.
+     * @param size The number of summaries on a page, at most 500.
+     * @return the summaries on the page, or 400 if the page is invalid or the request is
+     *         not authenticated.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<List<EventSummary>> getSummaries(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String auth,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "50") int size) {
+        // This is a protected API endpoint.
+        if (!eventService.isAuthenticated(auth) || page < 0 || size < 1 || size > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(eventService.getEventSummaries(page, size));
     }
 
     /**
-     * API Endpoint for getting a JSON dump of all events.
+     * API Endpoint for getting a JSON dump of all events. The dump is streamed while the
+     * events are read, and compressed if the client accepts gzip.
      * @param auth authorization token obtained from the request header.
-     * @return ResponseEntity with the JSON dump in the response body.
+     * @param acceptEncoding the encodings the client accepts, may be null.
+     * @return ResponseEntity streaming the JSON dump, or 401 if the request is not
+     *         authenticated.
      */
     @GetMapping("/jsonDump")
-    public ResponseEntity<String> getJsonDump(
-            @RequestHeader(HttpHeaders.AUTHORIZATION) String auth) {
-        if(eventService.isAuthenticated(auth)) {
-            List<Event> events = eventService.getAllEvents();
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.registerModule(new JavaTimeModule());
-            try {
-                String jsonDump = objectMapper.writeValueAsString(events);
-                HttpHeaders headers = new HttpHeaders();
-                headers.add(HttpHeaders.AUTHORIZATION, auth);
-                // headers.add(HttpHeaders.CONTENT_TYPE, "application/json");
-                // headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment;
-                // filename=events_dump.json");
-                // headers.add("Access-Control-Expose-Headers", "Content-Disposition");
-                return ResponseEntity.ok().headers(headers).body(jsonDump); // .headers(headers)
-            } catch (JsonProcessingException e) {
-                // TODO log error
-                return ResponseEntity.status(500).body("Error generating JSON dump");
-            }
+    public ResponseEntity<StreamingResponseBody> getJsonDump(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String auth,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding) {
+        if (!eventService.isAuthenticated(auth)) {
+            return ResponseEntity.status(401).build();
+        }
+        if (acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+            StreamingResponseBody plain = eventExport::export;
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(plain);
         }
-        return ResponseEntity.status(401).body("Unauthorized");
+        StreamingResponseBody compressed = out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out);
+            eventExport.export(gzip);
+            gzip.finish();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+            .body(compressed);
     }
 
     /**
@@ -92,6 +160,34 @@ public class EventController {
                 .orElseGet(() -> ResponseEntity.badRequest().build());
     }
 
+    /**
+     * API Endpoint for getting the minimized debts that settle an event.
+     *
+     * @param id The ID of the event to settle.
+     * @param method The settlement method to use, defaults to the one chosen for the event.
+     * @return the debts settling the event, or a 404 error if the event does not exist.
+     */
+    @GetMapping("/{id}/settlement")
+    public ResponseEntity<List<Debt>> getSettlement(@PathVariable("id") String id,
+            @RequestParam(name = "method", required = false) SettlementMethod method) {
+        return settlementService.getSettlement(id, method).map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * API Endpoint for getting the net balance of every participant of an event.
+     *
+     * @param id The ID of the event.
+     * @return the balances of the event, or a 404 error if the event does not exist.
+     */
+    @GetMapping("/{id}/balances")
+    public ResponseEntity<List<ParticipantBalance>> getBalances(@PathVariable("id") String id) {
+        if (!eventService.exists(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(balanceLedger.getBalanceRows(id));
+    }
+
     /**
      * Create a new Event.
      *
@@ -109,26 +205,55 @@ public class EventController {
     }
 
     /**
-     * endpoint for adding or importing events.
+     * endpoint for adding or importing events. The events are saved in chunks, a chunk that
+     * fails is rolled back without affecting the others.
      * @param events array of Event objects to be added or imported.
      * @param auth authorization token provided in the request header.
-     * @return responseEntity containing a list of added or
-     * imported events if authentication is successful,
+     * @return responseEntity containing what happened to every event, in the same order,
+     * if authentication is successful,
      * else returns ResponseEntity with status code 401 (Unauthorized).
      */
     @PostMapping("/import")
-    public ResponseEntity<List<Event>> addEvents(@RequestBody Event[] events,
+    public ResponseEntity<List<ImportResult>> addEvents(@RequestBody Event[] events,
             @RequestHeader(HttpHeaders.AUTHORIZATION) String auth) {
         if(eventService.isAuthenticated(auth)) {
             if (events == null) {
                 return ResponseEntity.badRequest().build();
             }
-            List<Event> eventList = eventService.saveEvents(events);
-            return ResponseEntity.ok(eventList);
+            return ResponseEntity.ok(eventImport.importEvents(Arrays.asList(events)));
         }
         return ResponseEntity.status(401).build();
     }
 
+    /**
+     * endpoint for importing a stream of events as newline delimited JSON, optionally gzip
+     * compressed. The events are saved while the body is read, so a dump of any size can be
+     * imported.
+     * @param auth authorization token provided in the request header.
+     * @param contentEncoding the encoding of the body, gzip or none.
+     * @param body the events, one JSON object per line.
+     * @return responseEntity containing what happened to every event that was not imported,
+     * with the number of imported events in the {@link EventImportService#IMPORTED_COUNT}
+     * header, or status code 401 (Unauthorized) if the request is not authenticated.
+     * @throws IOException if reading the body failed.
+     */
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<ImportResult>> importStream(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String auth,
+            @RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false)
+            String contentEncoding, InputStream body) throws IOException {
+        if (!eventService.isAuthenticated(auth)) {
+            return ResponseEntity.status(401).build();
+        }
+        InputStream events = "gzip".equalsIgnoreCase(contentEncoding)
+            ? new GZIPInputStream(body) : body;
+        List<ImportResult> rejected = new ArrayList<>();
+        long imported = eventImport.importStream(events, rejected);
+        return ResponseEntity.ok()
+            .header(EventImportService.IMPORTED_COUNT, String.valueOf(imported))
+            .body(rejected);
+    }
+
     /**
      * Update a pre-existing event
      *
@@ -162,6 +287,8 @@ public class EventController {
         if (optional.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
+        balanceLedger.clear(id);
+        settlementService.invalidate(id);
         return ResponseEntity.ok("Deleted");
     }
 
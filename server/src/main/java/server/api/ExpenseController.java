@@ -1,13 +1,13 @@
 package server.api;
 
-import commons.Event;
 import commons.Expense;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import server.database.EventRepository;
+import server.Keyset;
 import server.database.ExpenseRepository;
+import server.services.ExpenseService;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,34 +16,56 @@ import java.util.Optional;
 @RequestMapping("/api/expenses")
 public class ExpenseController {
     private final ExpenseRepository repo;
-    private final EventRepository eventRepo;
+    private final ExpenseService expenseService;
 
     /**
      * Create a new expenses controller. This controller manages expenses for events
      *
-     * @param repo      The expense repository
-     * @param eventRepo The event repository
+     * @param repo           The expense repository
+     * @param expenseService The service writing expenses and the balances of their event
      */
-    public ExpenseController(ExpenseRepository repo, EventRepository eventRepo) {
+    public ExpenseController(ExpenseRepository repo, ExpenseService expenseService) {
         this.repo = repo;
-        this.eventRepo = eventRepo;
+        this.expenseService = expenseService;
     }
 
     /**
-     * Get all the expenses belonging to an event
+     * Get all the expenses belonging to an event. Given a limit or a cursor, only a page of
+     * the expenses ordered by id is returned, with the cursor of the next page in the
+     * {@link Keyset#NEXT_CURSOR} header.
      * 
      * @param eventId The id of the event containing the expenses
-     * @return The expenses belonging to the provided event or 404 if empty
+     * @param limit   The number of expenses on a page, or null
+     * @param after   The cursor of the page, or null for the first page
+     * @return The expenses belonging to the provided event, 404 if there are none and no
+     *         page was asked for, or 400 if the page is invalid
      */
     @GetMapping("/by_event/{id}")
-    public ResponseEntity<List<Expense>> getByEvent(@PathVariable("id") String eventId) {
-        List<Expense> expenses = repo.getExpensesByEventInviteCode(eventId);
+    public ResponseEntity<List<Expense>> getByEvent(@PathVariable("id") String eventId,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "after", required = false) String after) {
+        if (Keyset.isPaged(limit, after)) {
+            return getPageByEvent(eventId, limit, after);
+        }
+        List<Expense> expenses = expenseService.getExpensesByEvent(eventId);
         if (expenses == null || expenses.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         return ResponseEntity.ok(expenses);
     }
 
+    private ResponseEntity<List<Expense>> getPageByEvent(String eventId, Integer limit,
+                                                         String after) {
+        try {
+            int size = Keyset.limit(limit);
+            List<Expense> expenses = expenseService.getExpensePageByEvent(eventId,
+                Keyset.afterId(after), Keyset.fetch(size));
+            return Keyset.page(expenses, size, Expense::getId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Create a new expense, supplying the event id in the URL
      * 
@@ -59,9 +81,7 @@ public class ExpenseController {
                 || newExpense.getAmount() == null) {
             return ResponseEntity.badRequest().body("POSTed expense is incomplete");
         }
-        Event event = eventRepo.getReferenceById(eventId);
-        newExpense.setEvent(event);
-        repo.save(newExpense);
+        expenseService.addExpense(eventId, newExpense);
         return ResponseEntity.noContent().build();
     }
 
@@ -78,7 +98,7 @@ public class ExpenseController {
                 || newExpense.getEvent() == null || newExpense.getAmount() == null) {
             return ResponseEntity.badRequest().body("POSTed expense is incomplete");
         }
-        repo.save(newExpense);
+        expenseService.addExpense(newExpense);
         return ResponseEntity.noContent().build();
     }
 
@@ -116,48 +136,14 @@ public class ExpenseController {
         if (id < 0) {
             return ResponseEntity.badRequest().build();
         }
-        Expense oldExpense;
-        try {
-            Optional<Expense> wrapped = repo.findById(id);
-            if (!wrapped.isPresent()) {
-                return ResponseEntity.notFound().build();
-            }
-            oldExpense = wrapped.orElse(null);
-        } catch (EntityNotFoundException e) {
-            return ResponseEntity.notFound().build();
-        }
-        updateExpense(expense, oldExpense);
         if (expense.getEvent() != null) {
             return ResponseEntity
                 .badRequest()
                 .body("Cannot change event of expense, delete this and create a new one instead");
         }
-        return ResponseEntity.ok(repo.save(oldExpense));
-    }
-
-    /**
-     * Updates the old expense
-     * 
-     * @param expense    the new expense
-     * @param oldExpense the old expense
-     */
-    private static void updateExpense(Expense expense, Expense oldExpense) {
-        if (expense.getAmount() != null) {
-            oldExpense.setAmount(expense.getAmount());
-        }
-        if (expense.getSplitBetween() != null && !expense.getSplitBetween().isEmpty()) {
-            oldExpense.setSplitBetween(expense.getSplitBetween());
-        }
-        if (expense.getName() != null) {
-            oldExpense.setName(expense.getName());
-        }
-        if (expense.getCreator() != null) {
-            oldExpense.setReceiver(expense.getCreator());
-        }
-        if (expense.getDate() != null) {
-            oldExpense.setDate(expense.getDate());
-        }
-        oldExpense.setTags(expense.getTags());
+        Optional<Expense> saved = expenseService.updateExpense(id, expense);
+        return saved.<ResponseEntity<Object>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
@@ -172,10 +158,9 @@ public class ExpenseController {
         if (id < 0) {
             return ResponseEntity.badRequest().build();
         }
-        if (!repo.existsById(id)) {
+        if (expenseService.deleteExpense(id).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        repo.deleteById(id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import server.database.EventRepository;
 import server.database.ExpenseTypeRepository;
+import server.services.EventSnapshotService;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,16 +17,20 @@ import java.util.Optional;
 public class ExpenseTypeController {
     private final ExpenseTypeRepository repo;
     private final EventRepository eventRepo;
+    private final EventSnapshotService eventSnapshotService;
 
     /**
      * Create a new expense type controller. This controller manages expense types for events
      *
-     * @param repo      The expense typerepository
-     * @param eventRepo The event repository
+     * @param repo                 The expense typerepository
+     * @param eventRepo            The event repository
+     * @param eventSnapshotService The service caching the JSON of every event
      */
-    public ExpenseTypeController(ExpenseTypeRepository repo, EventRepository eventRepo) {
+    public ExpenseTypeController(ExpenseTypeRepository repo, EventRepository eventRepo,
+                                 EventSnapshotService eventSnapshotService) {
         this.repo = repo;
         this.eventRepo = eventRepo;
+        this.eventSnapshotService = eventSnapshotService;
     }
 
     /**
@@ -41,9 +46,10 @@ public class ExpenseTypeController {
         if (newExpenseType == null) {
             return ResponseEntity.badRequest().body("POSTed expense is incomplete");
         }
-        Event event = eventRepo.getReferenceById(eventId);
+        Event event = eventRepo.getReferenceById(Event.normalizeInviteCode(eventId));
         newExpenseType.setEvent(event);
         repo.save(newExpenseType);
+        eventSnapshotService.touch(eventId);
         return ResponseEntity.noContent().build();
     }
 
@@ -55,7 +61,8 @@ public class ExpenseTypeController {
      */
     @GetMapping("/by_event/{id}")
     public ResponseEntity<List<ExpenseType>> getByEvent(@PathVariable("id") String eventId) {
-        List<ExpenseType> tags = repo.getExpenseTypesByEventInviteCode(eventId);
+        List<ExpenseType> tags =
+            repo.getExpenseTypesByEventInviteCode(Event.normalizeInviteCode(eventId));
         if (tags == null || tags.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -84,7 +91,9 @@ public class ExpenseTypeController {
             return ResponseEntity.notFound().build();
         }
         updateTag(tag, oldExpenseType);
-        return ResponseEntity.ok(repo.save(oldExpenseType));
+        ExpenseType saved = repo.save(oldExpenseType);
+        touchEvent(oldExpenseType.getEvent());
+        return ResponseEntity.ok(saved);
 
     }
 
@@ -114,11 +123,21 @@ public class ExpenseTypeController {
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
+        // Read first, deleting the tag takes it out of its event
+        Event event = oldExpenseType.getEvent();
         deleteTag(oldExpenseType);
-        return ResponseEntity.ok(repo.save(oldExpenseType));
+        ExpenseType saved = repo.save(oldExpenseType);
+        touchEvent(event);
+        return ResponseEntity.ok(saved);
 
     }
 
+    private void touchEvent(Event event) {
+        if (event != null) {
+            eventSnapshotService.touch(event.getInviteCode());
+        }
+    }
+
     private void deleteTag(ExpenseType oldExpenseType) {
         oldExpenseType.setEvent(null);
     }
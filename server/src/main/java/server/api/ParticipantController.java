@@ -4,7 +4,9 @@ import commons.Participant;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import server.Keyset;
 import server.services.ParticipantService;
+import server.services.SettlementService;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,24 +15,43 @@ import java.util.Optional;
 @RequestMapping("/api/participants")
 public class ParticipantController {
     private final ParticipantService participantService;
+    private final SettlementService settlementService;
 
     /**
      * Create a new participant controller.
      * This controller contains all api endpoints that have to do with participants.
      *
-     * @param participantService
+     * @param participantService the service managing participants
+     * @param settlementService the service caching the settlement of every event
      */
-    public ParticipantController(ParticipantService participantService) {
+    public ParticipantController(ParticipantService participantService,
+                                 SettlementService settlementService) {
         this.participantService = participantService;
+        this.settlementService = settlementService;
     }
 
     /**
-     * Gets all participant rows in our database
-     * @return the list of admins
+     * Gets all participant rows in our database. Given a limit or a cursor, only a page of
+     * the participants ordered by id is returned, with the cursor of the next page in the
+     * {@link Keyset#NEXT_CURSOR} header.
+     * @param limit the number of participants on a page, or null
+     * @param after the cursor of the page, or null for the first page
+     * @return the list of participants, or 400 if the page is invalid
      */
     @GetMapping(path = { "", "/" })
-    public List<Participant> getAll() {
-        return participantService.getAllParticipants();
+    public ResponseEntity<List<Participant>> getAll(
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "after", required = false) String after) {
+        if (!Keyset.isPaged(limit, after)) {
+            return ResponseEntity.ok(participantService.getAllParticipants());
+        }
+        try {
+            int size = Keyset.limit(limit);
+            return Keyset.page(participantService.getParticipantsAfter(Keyset.afterId(after),
+                size), size, Participant::getId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -54,6 +75,7 @@ public class ParticipantController {
     @PostMapping(path = { "", "/" })
     public ResponseEntity<Participant> add(@RequestBody Participant participant) {
         Optional<Participant> optional = participantService.createParticipant(participant);
+        optional.ifPresent(saved -> settlementService.invalidateForParticipant(saved.getId()));
         return optional.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.badRequest().build());
     }
@@ -65,6 +87,9 @@ public class ParticipantController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<String> delete(@PathVariable("id") Long id) {
+        if (id != null) {
+            settlementService.invalidateForParticipant(id);
+        }
         Optional<Participant> optional = participantService.deleteParticipantById(id);
         if (optional.isEmpty()) {
             return ResponseEntity.badRequest().body("Can't delete the participant.");
@@ -83,8 +108,7 @@ public class ParticipantController {
     public ResponseEntity<String> update(@PathVariable("id") Long id,
                                          @RequestBody Participant updatedParticipant) {
         var participantOptional = participantService.getParticipantById(id);
-        if (!participantService.checkParticipantId(id)
-                || participantOptional.isEmpty())
+        if (participantOptional.isEmpty())
             return ResponseEntity.notFound().build();
         var existingParticipant = participantOptional.get();
 
@@ -93,6 +117,7 @@ public class ParticipantController {
             return ResponseEntity.badRequest().body("Invalid participant data.");
         }
         boolean ok = participantService.updateParticipant(existingParticipant, updatedParticipant);
+        settlementService.invalidateForParticipant(id);
         return ok
                 ? ResponseEntity
                 .ok("Participant updated successfully.")
@@ -0,0 +1,42 @@
+package server.database;
+
+import commons.ParticipantBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BalanceRepository extends JpaRepository<ParticipantBalance, Long> {
+    /**
+     * Get the balances of all participants of an event
+     * @param inviteCode The event id (invite code)
+     * @return The balances
+     */
+    List<ParticipantBalance> findByEventInviteCode(String inviteCode);
+
+    /**
+     * Adds an amount to the balance of a participant in an event
+     * @param inviteCode The event id (invite code)
+     * @param participantId The participant id
+     * @param delta The amount to add, negative to subtract
+     * @return The number of updated rows, 0 if the participant has no balance yet
+     */
+    @Modifying
+    @Query("update ParticipantBalance b set b.amount = b.amount + :delta "
+        + "where b.eventInviteCode = :inviteCode and b.participantId = :participantId")
+    int addToBalance(@Param("inviteCode") String inviteCode,
+                     @Param("participantId") long participantId,
+                     @Param("delta") long delta);
+
+    /**
+     * Delete the balances of an event
+     * @param inviteCode The event id (invite code)
+     */
+    @Modifying
+    @Query("delete from ParticipantBalance b where b.eventInviteCode = :inviteCode")
+    void deleteByEventInviteCode(@Param("inviteCode") String inviteCode);
+}
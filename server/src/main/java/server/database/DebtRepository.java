@@ -1,8 +1,19 @@
 package server.database;
 
 import commons.Debt;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface DebtRepository extends JpaRepository<Debt, Long> {}
+public interface DebtRepository extends JpaRepository<Debt, Long> {
+    /**
+     * Find the debts following an id, in the order of their ids
+     * @param id The id the debts follow
+     * @param pageable The number of debts to find
+     * @return The debts following the id
+     */
+    List<Debt> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+}
@@ -1,26 +1,176 @@
 package server.database;
 
 import commons.Event;
+import commons.Expense;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, String> {
 
     /**
-     * Find out if an event with the given invite code exists.
+     * Find which of the given invite codes are taken.
+     *
+     * @param inviteCodes The invite codes to check, normalized.
+     * @return the invite codes that are taken.
+     */
+    @Query("select e.inviteCode from Event e where e.inviteCode in :inviteCodes")
+    List<String> findExistingInviteCodes(@Param("inviteCodes") Collection<String> inviteCodes);
+
+    /**
+     * Find the invite codes of all events a participant takes part in.
+     *
+     * @param participantId The id of the participant.
+     * @return the invite codes of the events of the participant.
+     */
+    @Query("select e.inviteCode from Event e join e.participants p where p.id = :participantId")
+    List<String> findInviteCodesByParticipantId(@Param("participantId") long participantId);
+
+    /**
+     * Find the last update time of an event without loading the event.
+     *
+     * @param inviteCode The invite code of the event.
+     * @return the last update time, if the event exists.
+     */
+    @Query("select e.lastUpdateTime from Event e where e.inviteCode = :inviteCode")
+    Optional<LocalDateTime> findLastUpdateTimeByInviteCode(@Param("inviteCode") String inviteCode);
+
+    /**
+     * Find the headers of all events. The headers are not managed and hold no participants,
+     * tags or expenses, so only the event table is read.
+     *
+     * @return the headers of all events.
+     */
+    @Query("select new commons.Event(e.inviteCode, e.name, e.dateTime, e.creationTime, "
+        + "e.lastUpdateTime, e.settlementMethod) from Event e")
+    List<Event> findAllHeaders();
+
+    /**
+     * Find the headers of the events following an invite code, in the order of their
+     * invite codes.
+     *
+     * @param after The invite code the headers follow.
+     * @param pageable The number of headers to find.
+     * @return the headers following the invite code.
+     */
+    @Query("select new commons.Event(e.inviteCode, e.name, e.dateTime, e.creationTime, "
+        + "e.lastUpdateTime, e.settlementMethod) from Event e "
+        + "where e.inviteCode > :after order by e.inviteCode")
+    List<Event> findHeadersAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Find a page of event summaries. The counts and the total are computed by the database,
+     * without loading any participant or expense.
+     *
+     * @param pageable The page to find.
+     * @return the summaries on the page.
+     */
+    @Query(value = "select e.inviteCode as inviteCode, e.name as name, "
+        + "e.creationTime as creationTime, e.lastUpdateTime as lastUpdateTime, "
+        + "size(e.participants) as participantCount, "
+        + "(select count(x) from Expense x where x.event = e) as expenseCount, "
+        + "(select coalesce(sum(x.amount.internalValue), 0) from Expense x where x.event = e) "
+        + "as totalAmount from Event e",
+        countQuery = "select count(e) from Event e")
+    Page<EventSummaryView> findSummaries(Pageable pageable);
+
+    /**
+     * Find an event and lock its row until the transaction ends, so writes to the same event
+     * wait for each other.
+     *
+     * @param inviteCode The invite code of the event.
+     * @return the event, if it exists.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Event e where e.inviteCode = :inviteCode")
+    Optional<Event> lockByInviteCode(@Param("inviteCode") String inviteCode);
+
+    /**
+     * Find an event with its participants, leaving its tags and expenses unloaded.
+     *
+     * @param inviteCode The invite code of the event.
+     * @return the event, if it exists.
+     */
+    @EntityGraph(attributePaths = {"participants"})
+    Optional<Event> findWithParticipantsByInviteCode(String inviteCode);
+
+    /**
+     * Find an event with its expenses, leaving its participants and tags unloaded. Only one
+     * collection is fetched, fetching more in one query returns their cartesian product.
+     *
+     * @param inviteCode The invite code of the event.
+     * @return the event, if it exists.
+     */
+    @EntityGraph(attributePaths = {"expenses"})
+    Optional<Event> findWithExpensesByInviteCode(String inviteCode);
+
+    /**
+     * Find an event with everything it contains. The event is fetched with its expenses,
+     * the other collections are loaded in batches of default_batch_fetch_size.
+     *
+     * @param inviteCode The invite code of the event.
+     * @return the event, if it exists.
+     */
+    @Transactional(readOnly = true)
+    default Optional<Event> findFullByInviteCode(String inviteCode) {
+        Optional<Event> event = findWithExpensesByInviteCode(inviteCode);
+        event.ifPresent(EventRepository::initialize);
+        return event;
+    }
+
+    private static void initialize(Event event) {
+        Hibernate.initialize(event.getParticipants());
+        Hibernate.initialize(event.getTags());
+        for (Expense expense : event.getExpenses()) {
+            Hibernate.initialize(expense.getSplitBetween());
+            Hibernate.initialize(expense.getTags());
+        }
+    }
+
+    /**
+     * Find the invite codes of the events following an invite code that have participants
+     * but no balances, in the order of their invite codes.
      *
-     * @param inviteCode The invite code to check.
-     * @return true iff an event with the given invite code exists.
+     * @param after The invite code the events follow.
+     * @param pageable The number of invite codes to find.
+     * @return the invite codes following the invite code.
      */
-    boolean existsByInviteCodeEqualsIgnoreCase(String inviteCode);
+    @Query("select e.inviteCode from Event e where e.inviteCode > :after "
+        + "and e.participants is not empty and not exists "
+        + "(select b from ParticipantBalance b where b.eventInviteCode = e.inviteCode) "
+        + "order by e.inviteCode")
+    List<String> findInviteCodesWithoutBalancesAfter(@Param("after") String after,
+                                                     Pageable pageable);
 
     /**
-     * Find the first event with the given invite code.
+     * Stream all events through a database cursor. Their contents are loaded lazily while
+     * reading, so the stream must be consumed and closed inside a transaction. The events
+     * are not put in the second-level cache, a dump would evict everything else from it.
      *
-     * @param inviteCode The invite code to check.
-     * @return the event with the given invite code.
+     * @return the events, in the order of their invite codes.
      */
-    Event findFirstByInviteCodeEqualsIgnoreCase(String inviteCode);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "64"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("select e from Event e order by e.inviteCode")
+    Stream<Event> streamAll();
 }
@@ -0,0 +1,58 @@
+package server.database;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of an event on the fields of its summary, with the counts and the total
+ * computed by the query.
+ */
+public interface EventSummaryView {
+    /**
+     * Get the invite code of the event.
+     *
+     * @return the invite code.
+     */
+    String getInviteCode();
+
+    /**
+     * Get the name of the event.
+     *
+     * @return the name.
+     */
+    String getName();
+
+    /**
+     * Get the date and time the event was created.
+     *
+     * @return the creation time.
+     */
+    LocalDateTime getCreationTime();
+
+    /**
+     * Get the date and time the event was last updated.
+     *
+     * @return the last update time.
+     */
+    LocalDateTime getLastUpdateTime();
+
+    /**
+     * Get the number of participants in the event.
+     *
+     * @return the participant count.
+     */
+    long getParticipantCount();
+
+    /**
+     * Get the number of expenses in the event.
+     *
+     * @return the expense count.
+     */
+    long getExpenseCount();
+
+    /**
+     * Get the sum of the amounts of the expenses in the event, in the minor unit.
+     *
+     * @return the total amount.
+     */
+    long getTotalAmount();
+}
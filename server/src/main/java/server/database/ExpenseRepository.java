@@ -1,17 +1,67 @@
 package server.database;
 
 import commons.Expense;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     /**
-     * Get all the expenses by an event's id
+     * Get all the expenses by an event's id, with the participants they are split between.
+     * Their tags are loaded in batches when they are first used, fetching two collections
+     * in one query would return a row for every pair of a participant and a tag.
      * @param inviteCode The event id (invite code)
      * @return The expenses
      */
+    @EntityGraph(attributePaths = "splitBetween")
     List<Expense> getExpensesByEventInviteCode(String inviteCode);
+
+    /**
+     * Get the ids of the expenses of an event following an id, in the order of their ids.
+     * Only the ids are paged, fetching the collections of the expenses along would make
+     * the database return every row of the event.
+     * @param inviteCode The event id (invite code)
+     * @param after The id the expenses follow
+     * @param pageable The number of ids to get
+     * @return The ids of the expenses
+     */
+    @Query("select x.id from Expense x where x.event.inviteCode = :inviteCode "
+        + "and x.id > :after order by x.id")
+    List<Long> findIdsByEventAfter(@Param("inviteCode") String inviteCode,
+                                   @Param("after") long after, Pageable pageable);
+
+    /**
+     * Get the invite code of the event of an expense without loading the expense
+     * @param id The id of the expense
+     * @return The invite code, if the expense exists and belongs to an event
+     */
+    @Query("select x.event.inviteCode from Expense x where x.id = :id")
+    Optional<String> findEventInviteCodeById(@Param("id") long id);
+
+    /**
+     * Get expenses with the participants they are split between, their tags are loaded in
+     * batches when they are first used
+     * @param ids The ids of the expenses
+     * @return The expenses, in the order of their ids
+     */
+    @EntityGraph(attributePaths = "splitBetween")
+    List<Expense> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Get an expense with the participants it is split between, its tags are loaded when
+     * they are first used
+     * @param id The id of the expense
+     * @return The expense, if it exists
+     */
+    @Override
+    @EntityGraph(attributePaths = "splitBetween")
+    Optional<Expense> findById(Long id);
 }
@@ -1,8 +1,19 @@
 package server.database;
 
 import commons.Participant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface ParticipantRepository extends JpaRepository<Participant, Long> {}
+public interface ParticipantRepository extends JpaRepository<Participant, Long> {
+    /**
+     * Find the participants following an id, in the order of their ids
+     * @param id The id the participants follow
+     * @param pageable The number of participants to find
+     * @return The participants following the id
+     */
+    List<Participant> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+}
@@ -31,7 +31,7 @@ public class AdminService {
      * @return an Optional containing the admin if found, or empty if not found
      */
     public Optional<commons.Admin> getAdminByUsername(String username) {
-        if (username.isEmpty() || !adminRepository.existsById(username)){
+        if (isNullOrEmpty(username)) {
             return Optional.empty();
         }
         return adminRepository.findById(username);
@@ -56,11 +56,11 @@ public class AdminService {
      * @return an Optional containing the deleted admin if successful, or empty if not found
      */
     public Optional<commons.Admin> deleteAdminByUsername(String username) {
-        if (isNullOrEmpty(username) || !adminRepository.existsById(username)) {
+        if (isNullOrEmpty(username)) {
             return Optional.empty();
         }
         var admin = adminRepository.findById(username);
-        adminRepository.deleteById(username);
+        admin.ifPresent(adminRepository::delete);
         return admin;
     }
 
@@ -77,7 +77,7 @@ public class AdminService {
      * @return true if admin is authenticated, false otherwise.
      */
     public boolean authenticateAdmin(commons.Admin admin) {
-        if (admin.getUsername().isEmpty() || !adminRepository.existsById(admin.getUsername())) {
+        if (isNullOrEmpty(admin.getUsername())) {
             return false;
         }
         commons.Admin exist = adminRepository.findById(admin.getUsername()).orElse(null);
@@ -0,0 +1,211 @@
+package server.services;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.ParticipantBalance;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import server.database.BalanceRepository;
+import server.database.EventRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the net balance of every participant of an event up to date, so balances and
+ * settlements can be read from one row per participant instead of the expense history.
+ * Only the difference an expense makes is applied, which takes O(split size) per mutation.
+ */
+@Service
+public class BalanceLedgerService {
+    // number of invite codes read at a time when filling the ledger
+    private static final int BACKFILL_PAGE_SIZE = 64;
+
+    private final BalanceRepository balanceRepository;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactions;
+
+    /**
+     * constructs a new BalanceLedgerService
+     *
+     * @param balanceRepository  repository storing the balances
+     * @param eventRepository    repository used to rebuild the balances of existing events
+     * @param transactionManager manager of the transaction of every rebuilt event
+     */
+    public BalanceLedgerService(BalanceRepository balanceRepository,
+                                EventRepository eventRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.balanceRepository = balanceRepository;
+        this.eventRepository = eventRepository;
+        this.transactions = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * calculates how an expense changes the balances of the participants involved. Every
+     * participant the expense is split between owes their share to the creator, the share
+     * of the creator itself is left out.
+     *
+     * @param expense the expense
+     * @return the change of the balance per participant id
+     */
+    public static Map<Long, Long> contribution(Expense expense) {
+        Map<Long, Long> delta = new HashMap<>();
+        if (expense.getAmount() == null || expense.getCreator() == null
+                || expense.getSplitBetween() == null || expense.getSplitBetween().isEmpty()) {
+            return delta;
+        }
+        long share = expense.getAmount().getInternalValue() / expense.getSplitBetween().size();
+        long creator = expense.getCreator().getId();
+        for (Participant debtor : expense.getSplitBetween()) {
+            if (debtor.getId() != creator) {
+                delta.merge(debtor.getId(), -share, Long::sum);
+                delta.merge(creator, share, Long::sum);
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * applies a new expense to the balances of its event
+     *
+     * @param inviteCode invite code of the event
+     * @param expense    the added expense
+     */
+    @Transactional
+    public void recordAdded(String inviteCode, Expense expense) {
+        apply(inviteCode, contribution(expense), 1);
+    }
+
+    /**
+     * applies the change of an expense to the balances of its event
+     *
+     * @param inviteCode invite code of the event
+     * @param before     the contribution of the expense before it was changed
+     * @param after      the changed expense
+     */
+    @Transactional
+    public void recordUpdated(String inviteCode, Map<Long, Long> before, Expense after) {
+        apply(inviteCode, before, -1);
+        apply(inviteCode, contribution(after), 1);
+    }
+
+    /**
+     * reverts a removed expense from the balances of its event
+     *
+     * @param inviteCode invite code of the event
+     * @param before     the contribution of the expense before it was removed
+     */
+    @Transactional
+    public void recordRemoved(String inviteCode, Map<Long, Long> before) {
+        apply(inviteCode, before, -1);
+    }
+
+    private void apply(String inviteCode, Map<Long, Long> delta, int sign) {
+        String normalized = Event.normalizeInviteCode(inviteCode);
+        delta.forEach((participantId, amount) -> {
+            long change = sign * amount;
+            if (change != 0
+                    && balanceRepository.addToBalance(normalized, participantId, change) == 0) {
+                balanceRepository.save(new ParticipantBalance(normalized, participantId, change));
+            }
+        });
+    }
+
+    /**
+     * gets the balances of the participants of an event
+     *
+     * @param event the event
+     * @return the balance of every participant of the event that has one
+     */
+    public Map<Participant, Long> getBalances(Event event) {
+        Map<Long, Participant> participants = new HashMap<>();
+        event.getParticipants().forEach(p -> participants.put(p.getId(), p));
+        Map<Participant, Long> balances = new HashMap<>();
+        for (ParticipantBalance balance
+                : balanceRepository.findByEventInviteCode(event.getInviteCode())) {
+            Participant participant = participants.get(balance.getParticipantId());
+            if (participant != null) {
+                balances.put(participant, balance.getAmount());
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * gets the stored balance rows of an event
+     *
+     * @param inviteCode invite code of the event, in any case
+     * @return the balance rows
+     */
+    public List<ParticipantBalance> getBalanceRows(String inviteCode) {
+        return balanceRepository.findByEventInviteCode(Event.normalizeInviteCode(inviteCode));
+    }
+
+    /**
+     * recalculates the balances of an event from all of its expenses
+     *
+     * @param event the event
+     */
+    @Transactional
+    public void rebuild(Event event) {
+        balanceRepository.deleteByEventInviteCode(event.getInviteCode());
+        open(event);
+    }
+
+    /**
+     * records the balances of an event that has none yet, such as an event that was just
+     * imported
+     *
+     * @param event the event
+     */
+    @Transactional
+    public void open(Event event) {
+        Map<Long, Long> balances = new HashMap<>();
+        event.getParticipants().forEach(p -> balances.put(p.getId(), 0L));
+        if (event.getExpenses() != null) {
+            for (Expense expense : event.getExpenses()) {
+                contribution(expense)
+                    .forEach((id, amount) -> balances.merge(id, amount, Long::sum));
+            }
+        }
+        balances.forEach((id, amount) -> balanceRepository.save(
+            new ParticipantBalance(event.getInviteCode(), id, amount)));
+    }
+
+    /**
+     * deletes the balances of an event
+     *
+     * @param inviteCode invite code of the event, in any case
+     */
+    @Transactional
+    public void clear(String inviteCode) {
+        balanceRepository.deleteByEventInviteCode(Event.normalizeInviteCode(inviteCode));
+    }
+
+    /**
+     * fills the ledger of databases that were created before the ledger existed. Every event
+     * with participants but no balances is rebuilt in its own transaction, so only one event
+     * is loaded at a time and a restart continues with the events that are left.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        String after = "";
+        List<String> inviteCodes;
+        do {
+            inviteCodes = eventRepository.findInviteCodesWithoutBalancesAfter(after,
+                PageRequest.of(0, BACKFILL_PAGE_SIZE));
+            for (String inviteCode : inviteCodes) {
+                transactions.executeWithoutResult(status ->
+                    eventRepository.findFullByInviteCode(inviteCode).ifPresent(this::rebuild));
+                after = inviteCode;
+            }
+        } while (inviteCodes.size() == BACKFILL_PAGE_SIZE);
+    }
+}
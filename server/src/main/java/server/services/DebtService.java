@@ -1,6 +1,7 @@
 package server.services;
 
 import org.springframework.stereotype.Service;
+import server.Keyset;
 import server.database.DebtRepository;
 
 import java.util.Optional;
@@ -26,13 +27,24 @@ public class DebtService {
         return debtRepository.findAll();
     }
 
+    /**
+     * gets the debts following an id, ordered by id. One debt more than the limit is
+     * returned if there is one, so the caller can tell if a next page exists
+     * @param after id the debts follow
+     * @param limit number of debts on a page
+     * @return the debts following the id
+     */
+    public java.util.List<commons.Debt> getDebtsAfter(long after, int limit) {
+        return debtRepository.findByIdGreaterThanOrderByIdAsc(after, Keyset.fetch(limit));
+    }
+
     /**
      * gets a debt by its ID
      * @param id ID of the debt to retrieve
      * @return an Optional containing the debt if found, otherwise empty
      */
     public Optional<commons.Debt> getDebtById(long id) {
-        if (id < 0 || !debtRepository.existsById(id)) {
+        if (id < 0) {
             return Optional.empty();
         }
         return debtRepository.findById(id);
@@ -44,11 +56,8 @@ public class DebtService {
      * @return an Optional containing the deleted debt if found and deleted, otherwise empty
      */
     public Optional<commons.Debt> deleteDebtById(long id) {
-        if (!debtRepository.existsById(id)) {
-            return Optional.empty();
-        }
         var debt = debtRepository.findById(id);
-        debtRepository.deleteById(id);
+        debt.ifPresent(debtRepository::delete);
         return debt;
     }
 
@@ -0,0 +1,65 @@
+package server.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import commons.Event;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import server.database.EventRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the JSON dump of all events. The events are read through a database cursor and
+ * written one at a time, so the dump never has to fit in memory.
+ */
+@Service
+public class EventExportService {
+    private final EventRepository eventRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * constructs a new EventExportService
+     *
+     * @param eventRepository repository used to read the events
+     * @param entityManager   entity manager holding the events that were read
+     */
+    public EventExportService(EventRepository eventRepository, EntityManager entityManager) {
+        this.eventRepository = eventRepository;
+        this.entityManager = entityManager;
+        this.objectMapper.registerModule(new JavaTimeModule());
+        // The caller owns the stream, it may still have to finish a compressed stream
+        this.objectMapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+    }
+
+    /**
+     * writes all events with everything they contain as a JSON array
+     *
+     * @param out stream the JSON is written to, it is flushed but not closed
+     * @return the number of events written
+     * @throws IOException if writing to the stream failed
+     */
+    @Transactional(readOnly = true)
+    public int export(OutputStream out) throws IOException {
+        int count = 0;
+        try (Stream<Event> events = eventRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            Iterator<Event> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+                // Written events are not needed anymore, keep the persistence context small
+                entityManager.clear();
+                count++;
+            }
+            generator.writeEndArray();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,316 @@
+package server.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import commons.Event;
+import commons.Expense;
+import commons.ExpenseType;
+import commons.ImportResult;
+import commons.Participant;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import server.database.EventRepository;
+import server.database.ParticipantRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports events from a JSON dump. The events are checked in memory and saved in chunks,
+ * each in its own transaction. Every chunk looks up the events and participants that already
+ * exist with one query each, and inserts everything else in JDBC batches.
+ */
+@Service
+public class EventImportService {
+    /**
+     * The header holding the number of imported events of a streamed import
+     */
+    public static final String IMPORTED_COUNT = "X-Imported-Count";
+
+    private final EventRepository eventRepository;
+    private final ParticipantRepository participantRepository;
+    private final BalanceLedgerService balanceLedger;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactions;
+    private final ObjectReader eventReader = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .readerFor(Event.class);
+    @Value("${splitty.import.chunk-size:500}")
+    private int chunkSize = 500;
+
+    /**
+     * constructs a new EventImportService
+     *
+     * @param eventRepository       repository used to find the events that already exist
+     * @param participantRepository repository used to find the participants that already exist
+     * @param balanceLedger         the service keeping the balances of every event
+     * @param entityManager         entity manager the imported events are saved with
+     * @param transactionManager    manager of the transaction of every chunk
+     */
+    public EventImportService(EventRepository eventRepository,
+                              ParticipantRepository participantRepository,
+                              BalanceLedgerService balanceLedger, EntityManager entityManager,
+                              PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.participantRepository = participantRepository;
+        this.balanceLedger = balanceLedger;
+        this.entityManager = entityManager;
+        this.transactions = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * imports events. An event is skipped if its invite code is taken, or if it misses a name
+     * or invite code or has participants sharing a name or id. Participants that exist with
+     * the same id and details are shared, other participants and all tags and expenses are
+     * saved as new. Expenses involving participants the event does not have are dropped.
+     * Invite codes are stored in upper case, the results hold them in that form.
+     *
+     * @param events the events to import
+     * @return the result of every event, in the same order
+     */
+    public List<ImportResult> importEvents(List<Event> events) {
+        List<ImportResult> results = new ArrayList<>(events.size());
+        List<Integer> valid = new ArrayList<>();
+        Set<String> inviteCodes = new HashSet<>();
+        for (Event event : events) {
+            String problem = validate(event);
+            if (problem != null) {
+                results.add(new ImportResult(inviteCode(event), ImportResult.Status.INVALID,
+                    problem));
+                continue;
+            }
+            // Invite codes are stored in upper case, so taken ones are found by their index
+            event.setInviteCode(Event.normalizeInviteCode(event.getInviteCode()));
+            if (!inviteCodes.add(event.getInviteCode())) {
+                results.add(duplicate(event));
+            } else {
+                valid.add(results.size());
+                results.add(null);
+            }
+        }
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            List<ImportResult> saved = importChunk(chunk.stream().map(events::get).toList());
+            for (int i = 0; i < chunk.size(); i++) {
+                results.set(chunk.get(i), saved.get(i));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * imports events from a stream of JSON objects, such as newline delimited JSON. The events
+     * are read and saved a chunk at a time, so the stream never has to fit in memory. Reading
+     * stops at the first malformed event, the events before it are still imported.
+     *
+     * @param in       the stream of events
+     * @param rejected receives the result of every event that was not imported, in order
+     * @return the number of events that were imported
+     * @throws IOException if reading the stream failed
+     */
+    public long importStream(InputStream in, List<ImportResult> rejected) throws IOException {
+        long imported = 0;
+        List<Event> chunk = new ArrayList<>();
+        JsonProcessingException malformed = null;
+        try (MappingIterator<Event> events = eventReader.readValues(in)) {
+            while (events.hasNextValue()) {
+                chunk.add(events.nextValue());
+                if (chunk.size() >= chunkSize) {
+                    imported += importBuffered(chunk, rejected);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            malformed = e;
+        }
+        imported += importBuffered(chunk, rejected);
+        if (malformed != null) {
+            rejected.add(new ImportResult(null, ImportResult.Status.INVALID,
+                "malformed JSON: " + malformed.getOriginalMessage()));
+        }
+        return imported;
+    }
+
+    // Imports and empties the buffered events, returning how many were imported
+    private long importBuffered(List<Event> buffered, List<ImportResult> rejected) {
+        long imported = 0;
+        for (ImportResult result : importEvents(buffered)) {
+            if (result.isImported()) {
+                imported++;
+            } else {
+                rejected.add(result);
+            }
+        }
+        buffered.clear();
+        return imported;
+    }
+
+    /**
+     * sets the number of events saved in a single transaction
+     *
+     * @param chunkSize the number of events
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    private List<ImportResult> importChunk(List<Event> chunk) {
+        try {
+            return transactions.execute(status -> saveChunk(chunk));
+        } catch (RuntimeException e) {
+            // The chunk was rolled back as a whole
+            return chunk.stream().map(event -> new ImportResult(event.getInviteCode(),
+                ImportResult.Status.FAILED, e.getMessage())).toList();
+        }
+    }
+
+    private List<ImportResult> saveChunk(List<Event> chunk) {
+        Set<String> taken = new HashSet<>(eventRepository.findExistingInviteCodes(
+            chunk.stream().map(Event::getInviteCode).collect(Collectors.toSet())));
+        Map<Long, Participant> known = participantRepository.findAllById(chunk.stream()
+                .flatMap(e -> participants(e).stream()).map(Participant::getId)
+                .collect(Collectors.toSet()))
+            .stream().collect(Collectors.toMap(Participant::getId, Function.identity()));
+        List<ImportResult> results = new ArrayList<>(chunk.size());
+        for (Event event : chunk) {
+            if (taken.contains(event.getInviteCode())) {
+                results.add(duplicate(event));
+                continue;
+            }
+            save(event, known);
+            results.add(ImportResult.imported(event.getInviteCode()));
+        }
+        entityManager.flush();
+        // The saved chunk is not needed anymore, keep the persistence context small
+        entityManager.clear();
+        return results;
+    }
+
+    private void save(Event event, Map<Long, Participant> known) {
+        Map<String, Participant> participants = saveParticipants(event, known);
+        Collection<ExpenseType> tags = event.getTags() == null ? List.of() : event.getTags();
+        Collection<Expense> expenses =
+            event.getExpenses() == null ? List.of() : event.getExpenses();
+        event.setParticipants(new HashSet<>(participants.values()));
+        event.setTags(new HashSet<>());
+        event.setExpenses(new HashSet<>());
+        entityManager.persist(event);
+
+        Map<String, ExpenseType> tagsByName = new HashMap<>();
+        for (ExpenseType tag : tags) {
+            tag.setId(0);
+            tag.setEvent(event);
+            entityManager.persist(tag);
+            tagsByName.put(tag.getName(), tag);
+            event.getTags().add(tag);
+        }
+        for (Expense expense : expenses) {
+            if (involvesOnly(expense, participants.keySet())) {
+                saveExpense(event, expense, participants, tagsByName);
+            }
+        }
+        balanceLedger.open(event);
+    }
+
+    // Maps the names of the participants to the participants that are stored
+    private Map<String, Participant> saveParticipants(Event event,
+                                                      Map<Long, Participant> known) {
+        Map<String, Participant> participants = new HashMap<>();
+        for (Participant p : participants(event)) {
+            Participant stored = known.get(p.getId());
+            if (stored == null || !sameDetails(stored, p)) {
+                p.setId(0);
+                entityManager.persist(p);
+                stored = p;
+            }
+            participants.put(stored.getName(), stored);
+        }
+        return participants;
+    }
+
+    private void saveExpense(Event event, Expense expense, Map<String, Participant> participants,
+                             Map<String, ExpenseType> tags) {
+        expense.setId(null);
+        expense.setEvent(event);
+        expense.setReceiver(participants.get(expense.getCreator().getName()));
+        expense.setSplitBetween(expense.getSplitBetween().stream()
+            .map(p -> participants.get(p.getName())).collect(Collectors.toSet()));
+        expense.setTags(expense.getTags() == null ? new HashSet<>() : expense.getTags().stream()
+            .map(t -> tags.get(t.getName())).filter(Objects::nonNull)
+            .collect(Collectors.toSet()));
+        entityManager.persist(expense);
+        event.getExpenses().add(expense);
+    }
+
+    private static boolean involvesOnly(Expense expense, Set<String> names) {
+        return expense.getCreator() != null && names.contains(expense.getCreator().getName())
+            && expense.getSplitBetween() != null && expense.getSplitBetween().stream()
+            .allMatch(p -> names.contains(p.getName()));
+    }
+
+    private static boolean sameDetails(Participant stored, Participant imported) {
+        return Objects.equals(stored.getName(), imported.getName())
+            && Objects.equals(stored.getBic(), imported.getBic())
+            && Objects.equals(stored.getIban(), imported.getIban())
+            && Objects.equals(stored.getEmail(), imported.getEmail());
+    }
+
+    /**
+     * checks an event without looking at the database
+     *
+     * @param event the event
+     * @return why the event can't be imported, or null if it can
+     */
+    static String validate(Event event) {
+        if (event == null || isNullOrEmpty(event.getInviteCode())) {
+            return "missing invite code";
+        }
+        if (isNullOrEmpty(event.getName())) {
+            return "missing name";
+        }
+        Set<Participant> participants = participants(event);
+        if (participants.stream().map(Participant::getName).distinct().count()
+                != participants.size()) {
+            return "participants share a name";
+        }
+        if (participants.stream().map(Participant::getId).distinct().count()
+                != participants.size()) {
+            return "participants share an id";
+        }
+        return null;
+    }
+
+    private static Set<Participant> participants(Event event) {
+        return event.getParticipants() == null ? Set.of() : event.getParticipants();
+    }
+
+    private static ImportResult duplicate(Event event) {
+        return new ImportResult(event.getInviteCode(), ImportResult.Status.DUPLICATE,
+            "invite code is taken");
+    }
+
+    private static String inviteCode(Event event) {
+        return event == null ? null : event.getInviteCode();
+    }
+
+    private static boolean isNullOrEmpty(String s) {
+        return s == null || s.isEmpty();
+    }
+}
@@ -1,22 +1,22 @@
 package server.services;
 
 import commons.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import server.BasicAuthParser;
+import server.Keyset;
 import server.database.*;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 @Service
 public class EventService {
     private final EventRepository eventRepository;
     private final AdminRepository adminRepository;
     private final ParticipantRepository participantRepository;
-    private final ExpenseRepository expenseRepository;
-    private final ExpenseTypeRepository expenseTypeRepository;
+    private final SettlementService settlementService;
+    private final EventSnapshotService eventSnapshotService;
 
     /**
      * constructs a new EventService with the provided EventRepository and AdminRepository
@@ -25,44 +25,89 @@ public class EventService {
      * @param adminRepository       repository providing functionality for admin-related operations
      * @param participantRepository repository providing functionality for participant-related
      *                              operations
-     * @param expenseRepository     repository providing functionality for expense-related
-     *                              operations
-     * @param expenseTypeRepository repository providing functionality for expenseType-related
-     *                              operations
+     * @param settlementService     service caching the settlement of every event
+     * @param eventSnapshotService  service caching the JSON of every event
      */
     public EventService(EventRepository eventRepository,
                         AdminRepository adminRepository,
                         ParticipantRepository participantRepository,
-                        ExpenseRepository expenseRepository,
-                        ExpenseTypeRepository expenseTypeRepository) {
+                        SettlementService settlementService,
+                        EventSnapshotService eventSnapshotService) {
         this.eventRepository = eventRepository;
         this.adminRepository = adminRepository;
         this.participantRepository = participantRepository;
-        this.expenseRepository = expenseRepository;
-        this.expenseTypeRepository = expenseTypeRepository;
+        this.settlementService = settlementService;
+        this.eventSnapshotService = eventSnapshotService;
     }
 
     /**
-     * gets a list of all events
+     * gets a list of all events, holding only the fields of the events themselves and none
+     * of their participants, tags or expenses
      * 
      * @return list of all events
      */
     public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+        return eventRepository.findAllHeaders();
+    }
+
+    /**
+     * gets the headers of the events following an invite code, ordered by invite code.
+     * One header more than the limit is returned if there is one, so the caller can tell
+     * if a next page exists
+     *
+     * @param after invite code the events follow
+     * @param limit number of events on a page
+     * @return the headers of the events following the invite code
+     */
+    public List<Event> getEventsAfter(String after, int limit) {
+        return eventRepository.findHeadersAfter(after, Keyset.fetch(limit));
     }
 
     /**
-     * gets an event by its invite code (id)
+     * gets a page of event summaries, newest first
+     *
+     * @param page the number of the page, starting at 0
+     * @param size the number of summaries on a page
+     * @return the summaries on the page
+     */
+    public List<EventSummary> getEventSummaries(int page, int size) {
+        Sort newestFirst = Sort.by(Sort.Order.desc("creationTime"), Sort.Order.asc("inviteCode"));
+        return eventRepository.findSummaries(PageRequest.of(page, size, newestFirst))
+            .map(EventService::toSummary)
+            .getContent();
+    }
+
+    private static EventSummary toSummary(EventSummaryView view) {
+        EventSummary summary = new EventSummary(view.getInviteCode(), view.getName(),
+            view.getCreationTime(), view.getLastUpdateTime(), view.getParticipantCount(),
+            view.getExpenseCount());
+        summary.setTotalAmount(view.getTotalAmount());
+        return summary;
+    }
+
+    /**
+     * gets an event by its invite code (id), in any case
      * 
      * @param inviteCode invite code of the event to retrieve
      * @return an Optional containing the event if found, or empty if not found
      */
     public Optional<Event> getEventByInviteCode(String inviteCode) {
-        if (isNullOrEmpty(inviteCode)
-                || !eventRepository.existsByInviteCodeEqualsIgnoreCase(inviteCode)) {
+        if (isNullOrEmpty(inviteCode)) {
             return Optional.empty();
         }
-        return eventRepository.findById(inviteCode);
+        return eventRepository.findFullByInviteCode(Event.normalizeInviteCode(inviteCode));
+    }
+
+    /**
+     * checks if an event exists, without loading its participants, tags or expenses
+     *
+     * @param inviteCode invite code of the event
+     * @return true if the event exists
+     */
+    public boolean exists(String inviteCode) {
+        // Looked up by id, so it is answered from the second-level cache when possible
+        return !isNullOrEmpty(inviteCode)
+            && eventRepository.findById(Event.normalizeInviteCode(inviteCode)).isPresent();
     }
 
     /**
@@ -79,8 +124,9 @@ public class EventService {
         }
         // generate invite code
         event.generateInviteCode();
-        // check if invite code is unique (does not already exist)
-        while (eventRepository.existsByInviteCodeEqualsIgnoreCase(event.getInviteCode())) {
+        // check if invite code is unique (does not already exist), codes are stored in upper
+        // case so this looks up the primary key
+        while (eventRepository.existsById(event.getInviteCode())) {
             event.generateInviteCode();
         }
         return Optional.of(eventRepository.save(event));
@@ -91,174 +137,18 @@ public class EventService {
                 || (event.getParticipants() != null && !event.getParticipants().isEmpty()));
     }
 
-    /**
-     * saves an array of events after checking the
-     * uniqueness of their id and the validity of
-     * the rest of its details.
-     * @param events array of Event objects to be saved.
-     * @return list of saved Event objects after filtering out
-     * invalid events and saving valid ones.
-     */
-    public List<Event> saveEvents(Event[] events) {
-        return Arrays.stream(events)
-                .filter(this::checkUniqueId)
-                .filter(this::checkEventDetails)
-                .filter(this::falseIfDuplicateParticipantNames)
-                .filter(this::falseIfDuplicateParticipantIds)
-                .map(this::cleanEvent)
-                .map(this::properSave)
-                .collect(Collectors.toList());
-    }
-
-    private boolean checkEventDetails(Event event) {
-        return (!isNullOrEmpty(event.getName())
-                && !isNullOrEmpty(event.getInviteCode())
-                );
-    }
-
-    private boolean falseIfDuplicateParticipantNames(Event e) {
-        return e.getParticipants().size()
-                == e.getParticipants()
-                .stream().map(Participant::getName)
-                .distinct().count();
-    }
-
-    private boolean falseIfDuplicateParticipantIds(Event e) {
-        return e.getParticipants().size()
-                == e.getParticipants()
-                .stream().map(Participant::getId)
-                .distinct().count();
-    }
-
-
-    private Event cleanEvent(Event event) {
-        var participantSet = event.getParticipants();
-        // Participants with IDs that are in the db.
-        var conflictingParticipants = participantSet
-                .stream().filter(p -> participantRepository
-                        .existsById(p.getId())).collect(Collectors.toSet());
-        // Participants with IDs that are not in the db
-        Set<Participant> nonConflictingParticipants = participantSet
-                .stream().filter(p -> !participantRepository
-                        .existsById(p.getId())).collect(Collectors.toSet());
-        // Participants that have ID that exists in the db
-        // and the same details as their version in the db.
-        Set<Participant> conflictingButEqual = conflictingParticipants
-                .stream().filter(this::checkIfParticipantsExists)
-                .collect(Collectors.toSet());
-        // Participants that have ID that exists in the db but with other details;
-        Set<Participant> otherParticpants = conflictingParticipants
-                .stream().filter(this::checkIfParticipantHasConflictingId)
-                .collect(Collectors.toSet());
-        // Adding the other Participants to be saved into the db.
-        nonConflictingParticipants.addAll(otherParticpants);
-        // Collection of saved Participants
-        Set<Participant> goodParticpants = new HashSet<>(
-                participantRepository.saveAll(nonConflictingParticipants));
-        goodParticpants.addAll(conflictingButEqual);
-        // cleaned event
-        event.setParticipants(goodParticpants);
-        return cleanExpensesOfEvent(event);
-    }
-
-    private Event cleanExpensesOfEvent(Event event) {
-        Set<Participant> participants = event.getParticipants();
-        Set<String> participantNames = participants.stream()
-                .map(Participant::getName).collect(Collectors.toSet());
-        Map<String, Participant> participantMap = new HashMap<>();
-        participants.forEach(participant -> {
-            participantMap.put(participant.getName(),participant);
-        });
-        Set<Expense> expenses = event.getExpenses();
-        Function<Participant, Participant> correctParticipant
-                = participant -> participantMap.get(participant.getName());
-        Function<Expense, Expense> mapParticipants = expense -> {
-            expense.setSplitBetween(
-                  expense.getSplitBetween().stream()
-                          .map(correctParticipant)
-                          .collect(Collectors.toSet())
-            );
-            expense.setReceiver(correctParticipant.apply(expense.getCreator()));
-            return expense;
-        };
-        Predicate<Participant> nameCondition = participant
-                -> participantNames.contains(participant.getName());
-        Predicate<Expense> properExpense = expense
-                -> expense.getSplitBetween().stream()
-                .allMatch(nameCondition)
-                && nameCondition.test(expense.getCreator());
-        event.setExpenses(
-                expenses.stream().filter(properExpense)
-                        .map(mapParticipants)
-                        .collect(Collectors.toSet())
-        );
-        return event;
-    }
-
-    private Event properSave(Event event) {
-        Set<Expense> ball = event.getExpenses();
-        Set<ExpenseType> ballTags = event.getTags();
-        event.setExpenses(HashSet.newHashSet(0));
-        event.setTags(HashSet.newHashSet(0));
-        eventRepository.save(event);
-        event.setExpenses(ball);
-        cleanTagsOfEvent(event, ballTags);
-        expenseRepository.saveAll(ball);
-        return event;
-    }
-
-
-    private void cleanTagsOfEvent(Event event, Set<ExpenseType> tags) {
-        tags = new HashSet<>(expenseTypeRepository.saveAll(tags));
-        Map<String, ExpenseType> tagNames = new HashMap<>();
-        tags.forEach(tag -> tagNames.put(tag.getName(), tag));
-        Function<ExpenseType, ExpenseType> mapTag = tag
-                -> tagNames.get(tag.getName());
-        Function<Set<ExpenseType>, Set<ExpenseType>> mapTags =
-                someTags -> someTags
-                        .stream().map(mapTag)
-                        .collect(Collectors.toSet());
-        Set<Expense> expenses = event.getExpenses();
-        Set<Expense> cleanExpenses = new HashSet<>(expenses);
-        cleanExpenses.forEach(expense -> expense.setTags(
-                        mapTags.apply(expense.getTags())));
-        event.setExpenses(cleanExpenses);
-        event.setTags(mapTags.apply(event.getTags()));
-
-    }
-
-    private boolean checkIfParticipantsExists(Participant e) {
-        Optional<Participant> participantOptional
-                = participantRepository.findById(e.getId());
-        if(participantOptional.isEmpty())
-            return false;
-        Participant participant = participantOptional.get();
-        return Objects.equals(participant.getName(), e.getName()) &&
-                Objects.equals(participant.getBic(), e.getBic()) &&
-                Objects.equals(participant.getIban(), e.getIban()) &&
-                Objects.equals(participant.getEmail(), e.getEmail());
-    }
-
-    private boolean checkIfParticipantHasConflictingId(Participant e) {
-        return participantRepository.existsById(e.getId())
-                && !this.checkIfParticipantsExists(e);
-    }
-
-    private boolean checkUniqueId(Event event) {
-        String eventId = event.getInviteCode();
-        return !eventRepository.existsByInviteCodeEqualsIgnoreCase(eventId);
-    }
-
     /**
      * updates an existing event
      * 
-     * @param inviteCode invite code of the event to update
+     * @param inviteCode invite code of the event to update, in any case
      * @param updatedEvent updated event
      * @return an Optional containing the updated event if successful, or empty if not found or
      *         update failed
      */
     public Optional<Event> updateEvent(String inviteCode, Event updatedEvent) {
-        Optional<Event> optionalExistingEvent = getEventByInviteCode(inviteCode);
+        String code = Event.normalizeInviteCode(inviteCode);
+        Optional<Event> optionalExistingEvent = isNullOrEmpty(code) ? Optional.empty()
+            : eventRepository.findWithParticipantsByInviteCode(code);
         // First, collect a list of participants in the event before editing, so we can later check
         // which participants were removed.
         List<Participant> oldParticipants = null;
@@ -268,17 +158,20 @@ public class EventService {
 
         Optional<Event> optionalUpdated = optionalExistingEvent.map(existingEvent -> {
             if (isNullOrEmpty(updatedEvent.getName()) || updatedEvent.getDateTime() == null
-                    || !inviteCode.equals(updatedEvent.getInviteCode())) {
+                    || !code.equals(Event.normalizeInviteCode(updatedEvent.getInviteCode()))) {
                 return null;
             }
             existingEvent.setName(updatedEvent.getName());
             existingEvent.setDateTime(updatedEvent.getDateTime());
-            existingEvent.setLastUpdateTime(java.time.LocalDateTime.now());
+            existingEvent.setSettlementMethod(updatedEvent.getSettlementMethod());
+            eventSnapshotService.touch(existingEvent);
             if (updatedEvent.getParticipants() != null) {
                 existingEvent.getParticipants().clear();
                 existingEvent.getParticipants().addAll(updatedEvent.getParticipants());
             }
-            return eventRepository.save(existingEvent);
+            eventRepository.save(existingEvent);
+            // Returned with its tags and expenses, which the update did not load
+            return eventRepository.findFullByInviteCode(code).orElse(null);
         });
 
         // If the optional is empty or we do not have a list of old participants, return early.
@@ -287,6 +180,7 @@ public class EventService {
         // Manually delete the participant now that the relation between event and participant was
         // deleted
         Event updated = optionalUpdated.get();
+        settlementService.invalidate(code);
 
         // Compile list of participants that were removed from this event.
         List<Participant> participantsToDelete = getParticipantsToDelete(oldParticipants, updated);
@@ -309,16 +203,16 @@ public class EventService {
     /**
      * deletes an event by its invite code (id)
      * 
-     * @param inviteCode invite code of the event to delete
+     * @param inviteCode invite code of the event to delete, in any case
      * @return an Optional containing the deleted event if successful, or empty if not found
      */
     public Optional<Event> deleteEvent(String inviteCode) {
-        if (isNullOrEmpty(inviteCode)
-                || !eventRepository.existsByInviteCodeEqualsIgnoreCase(inviteCode)) {
+        if (isNullOrEmpty(inviteCode)) {
             return Optional.empty();
         }
-        var event = eventRepository.findById(inviteCode);
-        eventRepository.deleteById(inviteCode);
+        var event = eventRepository.findById(Event.normalizeInviteCode(inviteCode));
+        event.ifPresent(eventRepository::delete);
+        event.ifPresent(deleted -> eventSnapshotService.invalidate(deleted.getInviteCode()));
         return event;
     }
 
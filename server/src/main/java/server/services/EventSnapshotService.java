@@ -0,0 +1,124 @@
+package server.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import server.database.EventRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the serialized JSON of recently requested events, so the clients re-fetching an event
+ * after a refresh are served the same bytes instead of serializing the event graph each time
+ */
+@Service
+public class EventSnapshotService {
+    private final EventRepository eventRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, AtomicReference<Snapshot>> snapshots = new ConcurrentHashMap<>();
+
+    private record Snapshot(LocalDateTime lastUpdateTime, String json) {
+    }
+
+    /**
+     * constructs a new EventSnapshotService
+     *
+     * @param eventRepository repository used to load the events
+     * @param objectMapper    mapper used to serialize the events
+     */
+    public EventSnapshotService(EventRepository eventRepository, ObjectMapper objectMapper) {
+        this.eventRepository = eventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * gets the JSON of an event. The JSON is reused until the event is updated or the
+     * snapshot is invalidated.
+     *
+     * @param inviteCode invite code of the event, in any case
+     * @return an Optional containing the JSON, or empty if the event does not exist
+     */
+    public Optional<String> getSnapshot(String inviteCode) {
+        if (inviteCode == null || inviteCode.isEmpty()) {
+            return Optional.empty();
+        }
+        String normalized = Event.normalizeInviteCode(inviteCode);
+        // Taken before loading the event, an invalidation replaces the slot so a stale
+        // snapshot stored into it is never read again.
+        AtomicReference<Snapshot> slot =
+            snapshots.computeIfAbsent(normalized, code -> new AtomicReference<>());
+        Snapshot cached = slot.get();
+        if (cached != null && Objects.equals(cached.lastUpdateTime(),
+                eventRepository.findLastUpdateTimeByInviteCode(normalized).orElse(null))) {
+            return Optional.of(cached.json());
+        }
+        Optional<Event> event = eventRepository.findFullByInviteCode(normalized);
+        if (event.isEmpty()) {
+            snapshots.remove(normalized, slot);
+            return Optional.empty();
+        }
+        try {
+            String json = objectMapper.writeValueAsString(event.get());
+            slot.set(new Snapshot(event.get().getLastUpdateTime(), json));
+            return Optional.of(json);
+        } catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * drops the snapshot of an event, to be called whenever it is mutated
+     *
+     * @param inviteCode invite code of the event, in any case
+     */
+    public void invalidate(String inviteCode) {
+        if (inviteCode != null) {
+            snapshots.remove(Event.normalizeInviteCode(inviteCode));
+        }
+    }
+
+    /**
+     * marks an event as mutated. Its last update time is moved forward, so a snapshot or
+     * settlement computed from the old state before the mutation is committed is not used
+     * again, and its snapshot is dropped. To be called in the transaction mutating the event.
+     *
+     * @param event the managed event
+     */
+    public void touch(Event event) {
+        // Stored with microseconds, so the time read back from the database is the same
+        event.setLastUpdateTime(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        invalidate(event.getInviteCode());
+    }
+
+    /**
+     * marks an event as mutated, see {@link #touch(Event)}
+     *
+     * @param inviteCode invite code of the event, in any case
+     */
+    @Transactional
+    public void touch(String inviteCode) {
+        if (inviteCode != null) {
+            eventRepository.findById(Event.normalizeInviteCode(inviteCode)).ifPresent(this::touch);
+        }
+    }
+
+    /**
+     * marks every event a participant takes part in as mutated, see {@link #touch(Event)}
+     *
+     * @param participantId id of the participant
+     */
+    @Transactional
+    public void touchEventsOf(long participantId) {
+        for (String inviteCode : eventRepository.findInviteCodesByParticipantId(participantId)) {
+            eventRepository.findById(inviteCode).ifPresent(this::touch);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package server.services;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Removes participants whose debts are settled from the expenses of an event. Their own
+ * expenses are deleted and their share is taken out of the expenses of the others.
+ * Compacting an event that has no settled participants left changes nothing. It is run once
+ * when a debt is received, not on every expense write.
+ */
+@Service
+public class ExpenseCompactionService {
+    private final ExpenseRepository expenseRepository;
+    private final EventRepository eventRepository;
+    private final BalanceLedgerService balanceLedger;
+    private final SettlementService settlementService;
+    private final EventSnapshotService eventSnapshotService;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * constructs a new ExpenseCompactionService
+     *
+     * @param expenseRepository    repository storing the expenses
+     * @param eventRepository      repository used to lock the compacted event
+     * @param balanceLedger        the service keeping the balances of every event
+     * @param settlementService    the service caching the settlement of every event
+     * @param eventSnapshotService the service caching the JSON of every event
+     * @param events               publisher of the {@link ExpensesCompacted} events
+     */
+    public ExpenseCompactionService(ExpenseRepository expenseRepository,
+                                    EventRepository eventRepository,
+                                    BalanceLedgerService balanceLedger,
+                                    SettlementService settlementService,
+                                    EventSnapshotService eventSnapshotService,
+                                    ApplicationEventPublisher events) {
+        this.expenseRepository = expenseRepository;
+        this.eventRepository = eventRepository;
+        this.balanceLedger = balanceLedger;
+        this.settlementService = settlementService;
+        this.eventSnapshotService = eventSnapshotService;
+        this.events = events;
+    }
+
+    /**
+     * removes the settled participants from the expenses of an event, in a single
+     * transaction. The event is locked like for any expense write, so its balances can't
+     * change meanwhile. Removing a participant can settle others, so this repeats until no
+     * settled participant is left. If anything changed, the event is marked as changed and
+     * {@link ExpensesCompacted} is published.
+     *
+     * @param inviteCode invite code of the event, in any case
+     * @return the number of expenses that were changed or deleted
+     */
+    @Transactional
+    public int compact(String inviteCode) {
+        String code = Event.normalizeInviteCode(inviteCode);
+        Optional<Event> event = eventRepository.lockByInviteCode(code);
+        if (event.isEmpty()) {
+            return 0;
+        }
+        List<Expense> expenses =
+            new ArrayList<>(expenseRepository.getExpensesByEventInviteCode(code));
+        int changed = 0;
+        List<Participant> settled = settledParticipants(expenses);
+        while (!settled.isEmpty()) {
+            for (Participant p : settled) {
+                changed += removeParticipant(code, expenses, p);
+            }
+            settled = settledParticipants(expenses);
+        }
+        if (changed > 0) {
+            eventSnapshotService.touch(event.get());
+            settlementService.invalidate(code);
+            events.publishEvent(new ExpensesCompacted(code));
+        }
+        return changed;
+    }
+
+    private int removeParticipant(String inviteCode, List<Expense> expenses, Participant p) {
+        List<Expense> relevant = expenses.stream()
+            .filter(e -> e.getSplitBetween().contains(p) || p.equals(e.getCreator()))
+            .toList();
+        for (Expense e : relevant) {
+            Map<Long, Long> before = BalanceLedgerService.contribution(e);
+            Set<Participant> split = new HashSet<>(e.getSplitBetween());
+            long value = e.getAmount().getInternalValue();
+            value -= value / Math.max(split.size(), 1);
+            split.remove(p);
+            boolean owed = split.stream().anyMatch(o -> !o.equals(e.getCreator()));
+            if (p.equals(e.getCreator()) || !owed) {
+                // Paid by the participant, or nobody is left to owe anything for it
+                expenses.remove(e);
+                expenseRepository.delete(e);
+                balanceLedger.recordRemoved(inviteCode, before);
+            } else {
+                e.setSplitBetween(split);
+                e.getAmount().setInternalValue(value);
+                expenseRepository.save(e);
+                balanceLedger.recordUpdated(inviteCode, before, e);
+            }
+        }
+        return relevant.size();
+    }
+
+    /**
+     * finds the participants that owe as much as they paid over all expenses
+     *
+     * @param expenses the expenses of an event
+     * @return the settled participants
+     */
+    public static List<Participant> settledParticipants(List<Expense> expenses) {
+        if (expenses == null) {
+            return new ArrayList<>();
+        }
+        List<Participant> result = new ArrayList<>();
+        for (Map.Entry<Participant, Long> entry : balances(expenses).entrySet()) {
+            if (entry.getValue() == 0) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    // What every participant owes minus what they paid, over all expenses
+    private static Map<Participant, Long> balances(List<Expense> expenses) {
+        Map<Participant, Long> sumPerParticipant = new HashMap<>();
+        for (Expense ex : expenses) {
+            Set<Participant> split = ex.getSplitBetween();
+            if (!split.isEmpty()) {
+                long amountPerPerson = ex.getAmount().getInternalValue() / split.size();
+                for (Participant p : split) {
+                    sumPerParticipant.merge(p, amountPerPerson, Long::sum);
+                }
+            }
+            sumPerParticipant.merge(ex.getCreator(), -ex.getAmount().getInternalValue(),
+                Long::sum);
+        }
+        return sumPerParticipant;
+    }
+}
@@ -1,7 +1,207 @@
 package server.services;
 
+import commons.Event;
+import commons.Expense;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Writes expenses. An expense and the balances of its event are changed in one transaction,
+ * so the balance ledger can't disagree with the expenses. Writes to the same event wait for
+ * each other, so the first balance of a participant is never inserted twice.
+ */
 @Service
 public class ExpenseService {
+    private final ExpenseRepository expenseRepository;
+    private final EventRepository eventRepository;
+    private final BalanceLedgerService balanceLedger;
+    private final SettlementService settlementService;
+    private final EventSnapshotService eventSnapshotService;
+
+    /**
+     * constructs a new ExpenseService
+     *
+     * @param expenseRepository    repository storing the expenses
+     * @param eventRepository      repository used to lock the event of an expense
+     * @param balanceLedger        the service keeping the balances of every event
+     * @param settlementService    the service caching the settlement of every event
+     * @param eventSnapshotService the service caching the JSON of every event
+     */
+    public ExpenseService(ExpenseRepository expenseRepository, EventRepository eventRepository,
+                          BalanceLedgerService balanceLedger,
+                          SettlementService settlementService,
+                          EventSnapshotService eventSnapshotService) {
+        this.expenseRepository = expenseRepository;
+        this.eventRepository = eventRepository;
+        this.balanceLedger = balanceLedger;
+        this.settlementService = settlementService;
+        this.eventSnapshotService = eventSnapshotService;
+    }
+
+    /**
+     * gets all expenses of an event
+     *
+     * @param inviteCode invite code of the event, in any case
+     * @return the expenses of the event
+     */
+    @Transactional(readOnly = true)
+    public List<Expense> getExpensesByEvent(String inviteCode) {
+        return withTags(expenseRepository.getExpensesByEventInviteCode(
+            Event.normalizeInviteCode(inviteCode)));
+    }
+
+    /**
+     * gets a page of the expenses of an event, ordered by id
+     *
+     * @param inviteCode invite code of the event, in any case
+     * @param after      only expenses with a larger id are returned
+     * @param page       the number of expenses to return
+     * @return the expenses on the page
+     */
+    @Transactional(readOnly = true)
+    public List<Expense> getExpensePageByEvent(String inviteCode, long after, Pageable page) {
+        List<Long> ids = expenseRepository.findIdsByEventAfter(
+            Event.normalizeInviteCode(inviteCode), after, page);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return withTags(expenseRepository.findByIdInOrderByIdAsc(ids));
+    }
+
+    // The expenses are read with the participants they are split between, their tags are
+    // loaded here in batches, before the expenses leave the transaction
+    private static List<Expense> withTags(List<Expense> expenses) {
+        for (Expense expense : expenses) {
+            Hibernate.initialize(expense.getTags());
+        }
+        return expenses;
+    }
+
+    /**
+     * adds an expense to an event
+     *
+     * @param inviteCode invite code of the event, in any case
+     * @param expense    the expense to add
+     * @return the saved expense
+     */
+    @Transactional
+    public Expense addExpense(String inviteCode, Expense expense) {
+        String normalized = Event.normalizeInviteCode(inviteCode);
+        lockEvent(normalized);
+        expense.setEvent(eventRepository.getReferenceById(normalized));
+        return save(normalized, expense);
+    }
+
+    /**
+     * adds an expense to the event it holds
+     *
+     * @param expense the expense to add
+     * @return the saved expense
+     */
+    @Transactional
+    public Expense addExpense(Expense expense) {
+        String inviteCode = Event.normalizeInviteCode(expense.getEvent().getInviteCode());
+        lockEvent(inviteCode);
+        return save(inviteCode, expense);
+    }
+
+    private Expense save(String inviteCode, Expense expense) {
+        Expense saved = expenseRepository.save(expense);
+        balanceLedger.recordAdded(inviteCode, saved);
+        settlementService.invalidate(inviteCode);
+        return saved;
+    }
+
+    /**
+     * updates an expense. The event of an expense can't be changed, the other fields are
+     * only changed if they are given.
+     *
+     * @param id      id of the expense to update
+     * @param changes the fields to change
+     * @return an Optional containing the updated expense, or empty if it does not exist
+     */
+    @Transactional
+    public Optional<Expense> updateExpense(long id, Expense changes) {
+        lockEventOf(id);
+        Optional<Expense> existing = expenseRepository.findById(id);
+        if (existing.isEmpty()) {
+            return existing;
+        }
+        Expense expense = existing.get();
+        String inviteCode = expense.getEvent() == null ? null : expense.getEvent().getInviteCode();
+        Map<Long, Long> before = BalanceLedgerService.contribution(expense);
+        copyChanges(changes, expense);
+        Expense saved = expenseRepository.save(expense);
+        if (inviteCode != null) {
+            balanceLedger.recordUpdated(inviteCode, before, saved);
+            settlementService.invalidate(inviteCode);
+        }
+        return Optional.of(saved);
+    }
+
+    private static void copyChanges(Expense changes, Expense expense) {
+        if (changes.getAmount() != null) {
+            expense.setAmount(changes.getAmount());
+        }
+        if (changes.getSplitBetween() != null && !changes.getSplitBetween().isEmpty()) {
+            expense.setSplitBetween(changes.getSplitBetween());
+        }
+        if (changes.getName() != null) {
+            expense.setName(changes.getName());
+        }
+        if (changes.getCreator() != null) {
+            expense.setReceiver(changes.getCreator());
+        }
+        if (changes.getDate() != null) {
+            expense.setDate(changes.getDate());
+        }
+        expense.setTags(changes.getTags());
+    }
+
+    /**
+     * deletes an expense
+     *
+     * @param id id of the expense to delete
+     * @return an Optional containing the deleted expense, or empty if it does not exist
+     */
+    @Transactional
+    public Optional<Expense> deleteExpense(long id) {
+        lockEventOf(id);
+        Optional<Expense> expense = expenseRepository.findById(id);
+        if (expense.isEmpty()) {
+            return expense;
+        }
+        // Read before deleting, removing the expense clears its fields
+        Hibernate.initialize(expense.get().getTags());
+        String inviteCode = expense.get().getEvent() == null ? null
+            : expense.get().getEvent().getInviteCode();
+        Map<Long, Long> before = BalanceLedgerService.contribution(expense.get());
+        expenseRepository.delete(expense.get());
+        if (inviteCode != null) {
+            balanceLedger.recordRemoved(inviteCode, before);
+            settlementService.invalidate(inviteCode);
+        }
+        return expense;
+    }
+
+    // The event is locked before the expense is read, so its contribution can't change
+    // between reading it and taking it out of the balances
+    private void lockEventOf(long id) {
+        lockEvent(expenseRepository.findEventInviteCodeById(id).orElse(null));
+    }
+
+    // Every write locks the event first, the locked event is marked as mutated as well
+    private void lockEvent(String inviteCode) {
+        if (inviteCode != null) {
+            eventRepository.lockByInviteCode(inviteCode).ifPresent(eventSnapshotService::touch);
+        }
+    }
 }
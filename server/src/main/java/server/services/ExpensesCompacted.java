@@ -0,0 +1,10 @@
+package server.services;
+
+/**
+ * Published when settled participants were removed from the expenses of an event, so the
+ * clients looking at the event can be refreshed once the change is committed
+ *
+ * @param inviteCode invite code of the compacted event
+ */
+public record ExpensesCompacted(String inviteCode) {
+}
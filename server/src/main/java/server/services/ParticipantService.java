@@ -2,6 +2,8 @@ package server.services;
 
 import commons.Participant;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import server.Keyset;
 import server.database.ParticipantRepository;
 
 import java.util.List;
@@ -10,13 +12,17 @@ import java.util.Optional;
 @Service
 public class ParticipantService {
     private final ParticipantRepository participantRepository;
+    private final EventSnapshotService eventSnapshotService;
 
     /**
      * constructs a new ParticipantService with the provided ParticipantRepository
      * @param participantRepository repository used for participant-related operations
+     * @param eventSnapshotService service caching the JSON of every event
      */
-    public ParticipantService(ParticipantRepository participantRepository) {
+    public ParticipantService(ParticipantRepository participantRepository,
+                              EventSnapshotService eventSnapshotService) {
         this.participantRepository = participantRepository;
+        this.eventSnapshotService = eventSnapshotService;
     }
 
     /**
@@ -27,13 +33,24 @@ public class ParticipantService {
         return participantRepository.findAll();
     }
 
+    /**
+     * gets the participants following an id, ordered by id. One participant more than
+     * the limit is returned if there is one, so the caller can tell if a next page exists
+     * @param after id the participants follow
+     * @param limit number of participants on a page
+     * @return the participants following the id
+     */
+    public List<Participant> getParticipantsAfter(long after, int limit) {
+        return participantRepository.findByIdGreaterThanOrderByIdAsc(after, Keyset.fetch(limit));
+    }
+
     /**
      * gets a participant by its ID
      * @param id ID of the participant to retrieve
      * @return an Optional containing the participant if found, or empty if not found
      */
     public Optional<commons.Participant> getParticipantById(Long id) {
-        if (id < 0 || !participantRepository.existsById(id)) {
+        if (id < 0) {
             return Optional.empty();
         }
         return participantRepository.findById(id);
@@ -56,12 +73,18 @@ public class ParticipantService {
      * @param id ID of the participant to delete
      * @return an Optional containing the deleted participant if successful, or empty if not found
      */
+    @Transactional
     public Optional<commons.Participant> deleteParticipantById(Long id) {
-        if (id == null || !participantRepository.existsById(id)) {
+        if (id == null) {
             return Optional.empty();
         }
         var participant = participantRepository.findById(id);
-        participantRepository.deleteById(id);
+        if (participant.isPresent()) {
+            // Looked up before the participant is removed from its events, the events are
+            // marked in the same transaction so the change and the new time show up together
+            eventSnapshotService.touchEventsOf(id);
+            participantRepository.delete(participant.get());
+        }
         return participant;
     }
 
@@ -86,6 +109,7 @@ public class ParticipantService {
 
             // Save the updated participant
             participantRepository.save(existingParticipant);
+            eventSnapshotService.touchEventsOf(existingParticipant.getId());
             return true;
         } catch (Exception exception) {
             return false;
@@ -110,7 +134,8 @@ public class ParticipantService {
      * @return true when ok, false when bad!
      */
     public boolean checkParticipantId(Long id) {
-        return id != null && participantRepository.existsById(id);
+        // Looked up by id, so it is answered from the second-level cache when possible
+        return id != null && participantRepository.findById(id).isPresent();
     }
 
     /**
@@ -0,0 +1,111 @@
+package server.services;
+
+import commons.Debt;
+import commons.Event;
+import commons.SettlementMethod;
+import org.springframework.stereotype.Service;
+import server.database.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class SettlementService {
+    private final EventRepository eventRepository;
+    private final BalanceLedgerService balanceLedger;
+    private final Map<String, Map<SettlementMethod, CachedSettlement>> cache =
+        new ConcurrentHashMap<>();
+
+    private record CachedSettlement(LocalDateTime lastUpdateTime, List<Debt> debts) {
+    }
+
+    /**
+     * constructs a new SettlementService
+     *
+     * @param eventRepository repository used to load the events to settle
+     * @param balanceLedger   service keeping the net balances of every event
+     */
+    public SettlementService(EventRepository eventRepository,
+                             BalanceLedgerService balanceLedger) {
+        this.eventRepository = eventRepository;
+        this.balanceLedger = balanceLedger;
+    }
+
+    /**
+     * gets the minimized debts of an event using the settlement method chosen for it
+     *
+     * @param inviteCode invite code of the event, in any case
+     * @return an Optional containing the debts, or empty if the event does not exist
+     */
+    public Optional<List<Debt>> getSettlement(String inviteCode) {
+        return getSettlement(inviteCode, null);
+    }
+
+    /**
+     * gets the minimized debts of an event. The result is computed once and reused until the
+     * event is updated or the cache entry is invalidated.
+     *
+     * @param inviteCode invite code of the event, in any case
+     * @param method     the settlement method to use, or null for the one chosen for the event
+     * @return an Optional containing the debts, or empty if the event does not exist
+     */
+    public Optional<List<Debt>> getSettlement(String inviteCode, SettlementMethod method) {
+        if (inviteCode == null || inviteCode.isEmpty()) {
+            return Optional.empty();
+        }
+        String normalized = Event.normalizeInviteCode(inviteCode);
+        // Taken before loading the event, so an invalidation racing with the computation
+        // replaces this map and the stale result is never stored.
+        Map<SettlementMethod, CachedSettlement> perMethod =
+            cache.computeIfAbsent(normalized, code -> new ConcurrentHashMap<>());
+        Optional<Event> event = eventRepository.findFullByInviteCode(normalized);
+        if (event.isEmpty()) {
+            cache.remove(normalized, perMethod);
+            return Optional.empty();
+        }
+        SettlementMethod used = method == null ? event.get().getSettlementMethod() : method;
+        return Optional.of(settle(event.get(), used, perMethod));
+    }
+
+    private List<Debt> settle(Event event, SettlementMethod method,
+                              Map<SettlementMethod, CachedSettlement> perMethod) {
+        CachedSettlement cached = perMethod.get(method);
+        if (cached != null && Objects.equals(cached.lastUpdateTime(), event.getLastUpdateTime())) {
+            return cached.debts();
+        }
+        List<Debt> debts = List.copyOf(method.getStrategy()
+            .settle(event, balanceLedger.getBalances(event)));
+        CachedSettlement computed = new CachedSettlement(event.getLastUpdateTime(), debts);
+        cache.computeIfPresent(event.getInviteCode(), (code, current) -> {
+            if (current == perMethod) {
+                current.put(method, computed);
+            }
+            return current;
+        });
+        return debts;
+    }
+
+    /**
+     * drops the cached settlements of an event, to be called whenever it is mutated
+     *
+     * @param inviteCode invite code of the event, in any case
+     */
+    public void invalidate(String inviteCode) {
+        if (inviteCode != null) {
+            cache.remove(Event.normalizeInviteCode(inviteCode));
+        }
+    }
+
+    /**
+     * drops the cached settlements of every event the participant takes part in
+     *
+     * @param participantId id of the participant
+     */
+    public void invalidateForParticipant(long participantId) {
+        eventRepository.findInviteCodesByParticipantId(participantId).forEach(this::invalidate);
+    }
+}
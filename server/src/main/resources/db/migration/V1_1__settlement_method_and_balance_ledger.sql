@@ -0,0 +1,18 @@
+-- The settlement method of an event and the balance ledger came after the initial schema.
+-- Databases Hibernate kept up to date until migrations were versioned already have them,
+-- so they are only created when missing.
+
+alter table event add column if not exists settlement_method varchar(255);
+
+create sequence if not exists participant_balance_seq start with 1 increment by 50;
+
+create table if not exists participant_balance (
+    id bigint not null,
+    amount bigint not null,
+    event_invite_code varchar(255),
+    participant_id bigint not null,
+    primary key (id)
+);
+
+create unique index if not exists participant_balance_event_participant
+    on participant_balance (event_invite_code, participant_id);
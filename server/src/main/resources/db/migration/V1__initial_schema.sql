@@ -0,0 +1,97 @@
+-- The schema as Hibernate generated it before migrations were versioned. Databases created
+-- back then are baselined at this version, so this only runs on an empty database.
+
+create sequence debt_seq start with 1 increment by 50;
+create sequence expense_seq start with 1 increment by 50;
+create sequence expense_type_seq start with 1 increment by 50;
+create sequence participant_seq start with 1 increment by 50;
+
+create table admin (
+    username varchar(255) not null,
+    email varchar(255),
+    password varchar(255),
+    primary key (username)
+);
+
+create table domain_model (
+    id bigint generated by default as identity,
+    domain_uuid uuid not null unique,
+    primary key (id)
+);
+
+create table participant (
+    id bigint not null,
+    bic varchar(255),
+    email varchar(255),
+    iban varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table event (
+    invite_code varchar(255) not null,
+    creation_time timestamp(6),
+    date_time timestamp(6),
+    last_update_time timestamp(6),
+    name varchar(255),
+    primary key (invite_code)
+);
+
+create table event_participants (
+    event_invite_code varchar(255) not null,
+    participants_id bigint not null,
+    primary key (event_invite_code, participants_id),
+    foreign key (event_invite_code) references event,
+    foreign key (participants_id) references participant
+);
+
+create table expense_type (
+    id bigint not null,
+    color varchar(255),
+    name varchar(255),
+    event_id varchar(255),
+    primary key (id),
+    foreign key (event_id) references event
+);
+
+create table expense (
+    id bigint not null,
+    amount_currency varchar(255),
+    amount_fraction_divider bigint not null,
+    amount_value bigint not null,
+    date date,
+    name varchar(255),
+    event_id varchar(255),
+    participant_id bigint,
+    primary key (id),
+    foreign key (event_id) references event,
+    foreign key (participant_id) references participant
+);
+
+create table expense_participants (
+    expense_id bigint not null,
+    split_between_id bigint not null,
+    primary key (expense_id, split_between_id),
+    foreign key (expense_id) references expense,
+    foreign key (split_between_id) references participant
+);
+
+create table expense_tags (
+    expense_id bigint not null,
+    tags_id bigint not null,
+    primary key (expense_id, tags_id),
+    foreign key (expense_id) references expense,
+    foreign key (tags_id) references expense_type
+);
+
+create table debt (
+    id bigint not null,
+    currency varchar(255),
+    fraction_divider bigint not null,
+    internal_value bigint not null,
+    creditor_id bigint,
+    debtor_id bigint,
+    primary key (id),
+    foreign key (creditor_id) references participant,
+    foreign key (debtor_id) references participant
+);
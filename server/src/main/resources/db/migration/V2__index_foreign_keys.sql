@@ -0,0 +1,12 @@
+-- Index the foreign keys the event screens filter and join on. The expenses of an event are
+-- paged by id, so their index holds the id as well to serve the order without sorting.
+-- The join tables are keyed by their owner first, these indexes serve the other direction.
+
+create index if not exists expense_event_id on expense (event_id, id);
+create index if not exists expense_participant on expense (participant_id);
+create index if not exists expense_type_event on expense_type (event_id);
+create index if not exists event_participants_participant
+    on event_participants (participants_id);
+create index if not exists expense_participants_participant
+    on expense_participants (split_between_id);
+create index if not exists expense_tags_tag on expense_tags (tags_id);
@@ -0,0 +1,3 @@
+-- Databases created by Hibernate store the settlement method as an enum of the methods known
+-- back then, so a new method could not be saved. Stored as text it takes any method.
+alter table event alter column settlement_method set data type varchar(255);
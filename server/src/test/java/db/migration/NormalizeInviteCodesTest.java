@@ -0,0 +1,131 @@
+package db.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+class NormalizeInviteCodesTest {
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:normalize-invite-codes");
+        runScript("V1__initial_schema.sql");
+        runScript("V1_1__settlement_method_and_balance_ledger.sql");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private void runScript(String name) throws IOException, SQLException {
+        String script;
+        try (InputStream in = getClass().getResourceAsStream("/db/migration/" + name)) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private void execute(String... statements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private List<String> strings(String query) throws SQLException {
+        List<String> result = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(query)) {
+            while (rows.next()) {
+                result.add(rows.getString(1));
+            }
+        }
+        return result;
+    }
+
+    private void insertEvent(String inviteCode) throws SQLException {
+        execute("insert into event (invite_code, name, settlement_method) values ('"
+            + inviteCode + "', 'name " + inviteCode + "', 'GREEDY')");
+    }
+
+    @Test
+    void testNormalizeMovesEventWithEverythingReferringToIt() throws SQLException {
+        insertEvent("abc123");
+        execute("insert into participant (id, name) values (1, 'Alice')",
+            "insert into event_participants values ('abc123', 1)",
+            "insert into expense_type (id, name, event_id) values (1, 'food', 'abc123')",
+            "insert into expense (id, amount_fraction_divider, amount_value, event_id, "
+                + "participant_id) values (1, 100, 500, 'abc123', 1)",
+            "insert into participant_balance values (1, 0, 'abc123', 1)");
+
+        Assertions.assertEquals(1, NormalizeInviteCodes.normalize(connection));
+
+        Assertions.assertEquals(List.of("ABC123"), strings("select invite_code from event"));
+        Assertions.assertEquals(List.of("name abc123"), strings("select name from event"));
+        Assertions.assertEquals(List.of("GREEDY"), strings("select settlement_method from event"));
+        Assertions.assertEquals(List.of("ABC123"),
+            strings("select event_invite_code from event_participants"));
+        Assertions.assertEquals(List.of("ABC123"), strings("select event_id from expense_type"));
+        Assertions.assertEquals(List.of("ABC123"), strings("select event_id from expense"));
+        Assertions.assertEquals(List.of("ABC123"),
+            strings("select event_invite_code from participant_balance"));
+    }
+
+    @Test
+    void testVersionIsFour() {
+        NormalizeInviteCodes migration = new NormalizeInviteCodes();
+        Assertions.assertEquals(MigrationVersion.fromVersion("4"), migration.getVersion());
+        Assertions.assertEquals("NormalizeInviteCodes", migration.getDescription());
+    }
+
+    @Test
+    void testNormalizeFailsWhenCodeIsTaken() throws SQLException {
+        insertEvent("ABC123");
+        insertEvent("abc123");
+        insertEvent("aBc123");
+        insertEvent("def456");
+
+        FlywayException e = Assertions.assertThrows(FlywayException.class,
+            () -> NormalizeInviteCodes.normalize(connection));
+
+        Assertions.assertTrue(e.getMessage().contains("ABC123 [aBc123, abc123]"));
+        Assertions.assertEquals(List.of("ABC123", "aBc123", "abc123", "def456"),
+            strings("select invite_code from event order by invite_code"));
+    }
+
+    @Test
+    void testNormalizeFailsWhenCodesCollide() throws SQLException {
+        insertEvent("abc123");
+        insertEvent("aBc123");
+
+        FlywayException e = Assertions.assertThrows(FlywayException.class,
+            () -> NormalizeInviteCodes.normalize(connection));
+
+        Assertions.assertTrue(e.getMessage().contains("ABC123 [aBc123, abc123]"));
+        Assertions.assertEquals(List.of("aBc123", "abc123"),
+            strings("select invite_code from event order by invite_code"));
+    }
+}
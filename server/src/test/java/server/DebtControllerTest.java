@@ -0,0 +1,42 @@
+package server;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import server.api.DebtController;
+import server.services.DebtService;
+import server.services.ExpenseCompactionService;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DebtController.class)
+public class DebtControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DebtUpdateService debtUpdateService;
+
+    @MockBean
+    private DebtService debtService;
+
+    @MockBean
+    private ExpenseCompactionService compaction;
+
+    @Test
+    void markDebtAsReceivedCompactsOnceBeforeNotifying() throws Exception {
+        mockMvc.perform(post("/api/debts/ABCDEF/received"))
+            .andExpect(status().isOk());
+
+        InOrder order = inOrder(compaction, debtUpdateService);
+        order.verify(compaction).compact("ABCDEF");
+        order.verify(debtUpdateService).notifyUpdate("ABCDEF");
+        verify(compaction, times(1)).compact(anyString());
+    }
+}
@@ -0,0 +1,66 @@
+package server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DebtUpdateServiceTest {
+    private DebtUpdateService service;
+    private List<String> received;
+
+    @BeforeEach
+    public void setup() {
+        service = new DebtUpdateService(2);
+        received = new ArrayList<>();
+    }
+
+    @Test
+    public void notifyUpdate_callsListenersOnce() {
+        assertTrue(service.subscribe("ABC", received::add));
+        service.notifyUpdate("ABC");
+        service.notifyUpdate("ABC");
+        assertEquals(List.of("Update for event ID: ABC"), received);
+        assertEquals(0, service.getWaitingListeners("ABC"));
+    }
+
+    @Test
+    public void notifyUpdate_onlyNotifiesEvent() {
+        service.subscribe("ABC", received::add);
+        service.notifyUpdate("DEF");
+        assertTrue(received.isEmpty());
+        assertEquals(1, service.getWaitingListeners("ABC"));
+    }
+
+    @Test
+    public void notifyUpdate_ignoresCaseOfInviteCode() {
+        service.subscribe("abc", received::add);
+        assertEquals(1, service.getWaitingListeners("ABC"));
+        service.notifyUpdate("Abc");
+        assertEquals(List.of("Update for event ID: ABC"), received);
+    }
+
+    @Test
+    public void subscribe_rejectsWhenEventIsFull() {
+        assertTrue(service.subscribe("ABC", received::add));
+        assertTrue(service.subscribe("ABC", update -> { }));
+        assertFalse(service.subscribe("ABC", update -> { }));
+        assertTrue(service.subscribe("DEF", update -> { }));
+        assertEquals(new DebtUpdateService.Metrics(2, 3, 0, 1), service.getMetrics());
+    }
+
+    @Test
+    public void removeUpdateListener_removesListener() {
+        Consumer<String> listener = received::add;
+        service.subscribe("ABC", listener);
+        assertTrue(service.removeUpdateListener("ABC", listener));
+        assertFalse(service.removeUpdateListener("ABC", listener));
+        service.notifyUpdate("ABC");
+        assertTrue(received.isEmpty());
+        assertEquals(new DebtUpdateService.Metrics(0, 0, 0, 0), service.getMetrics());
+    }
+}
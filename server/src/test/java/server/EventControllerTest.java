@@ -1,24 +1,47 @@
 package server;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Debt;
 import commons.Event;
+import commons.EventSummary;
+import commons.ImportResult;
+import commons.Monetary;
+import commons.Participant;
+import commons.ParticipantBalance;
+import commons.SettlementMethod;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import server.api.EventController;
 import server.services.EventService;
+import server.services.BalanceLedgerService;
+import server.services.EventExportService;
+import server.services.EventImportService;
+import server.services.SettlementService;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +57,18 @@ public class EventControllerTest {
     @MockBean
     private EventService eventService;
 
+    @MockBean
+    private SettlementService settlementService;
+
+    @MockBean
+    private BalanceLedgerService balanceLedger;
+
+    @MockBean
+    private EventExportService eventExport;
+
+    @MockBean
+    private EventImportService eventImport;
+
     @Test
     public void getAllEvents_Authenticated_ReturnsEventsList() throws Exception {
         var auth = "Basic QWxhZGRpbjpkOWZiOTJlM2JiZTY1YmUxZjFhYWQ0YTgyZWVmNDU2N2Y3YTFlYmUyY2QxMTBjODA0OWI5Njk4YmU3YTcwYzg4";
@@ -48,6 +83,127 @@ public class EventControllerTest {
             .andExpect(jsonPath("$[0].inviteCode").value(event.getInviteCode()));
     }
 
+    @Test
+    public void getAllEvents_WithLimit_ReturnsPageAndCursor() throws Exception {
+        var auth = "Basic QWxhZGRpbjpkOWZiOTJlM2JiZTY1YmUxZjFhYWQ0YTgyZWVmNDU2N2Y3YTFlYmUyY2QxMTBjODA0OWI5Njk4YmU3YTcwYzg4";
+        Event first = new Event("AAA111", "First", LocalDateTime.now(), Collections.emptySet(), new HashSet<>());
+        Event second = new Event("BBB222", "Second", LocalDateTime.now(), Collections.emptySet(), new HashSet<>());
+        given(eventService.isAuthenticated(auth)).willReturn(true);
+        given(eventService.getEventsAfter("", 1)).willReturn(List.of(first, second));
+
+        mockMvc.perform(get("/api/events").param("limit", "1")
+                .header("Authorization", auth))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].inviteCode").value("AAA111"))
+            .andExpect(header().string(Keyset.NEXT_CURSOR, Keyset.encode("AAA111")));
+    }
+
+    @Test
+    public void getAllEvents_AfterCursor_ReturnsFollowingEvents() throws Exception {
+        var auth = "Basic QWxhZGRpbjpkOWZiOTJlM2JiZTY1YmUxZjFhYWQ0YTgyZWVmNDU2N2Y3YTFlYmUyY2QxMTBjODA0OWI5Njk4YmU3YTcwYzg4";
+        Event second = new Event("BBB222", "Second", LocalDateTime.now(), Collections.emptySet(), new HashSet<>());
+        given(eventService.isAuthenticated(auth)).willReturn(true);
+        given(eventService.getEventsAfter("AAA111", Keyset.DEFAULT_LIMIT)).willReturn(List.of(second));
+
+        mockMvc.perform(get("/api/events").param("after", Keyset.encode("AAA111"))
+                .header("Authorization", auth))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].inviteCode").value("BBB222"))
+            .andExpect(header().doesNotExist(Keyset.NEXT_CURSOR));
+    }
+
+    @Test
+    public void getAllEvents_InvalidLimit_ReturnsBadRequest() throws Exception {
+        given(eventService.isAuthenticated("auth")).willReturn(true);
+
+        mockMvc.perform(get("/api/events").param("limit", "0")
+                .header("Authorization", "auth"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getSummaries_Authenticated_ReturnsPage() throws Exception {
+        var auth = "Basic QWxhZGRpbjpkOWZiOTJlM2JiZTY1YmUxZjFhYWQ0YTgyZWVmNDU2N2Y3YTFlYmUyY2QxMTBjODA0OWI5Njk4YmU3YTcwYzg4";
+        EventSummary summary = new EventSummary("ABC123", "Event Name", LocalDateTime.now(), LocalDateTime.now(), 3, 2);
+        summary.setTotalAmount(1250);
+        given(eventService.getEventSummaries(1, 20)).willReturn(List.of(summary));
+        given(eventService.isAuthenticated(auth)).willReturn(true);
+
+        mockMvc.perform(get("/api/events/summary").param("page", "1").param("size", "20")
+                .header("Authorization", auth))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].inviteCode").value("ABC123"))
+            .andExpect(jsonPath("$[0].participantCount").value(3))
+            .andExpect(jsonPath("$[0].expenseCount").value(2))
+            .andExpect(jsonPath("$[0].totalAmount").value(1250));
+    }
+
+    @Test
+    public void getSummaries_InvalidPageSize_ReturnsBadRequest() throws Exception {
+        given(eventService.isAuthenticated("auth")).willReturn(true);
+
+        mockMvc.perform(get("/api/events/summary").param("size", "0")
+                .header("Authorization", "auth"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getSummaries_Unauthorized_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/events/summary")
+                .header("Authorization", "wrong_header"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getJsonDump_Authenticated_StreamsEvents() throws Exception {
+        given(eventService.isAuthenticated("auth")).willReturn(true);
+        given(eventExport.export(any())).willAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("[{\"inviteCode\":\"ABC123\"}]".getBytes(StandardCharsets.UTF_8));
+            return 1;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/events/jsonDump")
+                .header("Authorization", "auth"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(jsonPath("$[0].inviteCode").value("ABC123"));
+    }
+
+    @Test
+    public void getJsonDump_AcceptsGzip_StreamsCompressedEvents() throws Exception {
+        given(eventService.isAuthenticated("auth")).willReturn(true);
+        given(eventExport.export(any())).willAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("[]".getBytes(StandardCharsets.UTF_8));
+            return 0;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/events/jsonDump")
+                .header("Authorization", "auth")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("[]", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void getJsonDump_Unauthorized_Returns401() throws Exception {
+        mockMvc.perform(get("/api/events/jsonDump")
+                .header("Authorization", "wrong_header"))
+            .andExpect(status().isUnauthorized());
+        verify(eventExport, never()).export(any());
+    }
+
     @Test
     public void getEventById_NotFound_Returns400() throws Exception {
         given(eventService.getEventByInviteCode("NOT_EXIST")).willReturn(Optional.empty());
@@ -74,4 +230,101 @@ public class EventControllerTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.inviteCode").value("NEWCODE"));
     }
+
+    @Test
+    public void importEvents_Authenticated_ReturnsResults() throws Exception {
+        Event event = new Event("NEWCODE", "New Event", LocalDateTime.now(), Collections.emptySet(), new HashSet<>());
+        Event taken = new Event("TAKEN", "Taken Event", LocalDateTime.now(), Collections.emptySet(), new HashSet<>());
+        given(eventService.isAuthenticated("auth")).willReturn(true);
+        given(eventImport.importEvents(anyList())).willReturn(List.of(ImportResult.imported("NEWCODE"),
+            new ImportResult("TAKEN", ImportResult.Status.DUPLICATE, "invite code is taken")));
+
+        mockMvc.perform(post("/api/events/import")
+                .header("Authorization", "auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(event, taken))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].status").value("IMPORTED"))
+            .andExpect(jsonPath("$[1].inviteCode").value("TAKEN"))
+            .andExpect(jsonPath("$[1].status").value("DUPLICATE"));
+    }
+
+    @Test
+    public void importEvents_Unauthenticated_Returns401() throws Exception {
+        mockMvc.perform(post("/api/events/import")
+                .header("Authorization", "wrong_header")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+            .andExpect(status().isUnauthorized());
+        verify(eventImport, never()).importEvents(anyList());
+    }
+
+    @Test
+    public void importStream_Gzipped_ReturnsRejectedAndCount() throws Exception {
+        byte[] lines = "{\"inviteCode\":\"NEWCODE\",\"name\":\"New Event\"}\n"
+            .getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(body)) {
+            gzip.write(lines);
+        }
+        given(eventService.isAuthenticated("auth")).willReturn(true);
+        given(eventImport.importStream(any(), anyList())).willAnswer(invocation -> {
+            assertEquals(new String(lines, StandardCharsets.UTF_8),
+                new String(invocation.<InputStream>getArgument(0).readAllBytes(), StandardCharsets.UTF_8));
+            invocation.<List<ImportResult>>getArgument(1)
+                .add(new ImportResult("TAKEN", ImportResult.Status.DUPLICATE, "invite code is taken"));
+            return 1L;
+        });
+
+        mockMvc.perform(post("/api/events/import")
+                .header("Authorization", "auth")
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body.toByteArray()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(EventImportService.IMPORTED_COUNT, "1"))
+            .andExpect(jsonPath("$[0].inviteCode").value("TAKEN"));
+        verify(eventImport, never()).importEvents(anyList());
+    }
+
+    @Test
+    public void getSettlement_UnknownEvent_Returns404() throws Exception {
+        given(settlementService.getSettlement("NOT_EXIST", null)).willReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/events/NOT_EXIST/settlement"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getSettlement_WithMethod_ReturnsDebts() throws Exception {
+        Participant debtor = new Participant("Debtor", "", "", "");
+        Participant creditor = new Participant("Creditor", "", "", "");
+        given(settlementService.getSettlement("ABC123", SettlementMethod.GREEDY))
+            .willReturn(Optional.of(List.of(new Debt(debtor, new Monetary(500), creditor))));
+
+        mockMvc.perform(get("/api/events/ABC123/settlement").param("method", "GREEDY"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].debtor.name").value("Debtor"))
+            .andExpect(jsonPath("$[0].creditor.name").value("Creditor"));
+    }
+
+    @Test
+    public void getBalances_ExistingEvent_ReturnsBalances() throws Exception {
+        given(eventService.exists("ABC123")).willReturn(true);
+        given(balanceLedger.getBalanceRows("ABC123"))
+            .willReturn(List.of(new ParticipantBalance("ABC123", 1, 500)));
+
+        mockMvc.perform(get("/api/events/ABC123/balances"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].participantId").value(1))
+            .andExpect(jsonPath("$[0].amount").value(500));
+    }
+
+    @Test
+    public void getBalances_UnknownEvent_Returns404() throws Exception {
+        given(eventService.exists("NOT_EXIST")).willReturn(false);
+
+        mockMvc.perform(get("/api/events/NOT_EXIST/balances"))
+            .andExpect(status().isNotFound());
+    }
 }
@@ -10,11 +10,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import server.api.ExpenseController;
 import server.database.EventRepository;
 import server.database.ExpenseRepository;
+import server.services.BalanceLedgerService;
+import server.services.EventSnapshotService;
+import server.services.ExpenseService;
+import server.services.SettlementService;
 import jakarta.persistence.EntityNotFoundException;
 
 import java.time.LocalDate;
@@ -29,6 +34,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ExpenseController.class)
+@Import(ExpenseService.class)
 public class ExpenseControllerTest {
 
     @Autowired
@@ -40,6 +46,15 @@ public class ExpenseControllerTest {
     @MockBean
     private EventRepository eventRepository;
 
+    @MockBean
+    private SettlementService settlementService;
+
+    @MockBean
+    private BalanceLedgerService balanceLedger;
+
+    @MockBean
+    private EventSnapshotService eventSnapshotService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -80,6 +95,41 @@ public class ExpenseControllerTest {
         verify(expenseRepository, times(1)).getExpensesByEventInviteCode("ABCGEG");
     }
 
+    @Test
+    public void getByEvent_withLimit_shouldReturnPageAndCursor() throws Exception {
+        when(expenseRepository.findIdsByEventAfter(eq("ABCDEF"), eq(Long.MIN_VALUE), any()))
+                .thenReturn(List.of(1L, 2L));
+        when(expenseRepository.findByIdInOrderByIdAsc(List.of(1L, 2L)))
+                .thenReturn(List.of(testExpense, testExpense));
+
+        mockMvc.perform(get("/api/expenses/by_event/{id}", "ABCDEF").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(Keyset.NEXT_CURSOR, Keyset.encode(1L)));
+
+        verify(expenseRepository, never()).getExpensesByEventInviteCode(anyString());
+    }
+
+    @Test
+    public void getByEvent_pastLastPage_shouldReturnEmptyList() throws Exception {
+        when(expenseRepository.findIdsByEventAfter(eq("ABCDEF"), eq(1L), any()))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/api/expenses/by_event/{id}", "ABCDEF")
+                        .param("after", Keyset.encode(1L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist(Keyset.NEXT_CURSOR));
+
+        verify(expenseRepository, never()).findByIdInOrderByIdAsc(any());
+    }
+
+    @Test
+    public void getByEvent_invalidCursor_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/expenses/by_event/{id}", "ABCDEF").param("after", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void addExpense_valid_shouldReturnNoContent() throws Exception {
         String expenseJson = objectMapper.writeValueAsString(testExpense);
@@ -143,22 +193,34 @@ public class ExpenseControllerTest {
 
     @Test
     public void deleteById_existingId_shouldReturnNoContent() throws Exception {
-        when(expenseRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(testExpense));
 
         mockMvc.perform(delete("/api/expenses/{id}", 1L))
                 .andExpect(status().isNoContent());
 
-        verify(expenseRepository, times(1)).deleteById(1L);
+        verify(expenseRepository, times(1)).delete(testExpense);
+        verify(expenseRepository, never()).existsById(anyLong());
     }
 
     @Test
     public void deleteById_nonExistingId_shouldReturnNotFound() throws Exception {
-        when(expenseRepository.existsById(anyLong())).thenReturn(false);
+        when(expenseRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         mockMvc.perform(delete("/api/expenses/{id}", 99L))
                 .andExpect(status().isNotFound());
 
-        verify(expenseRepository, never()).deleteById(99L);
+        verify(expenseRepository, never()).delete(any());
+    }
+
+    @Test
+    public void deleteById_existingExpense_shouldRevertBalances() throws Exception {
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(testExpense));
+
+        mockMvc.perform(delete("/api/expenses/{id}", 1L))
+                .andExpect(status().isNoContent());
+
+        verify(balanceLedger, times(1)).recordRemoved(eq("ABCDEF"), anyMap());
+        verify(settlementService, times(1)).invalidate("ABCDEF");
     }
 
 }
@@ -0,0 +1,69 @@
+package server;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetTest {
+
+    @Test
+    void isPaged() {
+        assertFalse(Keyset.isPaged(null, null));
+        assertTrue(Keyset.isPaged(10, null));
+        assertTrue(Keyset.isPaged(null, "MQ"));
+    }
+
+    @Test
+    void limitDefaultsAndIsBounded() {
+        assertEquals(Keyset.DEFAULT_LIMIT, Keyset.limit(null));
+        assertEquals(20, Keyset.limit(20));
+        assertThrows(IllegalArgumentException.class, () -> Keyset.limit(0));
+        assertThrows(IllegalArgumentException.class, () -> Keyset.limit(Keyset.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void fetchAsksForOneMoreRow() {
+        assertEquals(11, Keyset.fetch(10).getPageSize());
+        assertEquals(0, Keyset.fetch(10).getPageNumber());
+    }
+
+    @Test
+    void cursorRoundTrips() {
+        assertEquals(42L, Keyset.afterId(Keyset.encode(42L)));
+        assertEquals("ABC123", Keyset.afterKey(Keyset.encode("ABC123")));
+        assertNotEquals("42", Keyset.encode(42L));
+    }
+
+    @Test
+    void firstPageCursor() {
+        assertEquals(Long.MIN_VALUE, Keyset.afterId(null));
+        assertEquals("", Keyset.afterKey(null));
+    }
+
+    @Test
+    void invalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> Keyset.afterId("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> Keyset.afterId(Keyset.encode("x")));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        ResponseEntity<List<Long>> page = Keyset.page(List.of(1L, 2L), 2, Function.identity());
+
+        assertEquals(List.of(1L, 2L), page.getBody());
+        assertNull(page.getHeaders().getFirst(Keyset.NEXT_CURSOR));
+    }
+
+    @Test
+    void fullPageDropsExtraRowAndPointsPastLastRow() {
+        ResponseEntity<List<Long>> page = Keyset.page(List.of(1L, 2L, 3L), 2,
+            Function.identity());
+
+        assertEquals(List.of(1L, 2L), page.getBody());
+        assertEquals(2L, Keyset.afterId(page.getHeaders().getFirst(Keyset.NEXT_CURSOR)));
+    }
+}
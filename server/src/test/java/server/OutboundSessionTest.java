@@ -0,0 +1,62 @@
+package server;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class OutboundSessionTest {
+
+    @Test
+    public void sendMessage_deliversToClient() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        OutboundSession outbound = new OutboundSession(session, 1000, 1024);
+        TextMessage message = new TextMessage("hello");
+
+        outbound.sendMessage(message);
+
+        verify(session).sendMessage(message);
+        assertEquals(0, outbound.getQueueDepth());
+    }
+
+    @Test
+    public void sendRefresh_coalescesWhileClientIsBusy() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        OutboundSession outbound = new OutboundSession(session, 60_000, 1024 * 1024);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).doNothing().when(session).sendMessage(any());
+
+        Thread slowSend = new Thread(() -> {
+            try {
+                outbound.sendMessage(new TextMessage("slow"));
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+        slowSend.start();
+        sending.await();
+        TextMessage refresh = new TextMessage("refresh");
+        outbound.sendRefresh(refresh);
+        outbound.sendRefresh(refresh);
+        outbound.sendRefresh(refresh);
+        assertEquals(1, outbound.getQueueDepth());
+        assertEquals(2, outbound.getCoalescedRefreshes());
+        release.countDown();
+        slowSend.join();
+
+        verify(session, times(2)).sendMessage(any());
+        assertEquals(0, outbound.getQueueDepth());
+        outbound.sendRefresh(refresh);
+        verify(session, times(3)).sendMessage(any());
+    }
+}
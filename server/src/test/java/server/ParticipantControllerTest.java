@@ -13,6 +13,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import server.api.ParticipantController;
 import org.springframework.http.ResponseEntity;
 import server.services.ParticipantService;
+import server.services.SettlementService;
 
 import java.util.Arrays;
 import java.util.Optional;
@@ -31,6 +32,9 @@ public class ParticipantControllerTest {
     @MockBean
     private ParticipantService participantService;
 
+    @MockBean
+    private SettlementService settlementService;
+
     private Participant participant;
 
     @BeforeEach
@@ -50,6 +54,21 @@ public class ParticipantControllerTest {
             .andExpect(jsonPath("$[0].bic").value(participant.getBic()));
     }
 
+    @Test
+    void getAllParticipantsWithLimitShouldReturnPage() throws Exception {
+        participant.setId(7);
+        Participant next = new Participant("Jane Doe", "janedoe@example.com", "IBAN54321", "BIC09876");
+        next.setId(8);
+        Mockito.when(participantService.getParticipantsAfter(Long.MIN_VALUE, 1))
+            .thenReturn(Arrays.asList(participant, next));
+
+        mockMvc.perform(get("/api/participants").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].name").value(participant.getName()))
+            .andExpect(header().string(Keyset.NEXT_CURSOR, Keyset.encode(7L)));
+    }
+
     @Test
     void getParticipantByIdShouldReturnParticipant() throws Exception {
         Mockito.when(participantService.getParticipantById(anyLong())).thenReturn(Optional.of(participant));
@@ -0,0 +1,115 @@
+package server;
+
+import commons.Event;
+import commons.Expense;
+import commons.ImportResult;
+import commons.Monetary;
+import commons.Participant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import server.services.EventImportService;
+import server.services.EventService;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Imports and reads the same events with every database profile and prints how long it took.
+ * Runs with ./gradlew :server:loadTest, not with the unit tests. The postgres profile runs on
+ * an in-process H2 database in PostgreSQL mode unless SPLITTY_DB_URL points to a real server.
+ */
+@Tag("load")
+class PersistenceLoadTest {
+    private static final int EVENTS = Integer.getInteger("splitty.load.events", 2000);
+    private static final int PARTICIPANTS = 4;
+    private static final int EXPENSES = 10;
+    private static final int THREADS = 8;
+    private static final String IN_PROCESS_POSTGRES =
+        "jdbc:h2:mem:splitty-load;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE";
+
+    @TempDir
+    static Path dataDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"h2", "postgres"})
+    void testImportAndReadThroughput(String profile) throws Exception {
+        // Default properties, so an SPLITTY_DB_URL environment variable still wins
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Main.class)
+                .profiles(profile)
+                .properties(Map.of("server.port", "0",
+                    "splitty.h2.path", dataDir.resolve("load").toString(),
+                    "SPLITTY_DB_URL", IN_PROCESS_POSTGRES))
+                .run()) {
+            List<Event> events = IntStream.range(0, EVENTS)
+                .mapToObj(PersistenceLoadTest::event).toList();
+            List<String> inviteCodes = events.stream().map(Event::getInviteCode).toList();
+
+            long start = System.nanoTime();
+            long imported = context.getBean(EventImportService.class).importEvents(events)
+                .stream().filter(ImportResult::isImported).count();
+            long importMillis = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            long found = readAll(context.getBean(EventService.class), inviteCodes);
+            long readMillis = (System.nanoTime() - start) / 1_000_000;
+
+            Assertions.assertEquals(EVENTS, imported);
+            Assertions.assertEquals(EVENTS, found);
+            System.out.printf("%s: imported %d events in %d ms, read them on %d threads in %d ms%n",
+                profile, EVENTS, importMillis, THREADS, readMillis);
+        }
+    }
+
+    private static long readAll(EventService eventService, List<String> inviteCodes)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Boolean>> reads = new ArrayList<>();
+            for (String inviteCode : inviteCodes) {
+                reads.add(pool.submit(() ->
+                    eventService.getEventByInviteCode(inviteCode).isPresent()));
+            }
+            long found = 0;
+            for (Future<Boolean> read : reads) {
+                found += read.get() ? 1 : 0;
+            }
+            return found;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Event event(int i) {
+        Event event = new Event(String.format("LOAD%06d", i), "load " + i, LocalDateTime.now(),
+            new HashSet<>(), new HashSet<>());
+        List<Participant> participants = new ArrayList<>();
+        for (int p = 0; p < PARTICIPANTS; p++) {
+            Participant participant = new Participant("P" + i + "-" + p, "p" + p + "@load.com",
+                "NLTEST", "ABCDEF12");
+            participant.setId(p + 1);
+            participants.add(participant);
+        }
+        event.getParticipants().addAll(participants);
+        event.setExpenses(new HashSet<>());
+        for (int e = 0; e < EXPENSES; e++) {
+            event.getExpenses().add(new Expense(event, "expense " + e,
+                participants.get(e % PARTICIPANTS), new Monetary(100 + e), LocalDate.now(),
+                new HashSet<>(participants)));
+        }
+        return event;
+    }
+}
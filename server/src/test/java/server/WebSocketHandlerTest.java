@@ -11,17 +11,31 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import server.api.*;
+import server.database.EventRepository;
+import server.services.EventSnapshotService;
+import server.services.ExpensesCompacted;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.Mockito.*;
 
@@ -42,6 +56,10 @@ public class WebSocketHandlerTest {
     private ExpenseController expenseController;
     @MockBean
     private ExpenseTypeController expenseTypeController;
+    @MockBean
+    private EventSnapshotService eventSnapshotService;
+    @MockBean
+    private EventRepository eventRepository;
     @InjectMocks
     private WebSocketHandler mockSession;
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -398,4 +416,181 @@ public class WebSocketHandlerTest {
 
         }
     }
+
+    @Test
+    void updateClients_onlyNotifiesSessionsOfTheSameEvent() throws Exception {
+        WebSocketSession sender = mock(WebSocketSession.class);
+        WebSocketSession sameEvent = mock(WebSocketSession.class);
+        WebSocketSession otherEvent = mock(WebSocketSession.class);
+        openOnEvent(sender, "FANOUT1");
+        openOnEvent(sameEvent, "FANOUT1");
+        openOnEvent(otherEvent, "FANOUT2");
+        clearInvocations(sender, sameEvent, otherEvent);
+
+        WebSocketMessage wb = new WebSocketMessage();
+        wb.setEndpoint("api/participants");
+        wb.setMethod("PATCH");
+        TextMessage update = new TextMessage(objectMapper.writeValueAsString(wb));
+        webSocketHandler.handleTextMessage(sender, update);
+        webSocketHandler.afterConnectionClosed(sameEvent, null);
+        webSocketHandler.handleTextMessage(sender, update);
+
+        verify(sameEvent, times(1)).sendMessage(any(TextMessage.class));
+        verify(sender, never()).sendMessage(any(TextMessage.class));
+        verify(otherEvent, never()).sendMessage(any(TextMessage.class));
+        webSocketHandler.afterConnectionClosed(sender, null);
+        webSocketHandler.afterConnectionClosed(otherEvent, null);
+    }
+
+    @Test
+    void handleExpenseTypes_pushesDeltaToSessionsOfTheSameEvent() throws Exception {
+        WebSocketSession sender = mock(WebSocketSession.class);
+        WebSocketSession sameEvent = mock(WebSocketSession.class);
+        WebSocketSession otherEvent = mock(WebSocketSession.class);
+        openOnEvent(sender, "DELTA1");
+        openOnEvent(sameEvent, "DELTA1");
+        openOnEvent(otherEvent, "DELTA2");
+        clearInvocations(sender, sameEvent, otherEvent);
+        ExpenseType tag = new ExpenseType("boss", "orange", null);
+        tag.setId(5);
+        ExpenseTypeController tags = (ExpenseTypeController)
+            ReflectionTestUtils.getField(webSocketHandler, "expenseTypeController");
+        when(tags.update(any())).thenReturn(ResponseEntity.ok(tag));
+
+        WebSocketMessage wb = new WebSocketMessage();
+        wb.setEndpoint("api/expense_type");
+        wb.setMethod("PUT");
+        wb.setData(tag);
+        webSocketHandler.handleTextMessage(sender,
+            new TextMessage(objectMapper.writeValueAsString(wb)));
+
+        verify(sameEvent).sendMessage(argThat(message -> message.getPayload().toString()
+            .contains("\"endpoint\":\"events/delta\"")
+            && message.getPayload().toString().contains("\"type\":\"TAG_CHANGED\"")
+            && message.getPayload().toString().contains("\"version\":1")));
+        verify(sender, atLeastOnce()).sendMessage(argThat(message ->
+            message.getPayload().toString().contains("events/delta")));
+        verify(otherEvent, never()).sendMessage(any(TextMessage.class));
+        webSocketHandler.afterConnectionClosed(sender, null);
+        webSocketHandler.afterConnectionClosed(sameEvent, null);
+        webSocketHandler.afterConnectionClosed(otherEvent, null);
+    }
+
+    @Test
+    void pushDelta_deliversConcurrentDeltasInVersionOrder() throws Exception {
+        WebSocketSession first = mock(WebSocketSession.class);
+        WebSocketSession second = mock(WebSocketSession.class);
+        WebSocketSession listener = mock(WebSocketSession.class);
+        openOnEvent(first, "ORDER1");
+        openOnEvent(second, "ORDER1");
+        openOnEvent(listener, "ORDER1");
+        List<Long> versions = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            Matcher version = Pattern.compile("\"version\":(\\d+)")
+                .matcher(invocation.<TextMessage>getArgument(0).getPayload());
+            if (version.find()) {
+                versions.add(Long.parseLong(version.group(1)));
+            }
+            return null;
+        }).when(listener).sendMessage(any());
+        ExpenseType tag = new ExpenseType("boss", "orange", null);
+        ExpenseTypeController tags = (ExpenseTypeController)
+            ReflectionTestUtils.getField(webSocketHandler, "expenseTypeController");
+        when(tags.update(any())).thenReturn(ResponseEntity.ok(tag));
+        WebSocketMessage wb = new WebSocketMessage();
+        wb.setEndpoint("api/expense_type");
+        wb.setMethod("PUT");
+        wb.setData(tag);
+        TextMessage update = new TextMessage(objectMapper.writeValueAsString(wb));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Future<?>> writers = new ArrayList<>();
+        for (WebSocketSession sender : List.of(first, second)) {
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    webSocketHandler.handleTextMessage(sender, update);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        pool.shutdown();
+
+        assertEquals(400, versions.size());
+        for (int i = 1; i < versions.size(); i++) {
+            assertEquals(versions.get(i - 1) + 1, versions.get(i));
+        }
+        webSocketHandler.afterConnectionClosed(first, null);
+        webSocketHandler.afterConnectionClosed(second, null);
+        webSocketHandler.afterConnectionClosed(listener, null);
+    }
+
+    @Test
+    void expensesCompacted_refreshesSessionsOfTheEvent() throws Exception {
+        WebSocketSession sameEvent = mock(WebSocketSession.class);
+        WebSocketSession otherEvent = mock(WebSocketSession.class);
+        openOnEvent(sameEvent, "COMPACT1");
+        openOnEvent(otherEvent, "COMPACT2");
+        clearInvocations(sameEvent, otherEvent);
+
+        webSocketHandler.expensesCompacted(new ExpensesCompacted("COMPACT1"));
+
+        verify(eventSnapshotService).invalidate("COMPACT1");
+        verify(sameEvent).sendMessage(argThat(message -> message.getPayload().toString()
+            .contains("events/refresh")));
+        verify(otherEvent, never()).sendMessage(any(TextMessage.class));
+        webSocketHandler.afterConnectionClosed(sameEvent, null);
+        webSocketHandler.afterConnectionClosed(otherEvent, null);
+    }
+
+    @Test
+    void subscribe_startsVersionAtLastUpdateTime() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(eventRepository.findLastUpdateTimeByInviteCode("SEED01"))
+            .thenReturn(Optional.of(LocalDateTime.of(2024, 1, 1, 0, 0, 0, 5_000)));
+        openOnEvent(session, "seed01");
+        verify(session).sendMessage(argThat(message -> message.getPayload().toString()
+            .contains("\"data\":1704067200000005")));
+
+        // Dropped with the last client, the next counter starts at the new update time
+        webSocketHandler.afterConnectionClosed(session, null);
+        when(eventRepository.findLastUpdateTimeByInviteCode("SEED01"))
+            .thenReturn(Optional.of(LocalDateTime.of(2024, 1, 1, 0, 0, 1)));
+        clearInvocations(session);
+        openOnEvent(session, "SEED01");
+        verify(session).sendMessage(argThat(message -> message.getPayload().toString()
+            .contains("\"data\":1704067201000000")));
+        webSocketHandler.afterConnectionClosed(session, null);
+    }
+
+    private void openOnEvent(WebSocketSession session, String inviteCode) throws Exception {
+        webSocketHandler.afterConnectionEstablished(session);
+        WebSocketMessage wb = new WebSocketMessage();
+        wb.setEndpoint("api/client");
+        wb.setMethod("POST");
+        wb.setData(inviteCode);
+        webSocketHandler.handleTextMessage(session,
+            new TextMessage(objectMapper.writeValueAsString(wb)));
+    }
+
+    @Test
+    void handleGetEventById_returnsSnapshot() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(eventSnapshotService.getSnapshot("SNAP01"))
+            .thenReturn(Optional.of("{\"inviteCode\":\"SNAP01\"}"));
+        WebSocketMessage wb = new WebSocketMessage();
+        wb.setId("7");
+        wb.setEndpoint("api/events/id");
+        wb.setMethod("GET");
+        wb.setParameters(List.of("SNAP01"));
+
+        webSocketHandler.handleTextMessage(session,
+            new TextMessage(objectMapper.writeValueAsString(wb)));
+
+        verify(session).sendMessage(argThat(message -> message.getPayload().toString()
+            .contains("\"data\":{\"inviteCode\":\"SNAP01\"}")));
+        webSocketHandler.afterConnectionClosed(session, null);
+    }
 }
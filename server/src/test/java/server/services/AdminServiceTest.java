@@ -39,7 +39,6 @@ class AdminServiceTest {
     void testGetAdminByUsername() {
         Admin admin = new Admin("username", "password", null);
         when(adminRepository.findById(any())).thenReturn(Optional.of(admin));
-        when(adminRepository.existsById(admin.getUsername())).thenReturn(true);
 
         Optional<Admin> result = adminService.getAdminByUsername("username");
         Assertions.assertFalse(result.isEmpty());
@@ -60,10 +59,9 @@ class AdminServiceTest {
     void testDeleteAdminByUsername() {
         Admin admin = new Admin("username", "password", null);
         when(adminRepository.findById(any())).thenReturn(Optional.of(admin));
-        when(adminRepository.existsById(any())).thenReturn(true);
 
         Optional<Admin> result = adminService.deleteAdminByUsername("username");
-        verify(adminRepository).deleteById(any());
+        verify(adminRepository).delete(admin);
         Assertions.assertEquals(Optional.of(admin), result);
     }
 
@@ -71,7 +69,6 @@ class AdminServiceTest {
     void testAuthenticateAdmin() {
         Admin admin = new Admin("username", "password", null);
         when(adminRepository.findById(any())).thenReturn(Optional.of(admin));
-        when(adminRepository.existsById(any())).thenReturn(true);
 
         boolean result = adminService.authenticateAdmin(admin);
         Assertions.assertTrue(result);
@@ -0,0 +1,148 @@
+package server.services;
+
+import commons.Event;
+import commons.Expense;
+import commons.Monetary;
+import commons.Participant;
+import commons.ParticipantBalance;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server.database.BalanceRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import server.database.EventRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BalanceLedgerServiceTest {
+    @Mock
+    private BalanceRepository balanceRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BalanceLedgerService balanceLedger;
+
+    private Event event;
+    private Participant alice;
+    private Participant bob;
+    private Participant carol;
+    private Expense expense;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        alice = new Participant("alice", "", "", "");
+        alice.setId(1);
+        bob = new Participant("bob", "", "", "");
+        bob.setId(2);
+        carol = new Participant("carol", "", "", "");
+        carol.setId(3);
+        event = new Event("ABCDEF", "name", LocalDateTime.now(), Set.of(alice, bob, carol),
+            new HashSet<>());
+        expense = new Expense(event, "food", alice, new Monetary(900), LocalDate.now(),
+            Set.of(alice, bob, carol));
+        event.setExpenses(new HashSet<>(Set.of(expense)));
+    }
+
+    @Test
+    void testContribution() {
+        Assertions.assertEquals(Map.of(1L, 600L, 2L, -300L, 3L, -300L),
+            BalanceLedgerService.contribution(expense));
+    }
+
+    @Test
+    void testContributionWithoutSplit() {
+        expense.setSplitBetween(Set.of());
+        Assertions.assertEquals(Map.of(), BalanceLedgerService.contribution(expense));
+    }
+
+    @Test
+    void testRecordAddedUpdatesExistingRows() {
+        when(balanceRepository.addToBalance(anyString(), anyLong(), anyLong())).thenReturn(1);
+        balanceLedger.recordAdded("ABCDEF", expense);
+        verify(balanceRepository).addToBalance("ABCDEF", 1, 600);
+        verify(balanceRepository).addToBalance("ABCDEF", 2, -300);
+        verify(balanceRepository).addToBalance("ABCDEF", 3, -300);
+        verify(balanceRepository, never()).save(any());
+    }
+
+    @Test
+    void testRecordAddedCreatesMissingRows() {
+        balanceLedger.recordAdded("ABCDEF", expense);
+        verify(balanceRepository).save(new ParticipantBalance("ABCDEF", 2, -300));
+    }
+
+    @Test
+    void testRecordUpdatedAppliesDifference() {
+        when(balanceRepository.addToBalance(anyString(), anyLong(), anyLong())).thenReturn(1);
+        Map<Long, Long> before = BalanceLedgerService.contribution(expense);
+        expense.setSplitBetween(Set.of(alice, bob));
+        balanceLedger.recordUpdated("ABCDEF", before, expense);
+        verify(balanceRepository).addToBalance("ABCDEF", 1, -600);
+        verify(balanceRepository).addToBalance("ABCDEF", 1, 450);
+        verify(balanceRepository).addToBalance("ABCDEF", 3, 300);
+    }
+
+    @Test
+    void testRecordRemoved() {
+        when(balanceRepository.addToBalance(anyString(), anyLong(), anyLong())).thenReturn(1);
+        balanceLedger.recordRemoved("ABCDEF", BalanceLedgerService.contribution(expense));
+        verify(balanceRepository).addToBalance("ABCDEF", 1, -600);
+        verify(balanceRepository).addToBalance("ABCDEF", 2, 300);
+    }
+
+    @Test
+    void testGetBalances() {
+        when(balanceRepository.findByEventInviteCode("ABCDEF")).thenReturn(List.of(
+            new ParticipantBalance("ABCDEF", 1, 600),
+            new ParticipantBalance("ABCDEF", 2, -600),
+            new ParticipantBalance("ABCDEF", 42, 5)));
+        Assertions.assertEquals(Map.of(alice, 600L, bob, -600L), balanceLedger.getBalances(event));
+    }
+
+    @Test
+    void testRebuild() {
+        balanceLedger.rebuild(event);
+        verify(balanceRepository).deleteByEventInviteCode("ABCDEF");
+        verify(balanceRepository).save(new ParticipantBalance("ABCDEF", 1, 600));
+        verify(balanceRepository).save(new ParticipantBalance("ABCDEF", 2, -300));
+        verify(balanceRepository).save(new ParticipantBalance("ABCDEF", 3, -300));
+    }
+
+    @Test
+    void testBackfillRebuildsEventsWithoutBalances() {
+        when(eventRepository.findInviteCodesWithoutBalancesAfter(eq(""), any()))
+            .thenReturn(List.of("ABCDEF"));
+        when(eventRepository.findFullByInviteCode("ABCDEF")).thenReturn(Optional.of(event));
+        balanceLedger.backfill();
+        verify(balanceRepository).deleteByEventInviteCode("ABCDEF");
+        verify(balanceRepository, times(3)).save(any(ParticipantBalance.class));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testBackfillWithoutEventsLeftDoesNothing() {
+        when(eventRepository.findInviteCodesWithoutBalancesAfter(eq(""), any()))
+            .thenReturn(List.of());
+        balanceLedger.backfill();
+        verify(eventRepository, never()).findFullByInviteCode(anyString());
+        verifyNoInteractions(balanceRepository);
+    }
+}
@@ -0,0 +1,85 @@
+package server.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server.database.EventRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.*;
+
+class EventExportServiceTest {
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private EventExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        exportService = new EventExportService(eventRepository, entityManager);
+    }
+
+    private Event event(String inviteCode) {
+        return new Event(inviteCode, "name", LocalDateTime.now(), new HashSet<>(),
+            new HashSet<>());
+    }
+
+    @Test
+    void testExportWritesEveryEvent() throws IOException {
+        when(eventRepository.streamAll()).thenReturn(Stream.of(event("AAAAAA"), event("BBBBBB")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Assertions.assertEquals(2, exportService.export(out));
+
+        JsonNode dump = new ObjectMapper().readTree(out.toByteArray());
+        Assertions.assertTrue(dump.isArray());
+        Assertions.assertEquals(2, dump.size());
+        Assertions.assertEquals("AAAAAA", dump.get(0).get("inviteCode").asText());
+        Assertions.assertEquals("BBBBBB", dump.get(1).get("inviteCode").asText());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void testExportWithoutEvents() throws IOException {
+        when(eventRepository.streamAll()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Assertions.assertEquals(0, exportService.export(out));
+        Assertions.assertEquals("[]", out.toString());
+    }
+
+    @Test
+    void testExportClosesCursorButNotOutput() throws IOException {
+        AtomicBoolean cursorClosed = new AtomicBoolean();
+        when(eventRepository.streamAll())
+            .thenReturn(Stream.of(event("AAAAAA")).onClose(() -> cursorClosed.set(true)));
+        AtomicBoolean outputClosed = new AtomicBoolean();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                outputClosed.set(true);
+            }
+        };
+
+        exportService.export(out);
+
+        Assertions.assertTrue(cursorClosed.get());
+        Assertions.assertFalse(outputClosed.get());
+    }
+}
@@ -0,0 +1,199 @@
+package server.services;
+
+import commons.Event;
+import commons.Expense;
+import commons.ExpenseType;
+import commons.ImportResult;
+import commons.Monetary;
+import commons.Participant;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import server.database.EventRepository;
+import server.database.ParticipantRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EventImportServiceTest {
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private ParticipantRepository participantRepository;
+
+    @Mock
+    private BalanceLedgerService balanceLedger;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EventImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        importService = new EventImportService(eventRepository, participantRepository,
+            balanceLedger, entityManager, transactionManager);
+        when(eventRepository.findExistingInviteCodes(anyCollection())).thenReturn(List.of());
+        when(participantRepository.findAllById(anyIterable())).thenReturn(List.of());
+    }
+
+    private Participant participant(String name, long id) {
+        Participant participant = new Participant(name, name + "@mail.com", "NLTEST", "ABCDEF12");
+        participant.setId(id);
+        return participant;
+    }
+
+    private Event event(String inviteCode, Participant... participants) {
+        return new Event(inviteCode, "name", LocalDateTime.now(),
+            new HashSet<>(Set.of(participants)), new HashSet<>());
+    }
+
+    @Test
+    void testValidate() {
+        Assertions.assertNull(EventImportService.validate(event("ABCDEF")));
+        Assertions.assertEquals("missing invite code", EventImportService.validate(null));
+        Assertions.assertEquals("missing invite code", EventImportService.validate(event("")));
+        Event unnamed = event("ABCDEF");
+        unnamed.setName(null);
+        Assertions.assertEquals("missing name", EventImportService.validate(unnamed));
+        Assertions.assertEquals("participants share a name", EventImportService.validate(
+            event("ABCDEF", participant("Alice", 1), participant("Alice", 2))));
+        Assertions.assertEquals("participants share an id", EventImportService.validate(
+            event("ABCDEF", participant("Alice", 1), participant("Bob", 1))));
+    }
+
+    @Test
+    void testImportReportsEveryEventInOrder() {
+        Event invalid = event("");
+        when(eventRepository.findExistingInviteCodes(anyCollection()))
+            .thenReturn(List.of("TAKEN"));
+
+        List<ImportResult> results = importService.importEvents(List.of(event("abcdef"),
+            invalid, event("ABCDEF"), event("taken")));
+
+        Assertions.assertEquals(List.of(ImportResult.Status.IMPORTED,
+            ImportResult.Status.INVALID, ImportResult.Status.DUPLICATE,
+            ImportResult.Status.DUPLICATE), results.stream().map(ImportResult::getStatus).toList());
+        Assertions.assertEquals("ABCDEF", results.get(0).getInviteCode());
+        verify(eventRepository).findExistingInviteCodes(Set.of("ABCDEF", "TAKEN"));
+        verify(balanceLedger, times(1)).open(any());
+    }
+
+    @Test
+    void testImportReusesKnownParticipants() {
+        Participant stored = participant("Alice", 1);
+        Participant changed = participant("Bob", 2);
+        changed.setEmail("other@mail.com");
+        when(participantRepository.findAllById(anyIterable()))
+            .thenReturn(List.of(stored, participant("Bob", 2)));
+        Participant alice = participant("Alice", 1);
+        Participant bob = participant("Bob", 2);
+        Event event = event("ABCDEF", alice, changed);
+
+        importService.importEvents(List.of(event));
+
+        verify(entityManager, never()).persist(alice);
+        verify(entityManager).persist(changed);
+        Assertions.assertEquals(0, changed.getId());
+        Assertions.assertTrue(event.getParticipants().contains(stored));
+        Assertions.assertFalse(event.getParticipants().contains(bob));
+    }
+
+    @Test
+    void testImportDropsExpensesOfUnknownParticipants() {
+        Participant alice = participant("Alice", 1);
+        Participant stranger = participant("Stranger", 9);
+        Event event = event("ABCDEF", alice);
+        ExpenseType food = new ExpenseType("food", "#ff0000", event);
+        food.setId(7);
+        event.setTags(new HashSet<>(Set.of(food)));
+        Expense kept = new Expense(event, "lunch", alice, new Monetary(100), LocalDate.now(),
+            new HashSet<>(Set.of(alice)));
+        kept.setTags(new HashSet<>(Set.of(food)));
+        Expense dropped = new Expense(event, "dinner", alice, new Monetary(100),
+            LocalDate.now(), new HashSet<>(Set.of(alice, stranger)));
+        event.setExpenses(new HashSet<>(Set.of(kept, dropped)));
+
+        importService.importEvents(List.of(event));
+
+        verify(entityManager).persist(kept);
+        verify(entityManager, never()).persist(dropped);
+        Assertions.assertEquals(0, food.getId());
+        Assertions.assertEquals(Set.of(kept), event.getExpenses());
+    }
+
+    @Test
+    void testImportRollsBackFailingChunkOnly() {
+        importService.setChunkSize(1);
+        Event broken = event("BROKEN");
+        doThrow(new IllegalStateException("constraint violated"))
+            .when(entityManager).persist(broken);
+
+        List<ImportResult> results = importService.importEvents(List.of(event("ABCDEF"),
+            broken));
+
+        Assertions.assertEquals(ImportResult.imported("ABCDEF"), results.get(0));
+        Assertions.assertEquals(new ImportResult("BROKEN", ImportResult.Status.FAILED,
+            "constraint violated"), results.get(1));
+        verify(eventRepository, times(2)).findExistingInviteCodes(anyCollection());
+        verify(transactionManager).commit(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void testImportStreamSavesChunks() throws IOException {
+        importService.setChunkSize(2);
+        when(eventRepository.findExistingInviteCodes(anyCollection()))
+            .thenReturn(List.of("BBB"));
+        String lines = """
+            {"inviteCode":"AAA","name":"first","unknown":true}
+            {"inviteCode":"BBB","name":"second"}
+            {"inviteCode":"CCC","name":"third"}
+            """;
+        List<ImportResult> rejected = new ArrayList<>();
+
+        long imported = importService.importStream(
+            new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)), rejected);
+
+        Assertions.assertEquals(2, imported);
+        Assertions.assertEquals(List.of(new ImportResult("BBB", ImportResult.Status.DUPLICATE,
+            "invite code is taken")), rejected);
+        verify(eventRepository, times(2)).findExistingInviteCodes(anyCollection());
+    }
+
+    @Test
+    void testImportStreamStopsAtMalformedEvent() throws IOException {
+        String lines = """
+            {"inviteCode":"AAA","name":"first"}
+            {"inviteCode":"BBB","name":
+            """;
+        List<ImportResult> rejected = new ArrayList<>();
+
+        long imported = importService.importStream(
+            new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)), rejected);
+
+        Assertions.assertEquals(1, imported);
+        Assertions.assertEquals(1, rejected.size());
+        Assertions.assertEquals(ImportResult.Status.INVALID, rejected.get(0).getStatus());
+        Assertions.assertNull(rejected.get(0).getInviteCode());
+    }
+}
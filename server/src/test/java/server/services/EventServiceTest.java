@@ -2,6 +2,7 @@ package server.services;
 
 import commons.Admin;
 import commons.Event;
+import commons.EventSummary;
 import commons.Participant;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,8 +10,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import server.database.AdminRepository;
 import server.database.EventRepository;
+import server.database.EventSummaryView;
 
 import java.time.LocalDateTime;
 import java.time.Month;
@@ -28,6 +32,10 @@ class EventServiceTest {
     EventRepository eventRepository;
     @Mock
     AdminRepository adminRepository;
+    @Mock
+    SettlementService settlementService;
+    @Mock
+    EventSnapshotService eventSnapshotService;
     @InjectMocks
     EventService eventService;
 
@@ -39,26 +47,79 @@ class EventServiceTest {
     @Test
     void testGetAllEvents() {
         Event event = new Event("inviteCode", "name", LocalDateTime.of(2024, Month.MARCH, 23, 22, 2, 40), Set.of(new Participant("name", "email", "iban", "bic")), new HashSet<>());
-        when(eventRepository.findAll()).thenReturn(List.of(event));
+        when(eventRepository.findAllHeaders()).thenReturn(List.of(event));
 
         List<Event> result = eventService.getAllEvents();
         Assertions.assertEquals(List.of(event), result);
+        verify(eventRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetEventSummaries() {
+        LocalDateTime time = LocalDateTime.of(2024, Month.MARCH, 23, 22, 2, 40);
+        EventSummaryView view = mock(EventSummaryView.class);
+        when(view.getInviteCode()).thenReturn("inviteCode");
+        when(view.getName()).thenReturn("name");
+        when(view.getCreationTime()).thenReturn(time);
+        when(view.getLastUpdateTime()).thenReturn(time);
+        when(view.getParticipantCount()).thenReturn(4L);
+        when(view.getExpenseCount()).thenReturn(7L);
+        when(view.getTotalAmount()).thenReturn(12345L);
+        when(eventRepository.findSummaries(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(view)));
+
+        List<EventSummary> result = eventService.getEventSummaries(2, 25);
+
+        EventSummary expected = new EventSummary("inviteCode", "name", time, time, 4, 7);
+        expected.setTotalAmount(12345);
+        Assertions.assertEquals(List.of(expected), result);
+        verify(eventRepository).findSummaries(argThat(p -> p.getPageNumber() == 2
+            && p.getPageSize() == 25 && p.getSort().getOrderFor("creationTime").isDescending()));
+        verify(eventRepository, never()).findAll();
     }
 
     @Test
     void testGetEventByInviteCode() {
         Event event = new Event("inviteCode", "name", LocalDateTime.of(2024, Month.MARCH, 23, 22, 2, 40), Set.of(new Participant("name", "email", "iban", "bic")), new HashSet<>());
-        when(eventRepository.existsByInviteCodeEqualsIgnoreCase(anyString())).thenReturn(true);
-        when(eventRepository.findById(any())).thenReturn(Optional.of(event));
+        when(eventRepository.findFullByInviteCode(any())).thenReturn(Optional.of(event));
         when(adminRepository.findById(any())).thenReturn(null);
 
         Optional<Event> result = eventService.getEventByInviteCode("inviteCode");
         Assertions.assertEquals(Optional.of(event), result);
     }
 
+    @Test
+    void testGetEventByInviteCodeInLowerCase() {
+        Event event = new Event("ABCDEF", "name", LocalDateTime.of(2024, Month.MARCH, 23, 22, 2, 40), new HashSet<>(), new HashSet<>());
+        when(eventRepository.findFullByInviteCode("ABCDEF")).thenReturn(Optional.of(event));
+
+        Assertions.assertEquals(Optional.of(event), eventService.getEventByInviteCode("abcDef"));
+    }
+
+    @Test
+    void testExists() {
+        when(eventRepository.findById("INVITECODE")).thenReturn(Optional.of(new Event()));
+
+        Assertions.assertTrue(eventService.exists("inviteCode"));
+        Assertions.assertFalse(eventService.exists("unknown"));
+        Assertions.assertFalse(eventService.exists(""));
+        verify(eventRepository, never()).findFullByInviteCode(anyString());
+    }
+
+    @Test
+    void testDeleteEvent() {
+        Event event = new Event("INVITECODE", "name", LocalDateTime.now(), Set.of(),
+            new HashSet<>());
+        when(eventRepository.findById("INVITECODE")).thenReturn(Optional.of(event));
+
+        Assertions.assertEquals(Optional.of(event), eventService.deleteEvent("inviteCode"));
+        Assertions.assertEquals(Optional.empty(), eventService.deleteEvent("unknown"));
+        verify(eventRepository).delete(event);
+        verify(eventSnapshotService).invalidate("INVITECODE");
+    }
+
     @Test
     void testCreateEvent() {
-        when(eventRepository.existsByInviteCodeEqualsIgnoreCase(anyString())).thenReturn(false);
+        when(eventRepository.existsById(anyString())).thenReturn(false);
         when(eventRepository.save(any())).thenReturn(new Event());
         when(adminRepository.save(any())).thenReturn(new Admin());
 
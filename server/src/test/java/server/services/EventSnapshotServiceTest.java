@@ -0,0 +1,93 @@
+package server.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import commons.Event;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server.database.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+class EventSnapshotServiceTest {
+    @Mock
+    private EventRepository eventRepository;
+
+    private EventSnapshotService snapshotService;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        snapshotService = new EventSnapshotService(eventRepository, objectMapper);
+        event = new Event("ABCDEF", "name", LocalDateTime.now(), new HashSet<>(),
+            new HashSet<>());
+        when(eventRepository.findFullByInviteCode("ABCDEF")).thenReturn(Optional.of(event));
+        when(eventRepository.findLastUpdateTimeByInviteCode("ABCDEF"))
+            .thenAnswer(invocation -> Optional.of(event.getLastUpdateTime()));
+    }
+
+    @Test
+    void testSnapshotContainsEvent() {
+        String json = snapshotService.getSnapshot("ABCDEF").orElseThrow();
+        Assertions.assertTrue(json.contains("\"inviteCode\":\"ABCDEF\""));
+    }
+
+    @Test
+    void testUnknownEvent() {
+        Assertions.assertEquals(Optional.empty(), snapshotService.getSnapshot("NOPE"));
+        Assertions.assertEquals(Optional.empty(), snapshotService.getSnapshot(""));
+    }
+
+    @Test
+    void testSnapshotIsReused() {
+        String first = snapshotService.getSnapshot("ABCDEF").orElseThrow();
+        String second = snapshotService.getSnapshot("ABCDEF").orElseThrow();
+        Assertions.assertSame(first, second);
+        verify(eventRepository, times(1)).findFullByInviteCode("ABCDEF");
+    }
+
+    @Test
+    void testUpdateTimeChangeReserializes() {
+        snapshotService.getSnapshot("ABCDEF");
+        event.setName("renamed");
+        event.setLastUpdateTime(event.getLastUpdateTime().plusSeconds(1));
+        Assertions.assertTrue(snapshotService.getSnapshot("ABCDEF").orElseThrow()
+            .contains("renamed"));
+    }
+
+    @Test
+    void testInvalidate() {
+        snapshotService.getSnapshot("ABCDEF");
+        event.setName("renamed");
+        snapshotService.invalidate("ABCDEF");
+        Assertions.assertTrue(snapshotService.getSnapshot("ABCDEF").orElseThrow()
+            .contains("renamed"));
+    }
+
+    @Test
+    void testTouchEventsOfParticipant() {
+        LocalDateTime before = LocalDateTime.of(2024, 1, 1, 12, 0);
+        event.setLastUpdateTime(before);
+        snapshotService.getSnapshot("ABCDEF");
+        when(eventRepository.findInviteCodesByParticipantId(1)).thenReturn(List.of("ABCDEF"));
+        when(eventRepository.findById("ABCDEF")).thenReturn(Optional.of(event));
+        event.setName("renamed");
+
+        snapshotService.touchEventsOf(1);
+
+        Assertions.assertTrue(event.getLastUpdateTime().isAfter(before));
+        Assertions.assertTrue(snapshotService.getSnapshot("ABCDEF").orElseThrow()
+            .contains("renamed"));
+    }
+}
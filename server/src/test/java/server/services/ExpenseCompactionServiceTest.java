@@ -0,0 +1,154 @@
+package server.services;
+
+import commons.Event;
+import commons.Expense;
+import commons.Monetary;
+import commons.Participant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExpenseCompactionServiceTest {
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private BalanceLedgerService balanceLedger;
+
+    @Mock
+    private SettlementService settlementService;
+
+    @Mock
+    private EventSnapshotService eventSnapshotService;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @InjectMocks
+    private ExpenseCompactionService compaction;
+
+    private Event event;
+    private Participant alice;
+    private Participant bob;
+    private Participant carol;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        alice = new Participant("Alice", "alice@alice.com", "NLTEST", "ABCDEF12");
+        alice.setId(1);
+        bob = new Participant("Bob", "bob@bob.com", "DETEST", "FEDCBA21");
+        bob.setId(2);
+        carol = new Participant("Carol", "carol@carol.com", "BETEST", "ABCABC12");
+        carol.setId(3);
+        event = new Event("ABCDEF", "name", LocalDateTime.now(), Set.of(alice, bob, carol),
+            new HashSet<>());
+        when(eventRepository.lockByInviteCode("ABCDEF")).thenReturn(Optional.of(event));
+    }
+
+    private Expense expense(Participant creator, long amount, Participant... split) {
+        return new Expense(event, "food", creator, new Monetary(amount), LocalDate.now(),
+            new HashSet<>(Set.of(split)));
+    }
+
+    @Test
+    void testSettledParticipantsNull() {
+        Assertions.assertEquals(List.of(), ExpenseCompactionService.settledParticipants(null));
+    }
+
+    @Test
+    void testSettledParticipantsEmptyList() {
+        Assertions.assertEquals(List.of(),
+            ExpenseCompactionService.settledParticipants(List.of()));
+    }
+
+    @Test
+    void testSettledParticipantsSimple() {
+        List<Expense> expenses = List.of(expense(alice, 10, alice, bob),
+            expense(bob, 10, alice, bob));
+        Assertions.assertEquals(Set.of(alice, bob),
+            new HashSet<>(ExpenseCompactionService.settledParticipants(expenses)),
+            "equal debt should cancel out");
+    }
+
+    @Test
+    void testSettledParticipantsUnsettled() {
+        List<Expense> expenses = List.of(expense(alice, 20, alice, bob),
+            expense(bob, 10, alice, bob));
+        Assertions.assertEquals(List.of(), ExpenseCompactionService.settledParticipants(expenses),
+            "unsettled debt");
+    }
+
+    @Test
+    void testCompactWithoutSettledParticipants() {
+        when(expenseRepository.getExpensesByEventInviteCode("ABCDEF"))
+            .thenReturn(List.of(expense(alice, 20, alice, bob)));
+        Assertions.assertEquals(0, compaction.compact("ABCDEF"));
+        verify(expenseRepository, never()).save(any());
+        verify(expenseRepository, never()).delete(any());
+        verify(settlementService, never()).invalidate(anyString());
+        verifyNoInteractions(eventSnapshotService, events);
+    }
+
+    @Test
+    void testCompactUnknownEvent() {
+        Assertions.assertEquals(0, compaction.compact("GHIJKL"));
+        verifyNoInteractions(expenseRepository, eventSnapshotService, events);
+    }
+
+    @Test
+    void testCompactRemovesSettledParticipant() {
+        // Bob paid exactly his share of the first expense back to Alice
+        Expense dinner = expense(alice, 900, alice, bob, carol);
+        Expense payback = expense(bob, 300, alice);
+        when(expenseRepository.getExpensesByEventInviteCode("ABCDEF"))
+            .thenReturn(new ArrayList<>(List.of(dinner, payback)));
+
+        Assertions.assertEquals(2, compaction.compact("abcdef"));
+
+        verify(eventRepository).lockByInviteCode("ABCDEF");
+        verify(eventSnapshotService).touch(event);
+        verify(expenseRepository).delete(payback);
+        verify(expenseRepository).save(dinner);
+        Assertions.assertEquals(Set.of(alice, carol), dinner.getSplitBetween());
+        Assertions.assertEquals(600, dinner.getAmount().getInternalValue());
+        verify(balanceLedger).recordRemoved(eq("ABCDEF"), anyMap());
+        verify(balanceLedger).recordUpdated(eq("ABCDEF"), anyMap(), eq(dinner));
+        verify(settlementService).invalidate("ABCDEF");
+        verify(events).publishEvent(new ExpensesCompacted("ABCDEF"));
+    }
+
+    @Test
+    void testCompactIsIdempotent() {
+        List<Expense> expenses = new ArrayList<>(List.of(expense(alice, 10, alice, bob),
+            expense(bob, 10, alice, bob)));
+        when(expenseRepository.getExpensesByEventInviteCode("ABCDEF"))
+            .thenAnswer(invocation -> new ArrayList<>(expenses));
+        doAnswer(invocation -> expenses.remove(invocation.<Expense>getArgument(0)))
+            .when(expenseRepository).delete(any());
+
+        Assertions.assertEquals(2, compaction.compact("ABCDEF"));
+        Assertions.assertTrue(expenses.isEmpty());
+        Assertions.assertEquals(0, compaction.compact("ABCDEF"));
+    }
+}
@@ -0,0 +1,138 @@
+package server.services;
+
+import commons.Event;
+import commons.Expense;
+import commons.Monetary;
+import commons.Participant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExpenseServiceTest {
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private BalanceLedgerService balanceLedger;
+
+    @Mock
+    private SettlementService settlementService;
+
+    @Mock
+    private EventSnapshotService eventSnapshotService;
+
+    @InjectMocks
+    private ExpenseService expenseService;
+
+    private Event event;
+    private Participant alice;
+    private Participant bob;
+    private Expense expense;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        alice = new Participant("Alice", "alice@alice.com", "NLTEST", "ABCDEF12");
+        alice.setId(1);
+        bob = new Participant("Bob", "bob@bob.com", "DETEST", "FEDCBA21");
+        bob.setId(2);
+        event = new Event("ABCDEF", "name", LocalDateTime.now(), Set.of(alice, bob),
+            new HashSet<>());
+        expense = new Expense(event, "food", alice, new Monetary(100), LocalDate.now(),
+            new HashSet<>(Set.of(alice, bob)));
+        expense.setId(7L);
+        when(expenseRepository.save(any(Expense.class))).thenAnswer(i -> i.getArgument(0));
+    }
+
+    @Test
+    void testAddLocksEventBeforeWriting() {
+        when(eventRepository.lockByInviteCode("ABCDEF")).thenReturn(Optional.of(event));
+        when(eventRepository.getReferenceById("ABCDEF")).thenReturn(event);
+        Expense added = new Expense(null, "food", alice, new Monetary(100), LocalDate.now(),
+            new HashSet<>(Set.of(alice, bob)));
+
+        expenseService.addExpense("abcdef", added);
+
+        Assertions.assertEquals(event, added.getEvent());
+        InOrder order = inOrder(eventRepository, eventSnapshotService, expenseRepository,
+            balanceLedger);
+        order.verify(eventRepository).lockByInviteCode("ABCDEF");
+        order.verify(eventSnapshotService).touch(event);
+        order.verify(expenseRepository).save(added);
+        order.verify(balanceLedger).recordAdded("ABCDEF", added);
+        verify(settlementService).invalidate("ABCDEF");
+    }
+
+    @Test
+    void testAddOfEventIgnoresCase() {
+        Event lowerCase = new Event("abcdef", "name", LocalDateTime.now(), Set.of(alice, bob),
+            new HashSet<>());
+        Expense added = new Expense(lowerCase, "food", alice, new Monetary(100),
+            LocalDate.now(), new HashSet<>(Set.of(alice, bob)));
+
+        expenseService.addExpense(added);
+
+        verify(eventRepository).lockByInviteCode("ABCDEF");
+        verify(balanceLedger).recordAdded("ABCDEF", added);
+        verify(settlementService).invalidate("ABCDEF");
+    }
+
+    @Test
+    void testUpdateAppliesDifference() {
+        when(expenseRepository.findEventInviteCodeById(7L)).thenReturn(Optional.of("ABCDEF"));
+        when(expenseRepository.findById(7L)).thenReturn(Optional.of(expense));
+        Expense changes = new Expense();
+        changes.setAmount(new Monetary(300));
+
+        Optional<Expense> updated = expenseService.updateExpense(7L, changes);
+
+        Assertions.assertEquals(300, updated.orElseThrow().getAmount().getInternalValue());
+        verify(eventRepository).lockByInviteCode("ABCDEF");
+        verify(balanceLedger).recordUpdated("ABCDEF", Map.of(1L, 50L, 2L, -50L), expense);
+        verify(settlementService).invalidate("ABCDEF");
+    }
+
+    @Test
+    void testUpdateMissingExpense() {
+        Assertions.assertEquals(Optional.empty(), expenseService.updateExpense(8L, new Expense()));
+        verify(expenseRepository, never()).save(any());
+        verifyNoInteractions(balanceLedger);
+    }
+
+    @Test
+    void testDeleteRevertsBalances() {
+        when(expenseRepository.findEventInviteCodeById(7L)).thenReturn(Optional.of("ABCDEF"));
+        when(expenseRepository.findById(7L)).thenReturn(Optional.of(expense));
+
+        Assertions.assertEquals(Optional.of(expense), expenseService.deleteExpense(7L));
+        verify(eventRepository).lockByInviteCode("ABCDEF");
+        verify(expenseRepository).delete(expense);
+        verify(balanceLedger).recordRemoved("ABCDEF", Map.of(1L, 50L, 2L, -50L));
+    }
+
+    @Test
+    void testDeleteMissingExpense() {
+        Assertions.assertEquals(Optional.empty(), expenseService.deleteExpense(8L));
+        verify(expenseRepository, never()).delete(any());
+        verifyNoInteractions(balanceLedger);
+    }
+}
@@ -20,6 +20,9 @@ class ParticipantServiceTest {
     @Mock
     private ParticipantRepository participantRepository;
 
+    @Mock
+    private EventSnapshotService eventSnapshotService;
+
     @InjectMocks
     private ParticipantService participantService;
 
@@ -41,7 +44,6 @@ class ParticipantServiceTest {
     void testGetParticipantById() {
         Participant participant = new Participant("name", "email", "iban", "bic");
         when(participantRepository.findById(any())).thenReturn(Optional.of(participant));
-        when(participantRepository.existsById(any())).thenReturn(true);
 
         Optional<Participant> result = participantService.getParticipantById(Long.valueOf(1));
         Assertions.assertFalse(result.isEmpty());
@@ -60,11 +62,11 @@ class ParticipantServiceTest {
     @Test
     void testDeleteParticipantById() {
         Participant participant = new Participant("name", "email", "iban", "bic");
-        when(participantRepository.existsById(any())).thenReturn(true);
         when(participantRepository.findById(any())).thenReturn(Optional.of(participant));
 
         Optional<Participant> result = participantService.deleteParticipantById(Long.valueOf(1));
-        verify(participantRepository).deleteById(any());
+        verify(participantRepository).delete(participant);
+        verify(eventSnapshotService).touchEventsOf(1L);
         Assertions.assertFalse(result.isEmpty());
         Assertions.assertEquals(participant, result.get());
     }
@@ -76,6 +78,7 @@ class ParticipantServiceTest {
 
         boolean result = participantService.updateParticipant(participant, participant);
         Assertions.assertTrue(result);
+        verify(eventSnapshotService).touchEventsOf(participant.getId());
     }
 
     @Test
@@ -86,7 +89,8 @@ class ParticipantServiceTest {
 
     @Test
     void testCheckParticipantId() {
-        when(participantRepository.existsById(any())).thenReturn(true);
+        when(participantRepository.findById(any()))
+            .thenReturn(Optional.of(new Participant("name", "email", "iban", "bic")));
 
         boolean result = participantService.checkParticipantId(Long.valueOf(1));
         Assertions.assertTrue(result);
@@ -0,0 +1,122 @@
+package server.services;
+
+import commons.Debt;
+import commons.Event;
+import commons.Expense;
+import commons.Monetary;
+import commons.Participant;
+import commons.SettlementMethod;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server.database.EventRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+class SettlementServiceTest {
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private BalanceLedgerService balanceLedger;
+
+    @InjectMocks
+    private SettlementService settlementService;
+
+    private Event event;
+    private Participant alice;
+    private Participant bob;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        alice = new Participant("alice", "", "", "");
+        alice.setId(1);
+        bob = new Participant("bob", "", "", "");
+        bob.setId(2);
+        event = new Event("ABCDEF", "name", LocalDateTime.now(), Set.of(alice, bob),
+            new HashSet<>());
+        event.setExpenses(new HashSet<>(Set.of(new Expense(event, "food", alice,
+            new Monetary(1000), LocalDate.now(), Set.of(alice, bob)))));
+        when(eventRepository.findFullByInviteCode("ABCDEF")).thenReturn(Optional.of(event));
+        when(balanceLedger.getBalances(event)).thenReturn(Map.of(alice, 500L, bob, -500L));
+    }
+
+    @Test
+    void testGetSettlement() {
+        Optional<List<Debt>> result = settlementService.getSettlement("ABCDEF");
+        Assertions.assertEquals(Optional.of(List.of(new Debt(bob, new Monetary(500), alice))),
+            result);
+    }
+
+    @Test
+    void testGetSettlementUnknownEvent() {
+        Assertions.assertEquals(Optional.empty(), settlementService.getSettlement("NOPE"));
+        Assertions.assertEquals(Optional.empty(), settlementService.getSettlement(""));
+    }
+
+    @Test
+    void testGetSettlementIgnoresCase() {
+        List<Debt> first = settlementService.getSettlement("abcdef").orElseThrow();
+        Assertions.assertSame(first, settlementService.getSettlement("ABCDEF").orElseThrow());
+        verify(eventRepository, times(2)).findFullByInviteCode("ABCDEF");
+        settlementService.invalidate("aBcDeF");
+        Assertions.assertNotSame(first, settlementService.getSettlement("ABCDEF").orElseThrow());
+    }
+
+    @Test
+    void testSettlementIsCached() {
+        List<Debt> first = settlementService.getSettlement("ABCDEF").orElseThrow();
+        event.getExpenses().clear();
+        List<Debt> second = settlementService.getSettlement("ABCDEF").orElseThrow();
+        Assertions.assertSame(first, second);
+    }
+
+    @Test
+    void testUpdateTimeChangeRecomputes() {
+        settlementService.getSettlement("ABCDEF");
+        event.getExpenses().clear();
+        event.setLastUpdateTime(event.getLastUpdateTime().plusSeconds(1));
+        Assertions.assertEquals(List.of(),
+            settlementService.getSettlement("ABCDEF").orElseThrow());
+    }
+
+    @Test
+    void testInvalidate() {
+        settlementService.getSettlement("ABCDEF");
+        event.getExpenses().clear();
+        settlementService.invalidate("ABCDEF");
+        Assertions.assertEquals(List.of(),
+            settlementService.getSettlement("ABCDEF").orElseThrow());
+    }
+
+    @Test
+    void testInvalidateForParticipant() {
+        when(eventRepository.findInviteCodesByParticipantId(1)).thenReturn(List.of("ABCDEF"));
+        settlementService.getSettlement("ABCDEF");
+        event.getExpenses().clear();
+        settlementService.invalidateForParticipant(1);
+        Assertions.assertEquals(List.of(),
+            settlementService.getSettlement("ABCDEF").orElseThrow());
+    }
+
+    @Test
+    void testMethodOverride() {
+        List<Debt> greedy = settlementService
+            .getSettlement("ABCDEF", SettlementMethod.GREEDY).orElseThrow();
+        Assertions.assertEquals(List.of(new Debt(bob, new Monetary(500), alice)), greedy);
+        verify(eventRepository, times(1)).findFullByInviteCode("ABCDEF");
+        verify(balanceLedger, times(1)).getBalances(event);
+    }
+}